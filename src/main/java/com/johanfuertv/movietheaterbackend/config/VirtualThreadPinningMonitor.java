@@ -0,0 +1,140 @@
+package com.johanfuertv.movietheaterbackend.config;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier, typically by blocking inside a
+ * {@code synchronized} block or a native frame, for longer than a threshold.
+ *
+ * Listens to the JDK's own {@code jdk.VirtualThreadPinned} flight recorder event in-process,
+ * so no recording file or JVM flag is needed. Each distinct pinning site is logged once with
+ * its stack; later occurrences are only counted and show up in the admin statistics. Only
+ * runs when virtual threads are active.
+ */
+@Component
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int STACK_DEPTH = 8;
+
+    @Autowired
+    private WorkerThreads workerThreads;
+
+    @Value("${virtual-threads.pinning.enabled:true}")
+    private boolean enabled;
+
+    @Value("${virtual-threads.pinning.threshold-millis:20}")
+    private long thresholdMillis;
+
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || !workerThreads.isVirtual()) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+        logger.info("Watching for virtual threads pinned longer than {} ms", thresholdMillis);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void record(RecordedEvent event) {
+        String stack = describe(event.getStackTrace());
+        Site site = sites.computeIfAbsent(stack, s -> new Site());
+        site.count.increment();
+        site.totalMillis.add(event.getDuration().toMillis());
+        if (site.count.sum() == 1) {
+            logger.warn("Virtual thread pinned for {} ms at:\n{}", event.getDuration().toMillis(), stack);
+        }
+    }
+
+    private static String describe(RecordedStackTrace trace) {
+        if (trace == null) {
+            return "(no stack trace)";
+        }
+        return trace.getFrames().stream()
+            .filter(RecordedFrame::isJavaFrame)
+            .limit(STACK_DEPTH)
+            .map(frame -> "    at " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                          + ":" + frame.getLineNumber())
+            .collect(Collectors.joining("\n"));
+    }
+
+    public PinningStats getStats() {
+        List<PinnedSite> pinned = new ArrayList<>();
+        sites.forEach((stack, site) -> pinned.add(new PinnedSite(stack, site.count.sum(), site.totalMillis.sum())));
+        pinned.sort(Comparator.comparing(PinnedSite::getTotalMillis).reversed());
+        return new PinningStats(stream != null, thresholdMillis, pinned);
+    }
+
+    private static final class Site {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+    }
+
+    // Stats classes
+    public static class PinningStats {
+        private Boolean monitoring;
+        private Long thresholdMillis;
+        private List<PinnedSite> sites;
+
+        public PinningStats(Boolean monitoring, Long thresholdMillis, List<PinnedSite> sites) {
+            this.monitoring = monitoring;
+            this.thresholdMillis = thresholdMillis;
+            this.sites = sites;
+        }
+
+        // Getters
+        public Boolean getMonitoring() { return monitoring; }
+        public Long getThresholdMillis() { return thresholdMillis; }
+        public List<PinnedSite> getSites() { return sites; }
+    }
+
+    public static class PinnedSite {
+        private String stack;
+        private Long count;
+        private Long totalMillis;
+
+        public PinnedSite(String stack, Long count, Long totalMillis) {
+            this.stack = stack;
+            this.count = count;
+            this.totalMillis = totalMillis;
+        }
+
+        // Getters
+        public String getStack() { return stack; }
+        public Long getCount() { return count; }
+        public Long getTotalMillis() { return totalMillis; }
+    }
+}
@@ -0,0 +1,62 @@
+package com.johanfuertv.movietheaterbackend.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories for the background pools that block on I/O (SMTP senders).
+ *
+ * With {@code spring.threads.virtual.enabled} on a Java 21+ runtime (the
+ * {@code virtual-threads} profile) the pools get virtual threads, the same switch that moves
+ * Tomcat request handling and the MVC async executor onto virtual threads. Otherwise, and on
+ * Java 17 where the property has no effect, they get named platform daemon threads as before.
+ * Pools keep their fixed size either way, since that size is a connection limit rather than
+ * a thread budget.
+ */
+@Component
+public class WorkerThreads {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkerThreads.class);
+
+    @Autowired
+    private Environment environment;
+
+    private boolean virtual;
+
+    @PostConstruct
+    void init() {
+        virtual = Threading.VIRTUAL.isActive(environment);
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (requested && !virtual) {
+            logger.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; using platform threads",
+                        Runtime.version().feature());
+        } else if (virtual) {
+            logger.info("Request handling and background I/O pools run on virtual threads");
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public ThreadFactory factory(String prefix) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(prefix + "-").getVirtualThreadFactory();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
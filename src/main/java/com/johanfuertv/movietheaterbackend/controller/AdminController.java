@@ -1,14 +1,34 @@
 package com.johanfuertv.movietheaterbackend.controller;
 
+import com.johanfuertv.movietheaterbackend.config.VirtualThreadPinningMonitor;
+import com.johanfuertv.movietheaterbackend.dto.request.AuditoriumRequest;
+import com.johanfuertv.movietheaterbackend.dto.request.MovieNotificationRequest;
 import com.johanfuertv.movietheaterbackend.dto.request.MovieRequest;
+import com.johanfuertv.movietheaterbackend.dto.request.ShowtimeRequest;
 import com.johanfuertv.movietheaterbackend.dto.response.ApiResponse;
+import com.johanfuertv.movietheaterbackend.dto.response.AuditoriumResponse;
+import com.johanfuertv.movietheaterbackend.dto.response.CursorPageResponse;
 import com.johanfuertv.movietheaterbackend.dto.response.CustomerResponse;
 import com.johanfuertv.movietheaterbackend.dto.response.MovieResponse;
+import com.johanfuertv.movietheaterbackend.dto.response.NotificationJobResponse;
 import com.johanfuertv.movietheaterbackend.dto.response.PurchaseResponse;
+import com.johanfuertv.movietheaterbackend.dto.response.SalesAggregateResponse;
+import com.johanfuertv.movietheaterbackend.dto.response.ShowtimeResponse;
 import com.johanfuertv.movietheaterbackend.entity.Purchase;
+import com.johanfuertv.movietheaterbackend.entity.SalesAggregate;
+import com.johanfuertv.movietheaterbackend.security.PasswordHashMetrics;
+import com.johanfuertv.movietheaterbackend.security.TokenRevocationList;
+import com.johanfuertv.movietheaterbackend.security.VerifiedTokenCache;
 import com.johanfuertv.movietheaterbackend.service.CustomerService;
+import com.johanfuertv.movietheaterbackend.service.EmailOutboxDispatcher;
+import com.johanfuertv.movietheaterbackend.service.HoldExpiryScheduler;
+import com.johanfuertv.movietheaterbackend.service.MovieCatalogCache;
+import com.johanfuertv.movietheaterbackend.service.MovieNotificationService;
 import com.johanfuertv.movietheaterbackend.service.MovieService;
+import com.johanfuertv.movietheaterbackend.service.PurchaseExportService;
 import com.johanfuertv.movietheaterbackend.service.PurchaseService;
+import com.johanfuertv.movietheaterbackend.service.SalesAggregateService;
+import com.johanfuertv.movietheaterbackend.service.ShowtimeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -22,14 +42,20 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -40,6 +66,7 @@ import java.util.UUID;
 public class AdminController {
     
     private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+    private static final int MAX_SCROLL_SIZE = 200;
     
     @Autowired
     private MovieService movieService;
@@ -50,6 +77,36 @@ public class AdminController {
     @Autowired
     private PurchaseService purchaseService;
     
+    @Autowired
+    private ShowtimeService showtimeService;
+    
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+    
+    @Autowired
+    private PasswordHashMetrics passwordHashMetrics;
+    
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+    
+    @Autowired
+    private VirtualThreadPinningMonitor virtualThreadPinningMonitor;
+    
+    @Autowired
+    private HoldExpiryScheduler holdExpiryScheduler;
+    
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+    
+    @Autowired
+    private MovieNotificationService movieNotificationService;
+    
+    @Autowired
+    private SalesAggregateService salesAggregateService;
+    
+    @Autowired
+    private PurchaseExportService purchaseExportService;
+    
     // Movie Management
     @GetMapping("/movies")
     @Operation(summary = "Get all movies (including inactive)")
@@ -139,6 +196,170 @@ public class AdminController {
         }
     }
     
+    // Showtime Management
+    @PostMapping("/auditoriums")
+    @Operation(summary = "Create an auditorium with its seat layout")
+    public ResponseEntity<ApiResponse<AuditoriumResponse>> createAuditorium(@Valid @RequestBody AuditoriumRequest request) {
+        try {
+            AuditoriumResponse auditorium = showtimeService.createAuditorium(request);
+            
+            return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Auditorium created successfully", auditorium));
+                
+        } catch (Exception e) {
+            logger.error("Error creating auditorium", e);
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error creating auditorium: " + e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/showtimes")
+    @Operation(summary = "Schedule a showtime of a movie in an auditorium")
+    public ResponseEntity<ApiResponse<ShowtimeResponse>> createShowtime(@Valid @RequestBody ShowtimeRequest request) {
+        try {
+            ShowtimeResponse showtime = showtimeService.createShowtime(request);
+            
+            return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Showtime created successfully", showtime));
+                
+        } catch (Exception e) {
+            logger.error("Error creating showtime", e);
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error creating showtime: " + e.getMessage()));
+        }
+    }
+    
+    @PatchMapping("/showtimes/{id}/disable")
+    @Operation(summary = "Disable a showtime")
+    public ResponseEntity<ApiResponse<String>> disableShowtime(@PathVariable UUID id) {
+        try {
+            showtimeService.disableShowtime(id);
+            
+            return ResponseEntity.ok(ApiResponse.success("Showtime disabled successfully", "Showtime has been disabled"));
+            
+        } catch (Exception e) {
+            logger.error("Error disabling showtime: {}", id, e);
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error disabling showtime: " + e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/movies/{id}/notify")
+    @Operation(summary = "Email every purchaser of a movie (or of one of its showtimes) in the background")
+    public ResponseEntity<ApiResponse<NotificationJobResponse>> notifyPurchasers(
+            @PathVariable UUID id,
+            @Valid @RequestBody MovieNotificationRequest request) {
+        try {
+            NotificationJobResponse job = movieNotificationService.notifyPurchasers(id, request);
+            
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Notification job started", job));
+                
+        } catch (Exception e) {
+            logger.error("Error starting notification job for movie: {}", id, e);
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error starting notification job: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/notifications/{jobId}")
+    @Operation(summary = "Get the progress of a notification job")
+    public ResponseEntity<ApiResponse<NotificationJobResponse>> getNotificationJob(@PathVariable UUID jobId) {
+        try {
+            NotificationJobResponse job = movieNotificationService.getJob(jobId);
+            
+            return ResponseEntity.ok(ApiResponse.success("Notification job retrieved successfully", job));
+            
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Notification job not found: " + e.getMessage()));
+        }
+    }
+    
+    @PatchMapping("/notifications/{jobId}/cancel")
+    @Operation(summary = "Stop a running notification job")
+    public ResponseEntity<ApiResponse<NotificationJobResponse>> cancelNotificationJob(@PathVariable UUID jobId) {
+        try {
+            NotificationJobResponse job = movieNotificationService.cancelJob(jobId);
+            
+            return ResponseEntity.ok(ApiResponse.success("Notification job cancellation requested", job));
+            
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Notification job not found: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/movies/cache-stats")
+    @Operation(summary = "Get catalog cache statistics")
+    public ResponseEntity<ApiResponse<MovieCatalogCache.CacheStats>> getCatalogCacheStats() {
+        try {
+            MovieCatalogCache.CacheStats stats = movieService.getCatalogCacheStats();
+            
+            return ResponseEntity.ok(ApiResponse.success("Catalog cache statistics retrieved successfully", stats));
+            
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error retrieving catalog cache statistics: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/auth/token-cache-stats")
+    @Operation(summary = "Get verified token cache statistics")
+    public ResponseEntity<ApiResponse<VerifiedTokenCache.CacheStats>> getTokenCacheStats() {
+        try {
+            VerifiedTokenCache.CacheStats stats = verifiedTokenCache.getStats();
+            
+            return ResponseEntity.ok(ApiResponse.success("Token cache statistics retrieved successfully", stats));
+            
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error retrieving token cache statistics: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/auth/login-stats")
+    @Operation(summary = "Get password verification throughput and latency per hash cost")
+    public ResponseEntity<ApiResponse<PasswordHashMetrics.LoginStats>> getLoginStats() {
+        try {
+            PasswordHashMetrics.LoginStats stats = passwordHashMetrics.getStats();
+            
+            return ResponseEntity.ok(ApiResponse.success("Login statistics retrieved successfully", stats));
+            
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error retrieving login statistics: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/auth/revocation-stats")
+    @Operation(summary = "Get access token revocation list statistics")
+    public ResponseEntity<ApiResponse<TokenRevocationList.RevocationStats>> getRevocationStats() {
+        try {
+            TokenRevocationList.RevocationStats stats = tokenRevocationList.getStats();
+            
+            return ResponseEntity.ok(ApiResponse.success("Revocation statistics retrieved successfully", stats));
+            
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error retrieving revocation statistics: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/threads/pinning-stats")
+    @Operation(summary = "Get code sites where virtual threads were pinned to their carrier")
+    public ResponseEntity<ApiResponse<VirtualThreadPinningMonitor.PinningStats>> getPinningStats() {
+        try {
+            VirtualThreadPinningMonitor.PinningStats stats = virtualThreadPinningMonitor.getStats();
+            
+            return ResponseEntity.ok(ApiResponse.success("Pinning statistics retrieved successfully", stats));
+            
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error retrieving pinning statistics: " + e.getMessage()));
+        }
+    }
+    
     // Customer Management
     @GetMapping("/customers")
     @Operation(summary = "Get all customers")
@@ -212,6 +433,75 @@ public class AdminController {
         }
     }
     
+    @GetMapping("/purchases/scroll")
+    @Operation(summary = "Page through purchases with a continuation cursor, newest first")
+    public ResponseEntity<ApiResponse<CursorPageResponse<PurchaseResponse>>> scrollPurchases(
+            @Parameter(description = "Filter by customer ID")
+            @RequestParam(required = false) UUID customerId,
+            @Parameter(description = "Filter by movie ID")
+            @RequestParam(required = false) UUID movieId,
+            @Parameter(description = "Filter by status")
+            @RequestParam(required = false) Purchase.PurchaseStatus status,
+            @Parameter(description = "Filter by start date")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "Filter by end date")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Also count all matching purchases")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        try {
+            if (size < 1 || size > MAX_SCROLL_SIZE) {
+                throw new RuntimeException("Size must be between 1 and " + MAX_SCROLL_SIZE);
+            }
+            
+            CursorPageResponse<PurchaseResponse> purchases = purchaseService.getPurchasesAfter(
+                customerId, movieId, status, startDate, endDate, cursor, size, includeTotal);
+            
+            return ResponseEntity.ok(ApiResponse.success("Purchases retrieved successfully", purchases));
+            
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error retrieving purchases: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/purchases/export")
+    @Operation(summary = "Export all matching purchases as CSV or NDJSON, streamed newest first")
+    public ResponseEntity<StreamingResponseBody> exportPurchases(
+            @Parameter(description = "csv or ndjson")
+            @RequestParam(defaultValue = "csv") String format,
+            @Parameter(description = "Filter by customer ID")
+            @RequestParam(required = false) UUID customerId,
+            @Parameter(description = "Filter by movie ID")
+            @RequestParam(required = false) UUID movieId,
+            @Parameter(description = "Filter by status")
+            @RequestParam(required = false) Purchase.PurchaseStatus status,
+            @Parameter(description = "Filter by start date")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "Filter by end date")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        
+        PurchaseExportService.ExportFormat exportFormat;
+        try {
+            exportFormat = PurchaseExportService.ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        // Written on an async thread after this method returns; rows go out as they are read
+        StreamingResponseBody body = out -> purchaseExportService.export(
+            exportFormat, customerId, movieId, status, startDate, endDate, out);
+        
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"purchases." + exportFormat.getExtension() + "\"")
+            .body(body);
+    }
+    
     @GetMapping("/purchases/{id}")
     @Operation(summary = "Get purchase by ID")
     public ResponseEntity<ApiResponse<PurchaseResponse>> getPurchaseById(@PathVariable UUID id) {
@@ -226,6 +516,34 @@ public class AdminController {
         }
     }
     
+    @GetMapping("/holds/stats")
+    @Operation(summary = "Get seat hold expiry statistics")
+    public ResponseEntity<ApiResponse<HoldExpiryScheduler.HoldStats>> getHoldStats() {
+        try {
+            HoldExpiryScheduler.HoldStats stats = holdExpiryScheduler.getStats();
+            
+            return ResponseEntity.ok(ApiResponse.success("Hold statistics retrieved successfully", stats));
+            
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error retrieving hold statistics: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/email/outbox-stats")
+    @Operation(summary = "Get email outbox statistics")
+    public ResponseEntity<ApiResponse<EmailOutboxDispatcher.OutboxStats>> getEmailOutboxStats() {
+        try {
+            EmailOutboxDispatcher.OutboxStats stats = emailOutboxDispatcher.getStats();
+            
+            return ResponseEntity.ok(ApiResponse.success("Email outbox statistics retrieved successfully", stats));
+            
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error retrieving email outbox statistics: " + e.getMessage()));
+        }
+    }
+    
     @GetMapping("/stats")
     @Operation(summary = "Get purchase statistics")
     public ResponseEntity<ApiResponse<PurchaseService.PurchaseStats>> getPurchaseStats() {
@@ -239,4 +557,82 @@ public class AdminController {
                 .body(ApiResponse.error("Error retrieving statistics: " + e.getMessage()));
         }
     }
+    
+    @GetMapping("/stats/by-movie")
+    @Operation(summary = "Get sales totals per movie")
+    public ResponseEntity<ApiResponse<List<SalesAggregateResponse>>> getStatsByMovie() {
+        return getStatsByScope(SalesAggregate.Scope.MOVIE);
+    }
+    
+    @GetMapping("/stats/by-genre")
+    @Operation(summary = "Get sales totals per genre")
+    public ResponseEntity<ApiResponse<List<SalesAggregateResponse>>> getStatsByGenre() {
+        return getStatsByScope(SalesAggregate.Scope.GENRE);
+    }
+    
+    @GetMapping("/stats/by-day")
+    @Operation(summary = "Get sales totals per day")
+    public ResponseEntity<ApiResponse<List<SalesAggregateResponse>>> getStatsByDay(
+            @Parameter(description = "First day, inclusive")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, inclusive")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            List<SalesAggregateResponse> stats = salesAggregateService.getByDay(from, to).stream()
+                .map(SalesAggregateResponse::new)
+                .collect(Collectors.toList());
+            
+            return ResponseEntity.ok(ApiResponse.success("Statistics retrieved successfully", stats));
+            
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error retrieving statistics: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/stats/reconciliation")
+    @Operation(summary = "Get the last sales aggregate reconciliation report")
+    public ResponseEntity<ApiResponse<SalesAggregateService.ReconciliationReport>> getStatsReconciliation() {
+        try {
+            SalesAggregateService.ReconciliationReport report = salesAggregateService.getLastReconciliation();
+            if (report == null) {
+                report = salesAggregateService.reconcile();
+            }
+            
+            return ResponseEntity.ok(ApiResponse.success("Reconciliation report retrieved successfully", report));
+            
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error reconciling statistics: " + e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/stats/rebuild")
+    @Operation(summary = "Recompute sales aggregates from purchases")
+    public ResponseEntity<ApiResponse<SalesAggregateService.ReconciliationReport>> rebuildStats() {
+        try {
+            SalesAggregateService.ReconciliationReport report = salesAggregateService.rebuild();
+            
+            logger.info("Sales aggregates rebuilt by admin");
+            return ResponseEntity.ok(ApiResponse.success("Statistics rebuilt successfully", report));
+            
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error rebuilding statistics: " + e.getMessage()));
+        }
+    }
+    
+    private ResponseEntity<ApiResponse<List<SalesAggregateResponse>>> getStatsByScope(SalesAggregate.Scope scope) {
+        try {
+            List<SalesAggregateResponse> stats = salesAggregateService.getByScope(scope).stream()
+                .map(SalesAggregateResponse::new)
+                .collect(Collectors.toList());
+            
+            return ResponseEntity.ok(ApiResponse.success("Statistics retrieved successfully", stats));
+            
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error retrieving statistics: " + e.getMessage()));
+        }
+    }
 }
\ No newline at end of file
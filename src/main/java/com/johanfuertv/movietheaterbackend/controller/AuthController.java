@@ -1,22 +1,26 @@
 package com.johanfuertv.movietheaterbackend.controller;
 
 import com.johanfuertv.movietheaterbackend.dto.request.LoginRequest;
+import com.johanfuertv.movietheaterbackend.dto.request.RefreshTokenRequest;
 import com.johanfuertv.movietheaterbackend.dto.request.RegisterRequest;
 import com.johanfuertv.movietheaterbackend.dto.response.ApiResponse;
 import com.johanfuertv.movietheaterbackend.dto.response.CustomerResponse;
 import com.johanfuertv.movietheaterbackend.dto.response.LoginResponse;
+import com.johanfuertv.movietheaterbackend.exception.ConflictException;
 import com.johanfuertv.movietheaterbackend.service.AuthService;
-import com.johanfuertv.movietheaterbackend.service.EmailService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @Tag(name = "Authentication", description = "Authentication management APIs")
@@ -28,25 +32,20 @@ public class AuthController {
     @Autowired
     private AuthService authService;
     
-    @Autowired
-    private EmailService emailService;
-    
     @PostMapping("/register")
     @Operation(summary = "Register a new customer")
     public ResponseEntity<ApiResponse<CustomerResponse>> registerCustomer(@Valid @RequestBody RegisterRequest request) {
         try {
+            // The welcome email is queued in the registration transaction
             CustomerResponse customer = authService.register(request);
             
-            // Send welcome email asynchronously
-            try {
-                emailService.sendWelcomeEmail(customer.getEmail(), customer.getFirstName());
-            } catch (Exception e) {
-                logger.warn("Failed to send welcome email to: {}", customer.getEmail(), e);
-            }
-            
             return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Customer registered successfully", customer));
                 
+        } catch (ConflictException e) {
+            logger.warn("Registration rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error("Registration failed: " + e.getMessage()));
         } catch (Exception e) {
             logger.error("Registration failed for email: {}", request.getEmail(), e);
             return ResponseEntity.badRequest()
@@ -57,15 +56,54 @@ public class AuthController {
     @PostMapping("/login")
     @Operation(summary = "Authenticate customer and return JWT token")
     public ResponseEntity<ApiResponse<LoginResponse>> loginCustomer(@Valid @RequestBody LoginRequest request) {
+        // The password check itself runs on its own bounded pool
         try {
             LoginResponse loginResponse = authService.login(request);
             
             return ResponseEntity.ok(ApiResponse.success("Login successful", loginResponse));
             
+        } catch (RejectedExecutionException e) {
+            logger.warn("Login rejected, password verification queue is full");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.error("Too many logins in progress, please retry shortly"));
         } catch (Exception e) {
             logger.error("Login failed for email: {}", request.getEmail(), e);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body(ApiResponse.error("Invalid credentials"));
         }
     }
-}
\ No newline at end of file
+    
+    @PostMapping("/refresh")
+    @Operation(summary = "Exchange a refresh token for a new access token and refresh token")
+    public ResponseEntity<ApiResponse<LoginResponse>> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            LoginResponse loginResponse = authService.refresh(request.getRefreshToken());
+            
+            return ResponseEntity.ok(ApiResponse.success("Token refreshed successfully", loginResponse));
+            
+        } catch (Exception e) {
+            logger.warn("Token refresh failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(ApiResponse.error("Invalid refresh token"));
+        }
+    }
+    
+    @PostMapping("/logout")
+    @Operation(summary = "Revoke a refresh token and the access token sent with the request")
+    public ResponseEntity<ApiResponse<String>> logout(@Valid @RequestBody RefreshTokenRequest request,
+                                                      @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        try {
+            String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : null;
+            authService.logout(request.getRefreshToken(), accessToken);
+            
+            return ResponseEntity.ok(ApiResponse.success("Logged out successfully", null));
+            
+        } catch (Exception e) {
+            logger.error("Logout failed", e);
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Logout failed: " + e.getMessage()));
+        }
+    }
+}
@@ -2,20 +2,31 @@ package com.johanfuertv.movietheaterbackend.controller;
 
 import com.johanfuertv.movietheaterbackend.dto.response.ApiResponse;
 import com.johanfuertv.movietheaterbackend.dto.response.MovieResponse;
+import com.johanfuertv.movietheaterbackend.dto.response.MovieSearchResponse;
+import com.johanfuertv.movietheaterbackend.dto.response.MovieSuggestionResponse;
+import com.johanfuertv.movietheaterbackend.service.CatalogSnapshots;
 import com.johanfuertv.movietheaterbackend.service.MovieService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/movies")
@@ -26,6 +37,12 @@ public class MovieController {
     @Autowired
     private MovieService movieService;
     
+    @Value("${catalog.http.max-age-seconds:30}")
+    private long maxAgeSeconds;
+    
+    @Value("${catalog.http.shared-max-age-seconds:120}")
+    private long sharedMaxAgeSeconds;
+    
     @GetMapping
     @Operation(summary = "Get all active movies with optional search and filtering")
     public ResponseEntity<ApiResponse<Page<MovieResponse>>> getAllMovies(
@@ -40,31 +57,107 @@ public class MovieController {
             @Parameter(description = "Sort field")
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @Parameter(description = "Sort direction (ASC or DESC)")
-            @RequestParam(defaultValue = "DESC") String sortDir) {
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        
+        String etag = movieService.getCatalogETag();
+        String matched = matchedETag(ifNoneMatch, etag, acceptEncoding);
+        if (matched != null) {
+            return notModifiedResponse(matched, true);
+        }
         
+        CatalogSnapshots.Snapshot snapshot;
         try {
             Sort.Direction direction = Sort.Direction.fromString(sortDir);
             Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
             
-            Page<MovieResponse> movies = movieService.getAllMovies(q, genre, pageable);
-            
-            return ResponseEntity.ok(ApiResponse.success("Movies retrieved successfully", movies));
+            snapshot = movieService.getMoviesSnapshot(q, genre, pageable, () ->
+                ApiResponse.success("Movies retrieved successfully", movieService.getAllMovies(q, genre, pageable)));
+            if (snapshot == null) {
+                Page<MovieResponse> movies = movieService.getAllMovies(q, genre, pageable);
+                
+                return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(catalogCacheControl())
+                    .body(ApiResponse.success("Movies retrieved successfully", movies));
+            }
             
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error("Error retrieving movies: " + e.getMessage()));
         }
+        
+        writeSnapshot(snapshot, etag, acceptEncoding, response);
+        return null;
+    }
+    
+    @GetMapping("/search")
+    @Operation(summary = "Full-text search over active movies, ranked, with genre facets")
+    public ResponseEntity<ApiResponse<MovieSearchResponse>> searchMovies(
+            @Parameter(description = "Search terms; the last one also matches as a prefix")
+            @RequestParam String q,
+            @Parameter(description = "Filter by genre")
+            @RequestParam(required = false) String genre,
+            @Parameter(description = "Maximum number of results")
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        try {
+            if (limit < 1 || limit > 100) {
+                throw new RuntimeException("Limit must be between 1 and 100");
+            }
+            
+            MovieSearchResponse results = movieService.searchMovies(q, genre, limit);
+            return ResponseEntity.ok(ApiResponse.success("Search completed successfully", results));
+            
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error searching movies: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/suggest")
+    @Operation(summary = "Type-ahead title suggestions for active movies")
+    public ResponseEntity<ApiResponse<List<MovieSuggestionResponse>>> suggestMovies(
+            @Parameter(description = "Beginning of the title or of any word in it")
+            @RequestParam String q,
+            @Parameter(description = "Maximum number of suggestions")
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        try {
+            if (limit < 1 || limit > 20) {
+                throw new RuntimeException("Limit must be between 1 and 20");
+            }
+            
+            List<MovieSuggestionResponse> suggestions = movieService.suggestMovies(q, limit);
+            return ResponseEntity.ok(ApiResponse.success("Suggestions retrieved successfully", suggestions));
+            
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error retrieving suggestions: " + e.getMessage()));
+        }
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Get movie by ID")
     public ResponseEntity<ApiResponse<MovieResponse>> getMovieById(
             @Parameter(description = "Movie ID")
-            @PathVariable UUID id) {
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        
+        String etag = movieService.getCatalogETag();
+        String matched = matchedETag(ifNoneMatch, etag, null);
+        if (matched != null) {
+            return notModifiedResponse(matched, false);
+        }
         
         try {
             MovieResponse movie = movieService.getMovieById(id);
-            return ResponseEntity.ok(ApiResponse.success("Movie retrieved successfully", movie));
+            return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(catalogCacheControl())
+                .body(ApiResponse.success("Movie retrieved successfully", movie));
             
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -74,14 +167,123 @@ public class MovieController {
     
     @GetMapping("/genres")
     @Operation(summary = "Get all available genres")
-    public ResponseEntity<ApiResponse<List<String>>> getGenres() {
+    public ResponseEntity<ApiResponse<List<String>>> getGenres(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        
+        String etag = movieService.getCatalogETag();
+        String matched = matchedETag(ifNoneMatch, etag, acceptEncoding);
+        if (matched != null) {
+            return notModifiedResponse(matched, true);
+        }
+        
+        CatalogSnapshots.Snapshot snapshot;
         try {
-            List<String> genres = movieService.getGenres();
-            return ResponseEntity.ok(ApiResponse.success("Genres retrieved successfully", genres));
+            snapshot = movieService.getGenresSnapshot(() ->
+                ApiResponse.success("Genres retrieved successfully", movieService.getGenres()));
+            if (snapshot == null) {
+                List<String> genres = movieService.getGenres();
+                return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(catalogCacheControl())
+                    .body(ApiResponse.success("Genres retrieved successfully", genres));
+            }
             
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error("Error retrieving genres: " + e.getMessage()));
         }
+        
+        writeSnapshot(snapshot, etag, acceptEncoding, response);
+        return null;
+    }
+    
+    /**
+     * Copies a pre-encoded body straight to the response; returning null afterwards tells
+     * Spring MVC the response is already handled. The gzip copy gets its own ETag, since a
+     * strong tag must identify the exact bytes sent.
+     */
+    private void writeSnapshot(CatalogSnapshots.Snapshot snapshot, String etag, String acceptEncoding,
+                               HttpServletResponse response) throws IOException {
+        byte[] body = snapshot.getJson();
+        if (snapshot.getGzip() != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip(acceptEncoding)) {
+                body = snapshot.getGzip();
+                etag = gzipETag(etag);
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+        }
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, catalogCacheControl().getHeaderValue());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+    
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+    
+    static String gzipETag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+    
+    // Catalog responses are public; browsers keep them briefly, the CDN a little longer,
+    // and both revalidate with If-None-Match once they expire
+    private CacheControl catalogCacheControl() {
+        return CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS)
+            .sMaxAge(sharedMaxAgeSeconds, TimeUnit.SECONDS)
+            .cachePublic();
+    }
+    
+    /**
+     * A 304 carries the tag of the representation the client holds, so a cache revalidating
+     * its gzip copy gets the gzip tag back, and repeats the Vary of the 200 it stands in for.
+     */
+    private <T> ResponseEntity<T> notModifiedResponse(String matchedETag, boolean negotiated) {
+        ResponseEntity.HeadersBuilder<?> builder = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(matchedETag)
+            .cacheControl(catalogCacheControl());
+        if (negotiated) {
+            builder.varyBy(HttpHeaders.ACCEPT_ENCODING);
+        }
+        return builder.build();
+    }
+    
+    /**
+     * The current tag that If-None-Match names, or null when the body must be sent. Uses the
+     * weak comparison, so W/ prefixes added by proxies still match; {@code *} stands for the
+     * variant this request would be served.
+     */
+    static String matchedETag(String ifNoneMatch, String etag, String acceptEncoding) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        String gzipETag = gzipETag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals(gzipETag)) {
+                return tag;
+            }
+            if (tag.equals("*")) {
+                return acceptsGzip(acceptEncoding) ? gzipETag : etag;
+            }
+        }
+        return null;
     }
 }
\ No newline at end of file
@@ -1,10 +1,15 @@
 package com.johanfuertv.movietheaterbackend.controller;
 
+import com.johanfuertv.movietheaterbackend.dto.request.HoldRequest;
 import com.johanfuertv.movietheaterbackend.dto.request.PurchaseRequest;
 import com.johanfuertv.movietheaterbackend.dto.response.ApiResponse;
 import com.johanfuertv.movietheaterbackend.dto.response.PurchaseResponse;
+import com.johanfuertv.movietheaterbackend.exception.ConflictException;
+import com.johanfuertv.movietheaterbackend.security.CustomUserDetailsService;
+import com.johanfuertv.movietheaterbackend.service.PurchaseIdempotencyStore;
 import com.johanfuertv.movietheaterbackend.service.PurchaseService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -14,9 +19,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/purchases")
@@ -26,20 +33,42 @@ import java.util.List;
 public class PurchaseController {
     
     private static final Logger logger = LoggerFactory.getLogger(PurchaseController.class);
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
     
     @Autowired
     private PurchaseService purchaseService;
     
+    @Autowired
+    private PurchaseIdempotencyStore idempotencyStore;
+    
     @PostMapping
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Create a new purchase (requires USER role)")
-    public ResponseEntity<ApiResponse<PurchaseResponse>> createPurchase(@Valid @RequestBody PurchaseRequest request) {
+    public ResponseEntity<ApiResponse<PurchaseResponse>> createPurchase(
+            @Valid @RequestBody PurchaseRequest request,
+            @Parameter(description = "Client-chosen key; retries with the same key return the original purchase")
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @AuthenticationPrincipal CustomUserDetailsService.CustomUserPrincipal principal) {
         try {
-            PurchaseResponse purchase = purchaseService.createPurchase(request);
+            if (idempotencyKey == null) {
+                PurchaseResponse purchase = purchaseService.createPurchase(request);
+                
+                return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Purchase created successfully", purchase));
+            }
+            
+            PurchaseIdempotencyStore.Outcome outcome = idempotencyStore.execute(
+                principal.getCustomerId(), idempotencyKey, request, () -> purchaseService.createPurchase(request));
             
             return ResponseEntity.status(HttpStatus.CREATED)
-                .body(ApiResponse.success("Purchase created successfully", purchase));
+                .header(IDEMPOTENT_REPLAYED, Boolean.toString(outcome.isReplayed()))
+                .body(ApiResponse.success("Purchase created successfully", outcome.getResponse()));
                 
+        } catch (ConflictException e) {
+            logger.warn("Idempotent purchase rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error("Purchase failed: " + e.getMessage()));
         } catch (Exception e) {
             logger.error("Error creating purchase", e);
             return ResponseEntity.badRequest()
@@ -47,6 +76,40 @@ public class PurchaseController {
         }
     }
     
+    @PostMapping("/holds")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Hold showtime seats until paid or expired (requires USER role)")
+    public ResponseEntity<ApiResponse<PurchaseResponse>> holdSeats(@Valid @RequestBody HoldRequest request) {
+        try {
+            PurchaseResponse hold = purchaseService.holdSeats(request);
+            
+            return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Seats held successfully", hold));
+                
+        } catch (Exception e) {
+            logger.error("Error holding seats", e);
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Hold failed: " + e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/{id}/pay")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Pay a seat hold before it expires")
+    public ResponseEntity<ApiResponse<PurchaseResponse>> payHold(@PathVariable UUID id,
+                                                                 @Valid @RequestBody PurchaseRequest.PaymentInfo payment) {
+        try {
+            PurchaseResponse purchase = purchaseService.payHold(id, payment);
+            
+            return ResponseEntity.ok(ApiResponse.success("Purchase paid successfully", purchase));
+            
+        } catch (Exception e) {
+            logger.error("Error paying hold: {}", id, e);
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Payment failed: " + e.getMessage()));
+        }
+    }
+    
     @GetMapping("/my-purchases")
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Get current user's purchases")
@@ -0,0 +1,57 @@
+package com.johanfuertv.movietheaterbackend.controller;
+
+import com.johanfuertv.movietheaterbackend.dto.response.ApiResponse;
+import com.johanfuertv.movietheaterbackend.dto.response.SeatMapResponse;
+import com.johanfuertv.movietheaterbackend.dto.response.ShowtimeResponse;
+import com.johanfuertv.movietheaterbackend.service.ShowtimeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/showtimes")
+@Tag(name = "Showtimes", description = "Showtime and seat availability APIs (Public)")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ShowtimeController {
+
+    @Autowired
+    private ShowtimeService showtimeService;
+
+    @GetMapping("/movie/{movieId}")
+    @Operation(summary = "Get upcoming showtimes of a movie")
+    public ResponseEntity<ApiResponse<List<ShowtimeResponse>>> getShowtimesForMovie(
+            @Parameter(description = "Movie ID")
+            @PathVariable UUID movieId) {
+
+        try {
+            List<ShowtimeResponse> showtimes = showtimeService.getUpcomingShowtimes(movieId);
+            return ResponseEntity.ok(ApiResponse.success("Showtimes retrieved successfully", showtimes));
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Error retrieving showtimes: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}/seats")
+    @Operation(summary = "Get seat availability of a showtime")
+    public ResponseEntity<ApiResponse<SeatMapResponse>> getSeatMap(
+            @Parameter(description = "Showtime ID")
+            @PathVariable UUID id) {
+
+        try {
+            SeatMapResponse seatMap = showtimeService.getSeatMap(id);
+            return ResponseEntity.ok(ApiResponse.success("Seat map retrieved successfully", seatMap));
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Showtime not found: " + e.getMessage()));
+        }
+    }
+}
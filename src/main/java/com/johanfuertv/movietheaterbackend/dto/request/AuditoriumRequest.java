@@ -0,0 +1,29 @@
+package com.johanfuertv.movietheaterbackend.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public class AuditoriumRequest {
+    @NotBlank(message = "Name is required")
+    private String name;
+    
+    @NotNull(message = "Rows are required")
+    @Min(value = 1, message = "An auditorium needs at least 1 row")
+    @Max(value = 26, message = "An auditorium can have at most 26 rows")
+    private Integer rows;
+    
+    @NotNull(message = "Seats per row are required")
+    @Min(value = 1, message = "A row needs at least 1 seat")
+    @Max(value = 100, message = "A row can have at most 100 seats")
+    private Integer seatsPerRow;
+    
+    // Getters and setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public Integer getRows() { return rows; }
+    public void setRows(Integer rows) { this.rows = rows; }
+    public Integer getSeatsPerRow() { return seatsPerRow; }
+    public void setSeatsPerRow(Integer seatsPerRow) { this.seatsPerRow = seatsPerRow; }
+}
@@ -0,0 +1,27 @@
+package com.johanfuertv.movietheaterbackend.dto.request;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public class HoldRequest {
+    @NotNull(message = "Movie ID is required")
+    private UUID movieId;
+
+    @NotNull(message = "Showtime ID is required")
+    private UUID showtimeId;
+
+    @NotEmpty(message = "At least one seat is required")
+    @Size(max = 20, message = "At most 20 seats can be held at once")
+    private List<String> seats;
+
+    // Getters and setters
+    public UUID getMovieId() { return movieId; }
+    public void setMovieId(UUID movieId) { this.movieId = movieId; }
+    public UUID getShowtimeId() { return showtimeId; }
+    public void setShowtimeId(UUID showtimeId) { this.showtimeId = showtimeId; }
+    public List<String> getSeats() { return seats; }
+    public void setSeats(List<String> seats) { this.seats = seats; }
+}
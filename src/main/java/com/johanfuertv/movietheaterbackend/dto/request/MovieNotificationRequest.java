@@ -0,0 +1,26 @@
+package com.johanfuertv.movietheaterbackend.dto.request;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.util.UUID;
+
+public class MovieNotificationRequest {
+    @NotBlank(message = "Subject is required")
+    @Size(max = 200, message = "Subject must not exceed 200 characters")
+    private String subject;
+    
+    @NotBlank(message = "Message is required")
+    @Size(max = 5000, message = "Message must not exceed 5000 characters")
+    private String message;
+    
+    // Optional: only notify the purchasers of this showtime
+    private UUID showtimeId;
+    
+    // Getters and setters
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    public UUID getShowtimeId() { return showtimeId; }
+    public void setShowtimeId(UUID showtimeId) { this.showtimeId = showtimeId; }
+}
@@ -2,7 +2,9 @@ package com.johanfuertv.movietheaterbackend.dto.request;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
+import java.util.List;
 import java.util.UUID;
 
 public class PurchaseRequest {
@@ -17,6 +19,12 @@ public class PurchaseRequest {
     @NotNull(message = "Payment information is required")
     private PaymentInfo payment;
     
+    // Optional: book specific seats of a showtime instead of general admission
+    private UUID showtimeId;
+    
+    @Size(max = 20, message = "At most 20 seats can be booked at once")
+    private List<String> seats;
+    
     // Getters and setters
     public UUID getMovieId() { return movieId; }
     public void setMovieId(UUID movieId) { this.movieId = movieId; }
@@ -24,6 +32,10 @@ public class PurchaseRequest {
     public void setQuantity(Integer quantity) { this.quantity = quantity; }
     public PaymentInfo getPayment() { return payment; }
     public void setPayment(PaymentInfo payment) { this.payment = payment; }
+    public UUID getShowtimeId() { return showtimeId; }
+    public void setShowtimeId(UUID showtimeId) { this.showtimeId = showtimeId; }
+    public List<String> getSeats() { return seats; }
+    public void setSeats(List<String> seats) { this.seats = seats; }
     
     public static class PaymentInfo {
         @NotNull(message = "Payment method is required")
@@ -0,0 +1,27 @@
+package com.johanfuertv.movietheaterbackend.dto.request;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class ShowtimeRequest {
+    @NotNull(message = "Movie ID is required")
+    private UUID movieId;
+    
+    @NotNull(message = "Auditorium ID is required")
+    private UUID auditoriumId;
+    
+    @NotNull(message = "Start time is required")
+    @Future(message = "Start time must be in the future")
+    private LocalDateTime startsAt;
+    
+    // Getters and setters
+    public UUID getMovieId() { return movieId; }
+    public void setMovieId(UUID movieId) { this.movieId = movieId; }
+    public UUID getAuditoriumId() { return auditoriumId; }
+    public void setAuditoriumId(UUID auditoriumId) { this.auditoriumId = auditoriumId; }
+    public LocalDateTime getStartsAt() { return startsAt; }
+    public void setStartsAt(LocalDateTime startsAt) { this.startsAt = startsAt; }
+}
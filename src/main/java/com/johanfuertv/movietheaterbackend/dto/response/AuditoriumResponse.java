@@ -0,0 +1,37 @@
+package com.johanfuertv.movietheaterbackend.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class AuditoriumResponse {
+    private UUID id;
+    private String name;
+    private Integer rows;
+    private Integer seatsPerRow;
+    private Integer capacity;
+    private LocalDateTime createdAt;
+    
+    // Constructor from entity
+    public AuditoriumResponse(com.johanfuertv.movietheaterbackend.entity.Auditorium auditorium) {
+        this.id = auditorium.getId();
+        this.name = auditorium.getName();
+        this.rows = auditorium.getRows();
+        this.seatsPerRow = auditorium.getSeatsPerRow();
+        this.capacity = auditorium.getCapacity();
+        this.createdAt = auditorium.getCreatedAt();
+    }
+    
+    // Getters and setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public Integer getRows() { return rows; }
+    public void setRows(Integer rows) { this.rows = rows; }
+    public Integer getSeatsPerRow() { return seatsPerRow; }
+    public void setSeatsPerRow(Integer seatsPerRow) { this.seatsPerRow = seatsPerRow; }
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
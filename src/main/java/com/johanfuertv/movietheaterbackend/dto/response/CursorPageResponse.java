@@ -0,0 +1,32 @@
+package com.johanfuertv.movietheaterbackend.dto.response;
+
+import java.util.List;
+
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private Integer size;
+    private Boolean hasNext;
+    private String nextCursor;
+    // Only filled in when the client asks for it, since it costs a count over all matches
+    private Long totalElements;
+    
+    public CursorPageResponse(List<T> content, String nextCursor, Long totalElements) {
+        this.content = content;
+        this.size = content.size();
+        this.hasNext = nextCursor != null;
+        this.nextCursor = nextCursor;
+        this.totalElements = totalElements;
+    }
+    
+    // Getters and setters
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+    public Integer getSize() { return size; }
+    public void setSize(Integer size) { this.size = size; }
+    public Boolean getHasNext() { return hasNext; }
+    public void setHasNext(Boolean hasNext) { this.hasNext = hasNext; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public Long getTotalElements() { return totalElements; }
+    public void setTotalElements(Long totalElements) { this.totalElements = totalElements; }
+}
@@ -6,12 +6,17 @@ public class LoginResponse {
     private String token;
     private String type = "Bearer";
     private Long expiresIn;
+    private String refreshToken;
+    private Long refreshExpiresIn;
     private CustomerResponse user;
     private List<String> roles;
     
-    public LoginResponse(String token, Long expiresIn, CustomerResponse user, List<String> roles) {
+    public LoginResponse(String token, Long expiresIn, String refreshToken, Long refreshExpiresIn,
+                         CustomerResponse user, List<String> roles) {
         this.token = token;
         this.expiresIn = expiresIn;
+        this.refreshToken = refreshToken;
+        this.refreshExpiresIn = refreshExpiresIn;
         this.user = user;
         this.roles = roles;
     }
@@ -23,6 +28,10 @@ public class LoginResponse {
     public void setType(String type) { this.type = type; }
     public Long getExpiresIn() { return expiresIn; }
     public void setExpiresIn(Long expiresIn) { this.expiresIn = expiresIn; }
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+    public Long getRefreshExpiresIn() { return refreshExpiresIn; }
+    public void setRefreshExpiresIn(Long refreshExpiresIn) { this.refreshExpiresIn = refreshExpiresIn; }
     public CustomerResponse getUser() { return user; }
     public void setUser(CustomerResponse user) { this.user = user; }
     public List<String> getRoles() { return roles; }
@@ -0,0 +1,54 @@
+package com.johanfuertv.movietheaterbackend.dto.response;
+
+import java.util.List;
+
+public class MovieSearchResponse {
+    private List<Hit> results;
+    private List<GenreFacet> genres;
+    private Integer total;
+    
+    public MovieSearchResponse(List<Hit> results, List<GenreFacet> genres, Integer total) {
+        this.results = results;
+        this.genres = genres;
+        this.total = total;
+    }
+    
+    // Getters and setters
+    public List<Hit> getResults() { return results; }
+    public void setResults(List<Hit> results) { this.results = results; }
+    public List<GenreFacet> getGenres() { return genres; }
+    public void setGenres(List<GenreFacet> genres) { this.genres = genres; }
+    public Integer getTotal() { return total; }
+    public void setTotal(Integer total) { this.total = total; }
+    
+    public static class Hit {
+        private MovieResponse movie;
+        private Double score;
+        
+        public Hit(MovieResponse movie, Double score) {
+            this.movie = movie;
+            this.score = score;
+        }
+        
+        public MovieResponse getMovie() { return movie; }
+        public void setMovie(MovieResponse movie) { this.movie = movie; }
+        public Double getScore() { return score; }
+        public void setScore(Double score) { this.score = score; }
+    }
+    
+    // Matches per genre, counted before the genre filter is applied
+    public static class GenreFacet {
+        private String genre;
+        private Integer count;
+        
+        public GenreFacet(String genre, Integer count) {
+            this.genre = genre;
+            this.count = count;
+        }
+        
+        public String getGenre() { return genre; }
+        public void setGenre(String genre) { this.genre = genre; }
+        public Integer getCount() { return count; }
+        public void setCount(Integer count) { this.count = count; }
+    }
+}
@@ -0,0 +1,28 @@
+package com.johanfuertv.movietheaterbackend.dto.response;
+
+import java.util.UUID;
+
+public class MovieSuggestionResponse {
+    private UUID id;
+    private String title;
+    private String genre;
+    private String posterUrl;
+    
+    // Constructor from the catalog response
+    public MovieSuggestionResponse(MovieResponse movie) {
+        this.id = movie.getId();
+        this.title = movie.getTitle();
+        this.genre = movie.getGenre();
+        this.posterUrl = movie.getPosterUrl();
+    }
+    
+    // Getters and setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getGenre() { return genre; }
+    public void setGenre(String genre) { this.genre = genre; }
+    public String getPosterUrl() { return posterUrl; }
+    public void setPosterUrl(String posterUrl) { this.posterUrl = posterUrl; }
+}
@@ -0,0 +1,59 @@
+package com.johanfuertv.movietheaterbackend.dto.response;
+
+import com.johanfuertv.movietheaterbackend.service.MovieNotificationService.NotificationJob;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class NotificationJobResponse {
+    private UUID id;
+    private UUID movieId;
+    private UUID showtimeId;
+    private String subject;
+    private String status;
+    private Long recipients;
+    private Long sent;
+    private Long failed;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+    
+    // Constructor from job
+    public NotificationJobResponse(NotificationJob job) {
+        this.id = job.getId();
+        this.movieId = job.getMovieId();
+        this.showtimeId = job.getShowtimeId();
+        this.subject = job.getSubject();
+        this.status = job.getStatus().name();
+        this.recipients = job.getRecipients();
+        this.sent = job.getSent();
+        this.failed = job.getFailed();
+        this.startedAt = job.getStartedAt();
+        this.finishedAt = job.getFinishedAt();
+        this.error = job.getError();
+    }
+    
+    // Getters and setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public UUID getMovieId() { return movieId; }
+    public void setMovieId(UUID movieId) { this.movieId = movieId; }
+    public UUID getShowtimeId() { return showtimeId; }
+    public void setShowtimeId(UUID showtimeId) { this.showtimeId = showtimeId; }
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Long getRecipients() { return recipients; }
+    public void setRecipients(Long recipients) { this.recipients = recipients; }
+    public Long getSent() { return sent; }
+    public void setSent(Long sent) { this.sent = sent; }
+    public Long getFailed() { return failed; }
+    public void setFailed(Long failed) { this.failed = failed; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
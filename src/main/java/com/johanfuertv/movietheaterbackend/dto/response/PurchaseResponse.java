@@ -2,7 +2,9 @@ package com.johanfuertv.movietheaterbackend.dto.response;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 public class PurchaseResponse {
     private UUID id;
@@ -15,6 +17,8 @@ public class PurchaseResponse {
     private String last4;
     private String paymentNote;
     private LocalDateTime createdAt;
+    private UUID showtimeId;
+    private List<String> seats;
     
     public PurchaseResponse(com.johanfuertv.movietheaterbackend.entity.Purchase purchase) {
         this.id = purchase.getId();
@@ -27,6 +31,13 @@ public class PurchaseResponse {
         this.last4 = purchase.getLast4();
         this.paymentNote = purchase.getPaymentNote();
         this.createdAt = purchase.getCreatedAt();
+        // Only showtime bookings have seats, so general admission rows never load the collection
+        if (purchase.getShowtime() != null) {
+            this.showtimeId = purchase.getShowtime().getId();
+            this.seats = purchase.getSeats().stream()
+                .map(com.johanfuertv.movietheaterbackend.entity.PurchaseSeat::getSeatLabel)
+                .collect(Collectors.toList());
+        }
     }
     
     public UUID getId() { return id; }
@@ -49,4 +60,8 @@ public class PurchaseResponse {
     public void setPaymentNote(String paymentNote) { this.paymentNote = paymentNote; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public UUID getShowtimeId() { return showtimeId; }
+    public void setShowtimeId(UUID showtimeId) { this.showtimeId = showtimeId; }
+    public List<String> getSeats() { return seats; }
+    public void setSeats(List<String> seats) { this.seats = seats; }
 }
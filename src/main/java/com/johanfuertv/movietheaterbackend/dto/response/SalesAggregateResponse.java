@@ -0,0 +1,43 @@
+package com.johanfuertv.movietheaterbackend.dto.response;
+
+import com.johanfuertv.movietheaterbackend.entity.SalesAggregate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class SalesAggregateResponse {
+    private String scope;
+    private String key;
+    private BigDecimal revenue;
+    private Long tickets;
+    private Long purchases;
+    private Long allPurchases;
+    private LocalDateTime updatedAt;
+    
+    // Constructor from entity
+    public SalesAggregateResponse(SalesAggregate aggregate) {
+        this.scope = aggregate.getScope().name();
+        this.key = aggregate.getScopeKey();
+        this.revenue = aggregate.getRevenue();
+        this.tickets = aggregate.getTickets();
+        this.purchases = aggregate.getPurchases();
+        this.allPurchases = aggregate.getAllPurchases();
+        this.updatedAt = aggregate.getUpdatedAt();
+    }
+    
+    // Getters and setters
+    public String getScope() { return scope; }
+    public void setScope(String scope) { this.scope = scope; }
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+    public Long getTickets() { return tickets; }
+    public void setTickets(Long tickets) { this.tickets = tickets; }
+    public Long getPurchases() { return purchases; }
+    public void setPurchases(Long purchases) { this.purchases = purchases; }
+    public Long getAllPurchases() { return allPurchases; }
+    public void setAllPurchases(Long allPurchases) { this.allPurchases = allPurchases; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
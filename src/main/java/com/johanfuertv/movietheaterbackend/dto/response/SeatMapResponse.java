@@ -0,0 +1,36 @@
+package com.johanfuertv.movietheaterbackend.dto.response;
+
+import java.util.List;
+import java.util.UUID;
+
+public class SeatMapResponse {
+    private UUID showtimeId;
+    private Integer rows;
+    private Integer seatsPerRow;
+    private Integer capacity;
+    private Integer availableSeats;
+    private List<String> takenSeats;
+    
+    public SeatMapResponse(UUID showtimeId, com.johanfuertv.movietheaterbackend.service.SeatMap seatMap) {
+        this.showtimeId = showtimeId;
+        this.rows = seatMap.getRows();
+        this.seatsPerRow = seatMap.getSeatsPerRow();
+        this.capacity = seatMap.getCapacity();
+        this.takenSeats = seatMap.getTakenLabels();
+        this.availableSeats = capacity - takenSeats.size();
+    }
+    
+    // Getters and setters
+    public UUID getShowtimeId() { return showtimeId; }
+    public void setShowtimeId(UUID showtimeId) { this.showtimeId = showtimeId; }
+    public Integer getRows() { return rows; }
+    public void setRows(Integer rows) { this.rows = rows; }
+    public Integer getSeatsPerRow() { return seatsPerRow; }
+    public void setSeatsPerRow(Integer seatsPerRow) { this.seatsPerRow = seatsPerRow; }
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+    public Integer getAvailableSeats() { return availableSeats; }
+    public void setAvailableSeats(Integer availableSeats) { this.availableSeats = availableSeats; }
+    public List<String> getTakenSeats() { return takenSeats; }
+    public void setTakenSeats(List<String> takenSeats) { this.takenSeats = takenSeats; }
+}
@@ -0,0 +1,41 @@
+package com.johanfuertv.movietheaterbackend.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class ShowtimeResponse {
+    private UUID id;
+    private UUID movieId;
+    private UUID auditoriumId;
+    private String auditoriumName;
+    private Integer capacity;
+    private LocalDateTime startsAt;
+    private Boolean active;
+    
+    // Constructor from entity
+    public ShowtimeResponse(com.johanfuertv.movietheaterbackend.entity.Showtime showtime) {
+        this.id = showtime.getId();
+        this.movieId = showtime.getMovie().getId();
+        this.auditoriumId = showtime.getAuditorium().getId();
+        this.auditoriumName = showtime.getAuditorium().getName();
+        this.capacity = showtime.getAuditorium().getCapacity();
+        this.startsAt = showtime.getStartsAt();
+        this.active = showtime.getActive();
+    }
+    
+    // Getters and setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public UUID getMovieId() { return movieId; }
+    public void setMovieId(UUID movieId) { this.movieId = movieId; }
+    public UUID getAuditoriumId() { return auditoriumId; }
+    public void setAuditoriumId(UUID auditoriumId) { this.auditoriumId = auditoriumId; }
+    public String getAuditoriumName() { return auditoriumName; }
+    public void setAuditoriumName(String auditoriumName) { this.auditoriumName = auditoriumName; }
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+    public LocalDateTime getStartsAt() { return startsAt; }
+    public void setStartsAt(LocalDateTime startsAt) { this.startsAt = startsAt; }
+    public Boolean getActive() { return active; }
+    public void setActive(Boolean active) { this.active = active; }
+}
@@ -0,0 +1,96 @@
+package com.johanfuertv.movietheaterbackend.entity;
+
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "auditoriums")
+public class Auditorium {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @NotBlank(message = "Name is required")
+    @Column(nullable = false, unique = true, length = 100)
+    private String name;
+
+    @NotNull(message = "Rows are required")
+    @Min(value = 1, message = "An auditorium needs at least 1 row")
+    @Max(value = 26, message = "An auditorium can have at most 26 rows")
+    @Column(name = "seat_rows", nullable = false)
+    private Integer rows;
+
+    @NotNull(message = "Seats per row are required")
+    @Min(value = 1, message = "A row needs at least 1 seat")
+    @Max(value = 100, message = "A row can have at most 100 seats")
+    @Column(name = "seats_per_row", nullable = false)
+    private Integer seatsPerRow;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public Auditorium() {}
+
+    public Auditorium(String name, Integer rows, Integer seatsPerRow) {
+        this.name = name;
+        this.rows = rows;
+        this.seatsPerRow = seatsPerRow;
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getRows() {
+        return rows;
+    }
+
+    public void setRows(Integer rows) {
+        this.rows = rows;
+    }
+
+    public Integer getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    public void setSeatsPerRow(Integer seatsPerRow) {
+        this.seatsPerRow = seatsPerRow;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    // Helper methods
+    public int getCapacity() {
+        return rows * seatsPerRow;
+    }
+}
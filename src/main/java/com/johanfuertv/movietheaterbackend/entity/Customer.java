@@ -13,9 +13,13 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "customers")
+@Table(name = "customers",
+       uniqueConstraints = @UniqueConstraint(name = Customer.EMAIL_KEY, columnNames = "email"))
 public class Customer {
     
+    // Unique key on email, named as V1 creates it
+    public static final String EMAIL_KEY = "customers_email_key";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -32,7 +36,7 @@ public class Customer {
     
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
     
     @NotBlank(message = "Phone is required")
@@ -5,10 +5,13 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
@@ -27,6 +30,11 @@ public class Purchase {
     @JoinColumn(name = "movie_id", nullable = false)
     private Movie movie;
     
+    // Movie genre when the purchase was made; GENRE sales totals are keyed on it, so editing
+    // a movie's genre later does not move its past sales
+    @Column(nullable = false, length = 100)
+    private String genre;
+    
     @NotNull(message = "Quantity is required")
     @Min(value = 1, message = "Quantity must be at least 1")
     @Column(nullable = false)
@@ -54,6 +62,19 @@ public class Purchase {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
+    // Null for general admission purchases made without a showtime
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "showtime_id")
+    private Showtime showtime;
+    
+    // Set while the purchase is an unpaid seat hold (status CREATED)
+    @Column(name = "hold_expires_at")
+    private LocalDateTime holdExpiresAt;
+    
+    @OneToMany(mappedBy = "purchase", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
+    private List<PurchaseSeat> seats = new ArrayList<>();
+    
     
     public enum PurchaseStatus {
         CREATED, PAID, CANCELLED
@@ -65,6 +86,7 @@ public class Purchase {
     public Purchase(Customer customer, Movie movie, Integer quantity, BigDecimal totalAmount) {
         this.customer = customer;
         this.movie = movie;
+        this.genre = movie != null ? movie.getGenre() : null;
         this.quantity = quantity;
         this.totalAmount = totalAmount;
     }
@@ -94,6 +116,14 @@ public class Purchase {
         this.movie = movie;
     }
     
+    public String getGenre() {
+        return genre;
+    }
+    
+    public void setGenre(String genre) {
+        this.genre = genre;
+    }
+    
     public Integer getQuantity() {
         return quantity;
     }
@@ -150,6 +180,35 @@ public class Purchase {
         this.createdAt = createdAt;
     }
     
+    public Showtime getShowtime() {
+        return showtime;
+    }
+    
+    public void setShowtime(Showtime showtime) {
+        this.showtime = showtime;
+    }
+    
+    public LocalDateTime getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+    
+    public void setHoldExpiresAt(LocalDateTime holdExpiresAt) {
+        this.holdExpiresAt = holdExpiresAt;
+    }
+    
+    public List<PurchaseSeat> getSeats() {
+        return seats;
+    }
+    
+    public void setSeats(List<PurchaseSeat> seats) {
+        this.seats = seats;
+    }
+    
+    public void addSeat(PurchaseSeat seat) {
+        seat.setPurchase(this);
+        seats.add(seat);
+    }
+    
    
     public void calculateTotalAmount() {
         if (movie != null && quantity != null) {
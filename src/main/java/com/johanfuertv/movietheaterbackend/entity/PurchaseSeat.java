@@ -0,0 +1,86 @@
+package com.johanfuertv.movietheaterbackend.entity;
+
+
+import jakarta.persistence.*;
+
+import java.util.UUID;
+
+/**
+ * A seat sold as part of a purchase. The unique constraint on (showtime, seat) is the
+ * database-side guarantee that a seat is never sold twice, backing the in-memory
+ * reservation done by the seat inventory.
+ */
+@Entity
+@Table(name = "purchase_seats",
+       uniqueConstraints = @UniqueConstraint(name = "uk_purchase_seats_showtime_seat",
+                                             columnNames = {"showtime_id", "seat_number"}))
+public class PurchaseSeat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "purchase_id", nullable = false)
+    private Purchase purchase;
+
+    @Column(name = "showtime_id", nullable = false)
+    private UUID showtimeId;
+
+    @Column(name = "seat_number", nullable = false)
+    private Integer seatNumber;
+
+    @Column(name = "seat_label", nullable = false, length = 8)
+    private String seatLabel;
+
+    // Constructors
+    public PurchaseSeat() {}
+
+    public PurchaseSeat(Purchase purchase, UUID showtimeId, Integer seatNumber, String seatLabel) {
+        this.purchase = purchase;
+        this.showtimeId = showtimeId;
+        this.seatNumber = seatNumber;
+        this.seatLabel = seatLabel;
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Purchase getPurchase() {
+        return purchase;
+    }
+
+    public void setPurchase(Purchase purchase) {
+        this.purchase = purchase;
+    }
+
+    public UUID getShowtimeId() {
+        return showtimeId;
+    }
+
+    public void setShowtimeId(UUID showtimeId) {
+        this.showtimeId = showtimeId;
+    }
+
+    public Integer getSeatNumber() {
+        return seatNumber;
+    }
+
+    public void setSeatNumber(Integer seatNumber) {
+        this.seatNumber = seatNumber;
+    }
+
+    public String getSeatLabel() {
+        return seatLabel;
+    }
+
+    public void setSeatLabel(String seatLabel) {
+        this.seatLabel = seatLabel;
+    }
+}
@@ -0,0 +1,75 @@
+package com.johanfuertv.movietheaterbackend.entity;
+
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An access token revoked by logout before its expiry. Every instance loads these into its
+ * {@link com.johanfuertv.movietheaterbackend.security.TokenRevocationList}; the row is only
+ * needed until the token would have expired anyway.
+ */
+@Entity
+@Table(name = "revoked_access_tokens")
+public class RevokedAccessToken {
+
+    // The jti claim of the token
+    @Id
+    @Column(name = "token_id", length = 64)
+    private String tokenId;
+
+    @Column(name = "customer_id")
+    private UUID customerId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "revoked_at", nullable = false, updatable = false)
+    private LocalDateTime revokedAt;
+
+    // Constructors
+    public RevokedAccessToken() {}
+
+    public RevokedAccessToken(String tokenId, UUID customerId, LocalDateTime expiresAt) {
+        this.tokenId = tokenId;
+        this.customerId = customerId;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    public UUID getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(UUID customerId) {
+        this.customerId = customerId;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(LocalDateTime revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+}
@@ -0,0 +1,135 @@
+package com.johanfuertv.movietheaterbackend.entity;
+
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Running sales totals for one scope: the global total, a movie, a genre or a day. Rows are
+ * only ever changed by folding {@link SalesDelta} rows into them, see SalesAggregateService.
+ */
+@Entity
+@Table(name = "sales_aggregates")
+@IdClass(SalesAggregate.Key.class)
+public class SalesAggregate {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Scope scope;
+
+    // Empty for GLOBAL, the movie id, the genre or the ISO date (yyyy-MM-dd)
+    @Id
+    @Column(name = "scope_key", nullable = false, length = 100)
+    private String scopeKey;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private Long tickets = 0L;
+
+    // Paid purchases
+    @Column(nullable = false)
+    private Long purchases = 0L;
+
+    // Purchases in any status, holds included
+    @Column(name = "all_purchases", nullable = false)
+    private Long allPurchases = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum Scope {
+        GLOBAL, MOVIE, GENRE, DAY
+    }
+
+    // Constructors
+    public SalesAggregate() {}
+
+    // Getters and Setters
+    public Scope getScope() {
+        return scope;
+    }
+
+    public void setScope(Scope scope) {
+        this.scope = scope;
+    }
+
+    public String getScopeKey() {
+        return scopeKey;
+    }
+
+    public void setScopeKey(String scopeKey) {
+        this.scopeKey = scopeKey;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    public Long getTickets() {
+        return tickets;
+    }
+
+    public void setTickets(Long tickets) {
+        this.tickets = tickets;
+    }
+
+    public Long getPurchases() {
+        return purchases;
+    }
+
+    public void setPurchases(Long purchases) {
+        this.purchases = purchases;
+    }
+
+    public Long getAllPurchases() {
+        return allPurchases;
+    }
+
+    public void setAllPurchases(Long allPurchases) {
+        this.allPurchases = allPurchases;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public static class Key implements Serializable {
+        private Scope scope;
+        private String scopeKey;
+
+        public Key() {}
+
+        public Key(Scope scope, String scopeKey) {
+            this.scope = scope;
+            this.scopeKey = scopeKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return scope == key.scope && Objects.equals(scopeKey, key.scopeKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scope, scopeKey);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.johanfuertv.movietheaterbackend.entity;
+
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One change to the sales totals waiting to be folded into {@link SalesAggregate}: a purchase
+ * paid, a hold placed, or a purchase placed and paid at once. Appending a row here
+ * instead of updating the aggregates directly keeps concurrent purchase transactions from
+ * all queueing on the same global totals row.
+ */
+@Entity
+@Table(name = "sales_deltas")
+public class SalesDelta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "movie_id", nullable = false)
+    private UUID movieId;
+
+    // Genre of the movie at the time of the sale
+    @Column(nullable = false, length = 100)
+    private String genre;
+
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(nullable = false)
+    private Integer tickets;
+
+    // Added to the paid count and to the count of purchases in any status
+    @Column(nullable = false)
+    private Integer purchases;
+
+    @Column(name = "all_purchases", nullable = false)
+    private Integer allPurchases;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public SalesDelta() {}
+
+    public SalesDelta(UUID movieId, String genre, LocalDate saleDate, BigDecimal revenue, Integer tickets,
+                      Integer purchases, Integer allPurchases) {
+        this.movieId = movieId;
+        this.genre = genre;
+        this.saleDate = saleDate;
+        this.revenue = revenue;
+        this.tickets = tickets;
+        this.purchases = purchases;
+        this.allPurchases = allPurchases;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public UUID getMovieId() {
+        return movieId;
+    }
+
+    public void setMovieId(UUID movieId) {
+        this.movieId = movieId;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public void setGenre(String genre) {
+        this.genre = genre;
+    }
+
+    public LocalDate getSaleDate() {
+        return saleDate;
+    }
+
+    public void setSaleDate(LocalDate saleDate) {
+        this.saleDate = saleDate;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    public Integer getTickets() {
+        return tickets;
+    }
+
+    public void setTickets(Integer tickets) {
+        this.tickets = tickets;
+    }
+
+    public Integer getPurchases() {
+        return purchases;
+    }
+
+    public void setPurchases(Integer purchases) {
+        this.purchases = purchases;
+    }
+
+    public Integer getAllPurchases() {
+        return allPurchases;
+    }
+
+    public void setAllPurchases(Integer allPurchases) {
+        this.allPurchases = allPurchases;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
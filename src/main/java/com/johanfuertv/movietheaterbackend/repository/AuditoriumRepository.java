@@ -0,0 +1,12 @@
+package com.johanfuertv.movietheaterbackend.repository;
+
+import com.johanfuertv.movietheaterbackend.entity.Auditorium;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface AuditoriumRepository extends JpaRepository<Auditorium, UUID> {
+    boolean existsByNameIgnoreCase(String name);
+}
@@ -4,10 +4,14 @@ import com.johanfuertv.movietheaterbackend. entity.Customer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -17,11 +21,40 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
     
     boolean existsByEmail(String email);
     
-    @Query("SELECT c FROM Customer c WHERE c.active = true AND " +
-           "(:query IS NULL OR LOWER(c.firstName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(c.lastName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(c.email) LIKE LOWER(CONCAT('%', :query, '%')))")
-    Page<Customer> findActiveCustomersWithQuery(@Param("query") String query, Pageable pageable);
+    // Disabling a customer bumps updated_at, so this finds the recent disables (partial index from V8)
+    @Query("SELECT c.id AS id, c.updatedAt AS updatedAt FROM Customer c WHERE c.active = false AND c.updatedAt > :since")
+    List<DisabledCustomer> findDisabledSince(@Param("since") LocalDateTime since);
+    
+    // Rehashing on login touches only the hash, not the rest of the row
+    @Modifying
+    @Transactional
+    @Query("UPDATE Customer c SET c.passwordHash = :hash WHERE c.id = :id")
+    int updatePasswordHash(@Param("id") UUID id, @Param("hash") String hash);
+    
+    // Fuzzy admin search over name and email, served by the pg_trgm index from V7. The
+    // expression must match the indexed one exactly. A row matches when the query is a
+    // substring or is close enough to some run of words (word_similarity_threshold).
+    String SEARCH_TEXT = "lower(c.first_name || ' ' || c.last_name || ' ' || c.email)";
+    
+    String FUZZY_MATCH =
+        "c.active = true AND (" + SEARCH_TEXT + " LIKE CONCAT('%', :pattern, '%') OR :query <% " + SEARCH_TEXT + ")";
+    
+    @Query(value = "SELECT c.* FROM customers c WHERE " + FUZZY_MATCH + " " +
+                   "ORDER BY word_similarity(:query, " + SEARCH_TEXT + ") DESC, c.email",
+           countQuery = "SELECT COUNT(*) FROM customers c WHERE " + FUZZY_MATCH,
+           nativeQuery = true)
+    Page<Customer> searchActiveCustomers(@Param("query") String query,
+                                         @Param("pattern") String pattern,
+                                         Pageable pageable);
+    
+    // Transaction-local, so it must run in the same transaction as the search
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)", nativeQuery = true)
+    String setWordSimilarityThreshold(@Param("threshold") String threshold);
     
     Page<Customer> findByActiveTrue(Pageable pageable);
-}
\ No newline at end of file
+    
+    interface DisabledCustomer {
+        UUID getId();
+        LocalDateTime getUpdatedAt();
+    }
+}
@@ -0,0 +1,51 @@
+package com.johanfuertv.movietheaterbackend.repository;
+
+import com.johanfuertv.movietheaterbackend.entity.EmailOutbox;
+import com.johanfuertv.movietheaterbackend.entity.EmailOutbox.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, UUID> {
+    
+    // SKIP LOCKED lets several instances drain the outbox without handing out the same row.
+    // A SENDING row whose lease ran out is only retried while it has attempts left.
+    @Query(value = "SELECT id FROM email_outbox WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now " +
+                   "AND (status = 'PENDING' OR attempts < :maxAttempts) " +
+                   "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<UUID> lockDueIds(@Param("now") LocalDateTime now,
+                          @Param("maxAttempts") int maxAttempts,
+                          @Param("limit") int limit);
+    
+    // Leases that ran out on the last attempt (the instance died mid-send) are not retried
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :failed, e.lastError = :error " +
+           "WHERE e.status = :sending AND e.nextAttemptAt <= :now AND e.attempts >= :maxAttempts")
+    int failExpiredLeases(@Param("now") LocalDateTime now,
+                          @Param("maxAttempts") int maxAttempts,
+                          @Param("sending") OutboxStatus sending,
+                          @Param("failed") OutboxStatus failed,
+                          @Param("error") String error);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EmailOutbox e SET e.status = :sending, e.attempts = e.attempts + 1, e.nextAttemptAt = :leaseUntil " +
+           "WHERE e.id IN :ids")
+    int claim(@Param("ids") List<UUID> ids,
+              @Param("sending") OutboxStatus sending,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+    
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :sent, e.sentAt = :now, e.lastError = NULL WHERE e.id IN :ids")
+    int markSent(@Param("ids") List<UUID> ids,
+                 @Param("sent") OutboxStatus sent,
+                 @Param("now") LocalDateTime now);
+    
+    long countByStatus(OutboxStatus status);
+}
@@ -18,11 +18,13 @@ public interface MovieRepository extends JpaRepository<Movie, UUID> {
     
     Page<Movie> findByActiveTrue(Pageable pageable);
     
+    List<Movie> findAllByActiveTrue();
+    
     Optional<Movie> findByIdAndActiveTrue(UUID id);
     
   @Query("SELECT m FROM Movie m WHERE m.active = true AND " +
        "(:query IS NULL OR m.title ILIKE :query OR m.description ILIKE :query) AND " +
-       "(:genre IS NULL OR m.genre ILIKE :genre)")
+       "(:genre IS NULL OR LOWER(m.genre) = LOWER(CAST(:genre AS String)))")
 Page<Movie> findActiveMoviesWithFilters(@Param("query") String query, 
                                         @Param("genre") String genre, 
                                         Pageable pageable);
@@ -31,4 +33,11 @@ Page<Movie> findActiveMoviesWithFilters(@Param("query") String query,
     List<String> findDistinctGenres();
     
     List<Movie> findByGenreIgnoreCaseAndActiveTrue(String genre);
+    
+    // Shared catalog version (V10); nextval is not rolled back, so bump only after a write is saved
+    @Query(value = "SELECT last_value FROM catalog_version_seq", nativeQuery = true)
+    long findCatalogVersion();
+    
+    @Query(value = "SELECT nextval('catalog_version_seq')", nativeQuery = true)
+    long bumpCatalogVersion();
 }
@@ -4,46 +4,112 @@ import org.springframework.stereotype.Repository;
 
 import com.johanfuertv.movietheaterbackend.entity.Purchase;
 import com.johanfuertv.movietheaterbackend.entity.Purchase.PurchaseStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface PurchaseRepository extends JpaRepository<Purchase, UUID> {
+public interface PurchaseRepository extends JpaRepository<Purchase, UUID>, PurchaseRepositoryCustom {
     
+    // Listings that become PurchaseResponse rows fetch customer and movie in the same query
+    @EntityGraph(attributePaths = {"customer", "movie"})
     List<Purchase> findByCustomerIdOrderByCreatedAtDesc(UUID customerId);
     
+    @EntityGraph(attributePaths = {"customer", "movie"})
     Page<Purchase> findAllByOrderByCreatedAtDesc(Pageable pageable);
     
     List<Purchase> findByStatus(PurchaseStatus status);
     
-    @Query("SELECT p FROM Purchase p JOIN p.customer c JOIN p.movie m WHERE " +
-           "(:customerId IS NULL OR p.customer.id = :customerId) AND " +
-           "(:movieId IS NULL OR p.movie.id = :movieId) AND " +
-           "(:status IS NULL OR p.status = :status) AND " +
-           "(:startDate IS NULL OR p.createdAt >= :startDate) AND " +
-           "(:endDate IS NULL OR p.createdAt <= :endDate) " +
-           "ORDER BY p.createdAt DESC")
-    Page<Purchase> findPurchasesWithFilters(@Param("customerId") UUID customerId,
-                                           @Param("movieId") UUID movieId,
-                                           @Param("status") PurchaseStatus status,
-                                           @Param("startDate") LocalDateTime startDate,
-                                           @Param("endDate") LocalDateTime endDate,
-                                           Pageable pageable);
-    
     @Query("SELECT SUM(p.totalAmount) FROM Purchase p WHERE p.status = 'PAID'")
     BigDecimal getTotalRevenue();
     
-    @Query("SELECT COUNT(p) FROM Purchase p WHERE p.status = 'PAID'")
+    @Query("SELECT COALESCE(SUM(p.quantity), 0) FROM Purchase p WHERE p.status = 'PAID'")
     Long getTotalTicketsSold();
     
     @Query("SELECT p FROM Purchase p WHERE p.customer.email = :email ORDER BY p.createdAt DESC")
     List<Purchase> findByCustomerEmailOrderByCreatedAtDesc(@Param("email") String email);
+    
+    @Query("SELECT p FROM Purchase p JOIN FETCH p.customer JOIN FETCH p.movie WHERE p.id IN :ids")
+    List<Purchase> findAllWithCustomerAndMovieByIdIn(@Param("ids") Collection<UUID> ids);
+    
+    // Purchaser fan-out: keyset pages over customer id, one row per customer. Without an explicit
+    // join, p.customer.id is the purchases.customer_id column, so each page seeks on the
+    // (movie_id|showtime_id, status, customer_id) index instead of rescanning the purchases
+    @Query("SELECT DISTINCT p.customer.id AS id, p.customer.email AS email, p.customer.firstName AS firstName " +
+           "FROM Purchase p WHERE p.movie.id = :movieId AND p.status = :status AND p.customer.id > :afterId " +
+           "ORDER BY p.customer.id")
+    List<Purchaser> findPurchasersOfMovie(@Param("movieId") UUID movieId,
+                                          @Param("status") PurchaseStatus status,
+                                          @Param("afterId") UUID afterId,
+                                          Pageable pageable);
+    
+    @Query("SELECT DISTINCT p.customer.id AS id, p.customer.email AS email, p.customer.firstName AS firstName " +
+           "FROM Purchase p WHERE p.showtime.id = :showtimeId AND p.status = :status AND p.customer.id > :afterId " +
+           "ORDER BY p.customer.id")
+    List<Purchaser> findPurchasersOfShowtime(@Param("showtimeId") UUID showtimeId,
+                                             @Param("status") PurchaseStatus status,
+                                             @Param("afterId") UUID afterId,
+                                             Pageable pageable);
+    
+    // Seat holds
+    @Query("SELECT p.id AS id, p.holdExpiresAt AS holdExpiresAt FROM Purchase p " +
+           "WHERE p.status = :status AND p.holdExpiresAt IS NOT NULL")
+    List<PendingHold> findPendingHolds(@Param("status") PurchaseStatus status);
+    
+    // Backstop for holds no instance has in its timing wheel. Lock timeout -2 is SKIP LOCKED
+    // (on Postgres FOR NO KEY UPDATE SKIP LOCKED), so every instance can sweep at once without
+    // two of them cancelling the same hold. JPQL rather than native SQL keeps the ids as UUIDs on H2
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT p.id FROM Purchase p WHERE p.status = :pending AND p.holdExpiresAt <= :now " +
+           "ORDER BY p.holdExpiresAt")
+    List<UUID> lockExpiredHoldIds(@Param("pending") PurchaseStatus pending,
+                                  @Param("now") LocalDateTime now,
+                                  Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE Purchase p SET p.status = :cancelled WHERE p.id IN :ids " +
+           "AND p.status = :pending AND p.holdExpiresAt <= :now")
+    int cancelExpiredHolds(@Param("ids") List<UUID> ids,
+                           @Param("pending") PurchaseStatus pending,
+                           @Param("cancelled") PurchaseStatus cancelled,
+                           @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE Purchase p SET p.status = :paid, p.paymentMethod = :method, p.last4 = :last4, " +
+           "p.paymentNote = :note, p.holdExpiresAt = NULL " +
+           "WHERE p.id = :id AND p.customer.id = :customerId AND p.status = :pending AND p.holdExpiresAt > :now")
+    int payHold(@Param("id") UUID id,
+                @Param("customerId") UUID customerId,
+                @Param("pending") PurchaseStatus pending,
+                @Param("paid") PurchaseStatus paid,
+                @Param("method") String method,
+                @Param("last4") String last4,
+                @Param("note") String note,
+                @Param("now") LocalDateTime now);
+    
+    interface Purchaser {
+        UUID getId();
+        String getEmail();
+        String getFirstName();
+    }
+    
+    interface PendingHold {
+        UUID getId();
+        LocalDateTime getHoldExpiresAt();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.johanfuertv.movietheaterbackend.repository;
+
+import com.johanfuertv.movietheaterbackend.entity.Purchase;
+import com.johanfuertv.movietheaterbackend.entity.Purchase.PurchaseStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Admin purchase listing queries. A null filter is left out of the generated query rather
+ * than written as {@code :x IS NULL OR ...}, so PostgreSQL can pick the matching
+ * (filter, created_at, id) index even once it switches to a generic plan.
+ */
+public interface PurchaseRepositoryCustom {
+
+    Page<Purchase> findPurchasesWithFilters(UUID customerId, UUID movieId, PurchaseStatus status,
+                                            LocalDateTime startDate, LocalDateTime endDate,
+                                            Pageable pageable);
+
+    // Keyset pages, newest first, ordered on (createdAt, id) so ties on createdAt stay stable
+    List<Purchase> findFirstPurchasesWithFilters(UUID customerId, UUID movieId, PurchaseStatus status,
+                                                 LocalDateTime startDate, LocalDateTime endDate,
+                                                 Pageable limit);
+
+    List<Purchase> findPurchasesWithFiltersAfter(UUID customerId, UUID movieId, PurchaseStatus status,
+                                                 LocalDateTime startDate, LocalDateTime endDate,
+                                                 LocalDateTime afterCreatedAt, UUID afterId,
+                                                 Pageable limit);
+
+    long countPurchasesWithFilters(UUID customerId, UUID movieId, PurchaseStatus status,
+                                   LocalDateTime startDate, LocalDateTime endDate);
+}
@@ -0,0 +1,110 @@
+package com.johanfuertv.movietheaterbackend.repository;
+
+import com.johanfuertv.movietheaterbackend.entity.Purchase;
+import com.johanfuertv.movietheaterbackend.entity.Purchase.PurchaseStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class PurchaseRepositoryCustomImpl implements PurchaseRepositoryCustom {
+
+    // Listings that become PurchaseResponse rows fetch customer and movie in the same query
+    private static final String SELECT = "SELECT p FROM Purchase p JOIN FETCH p.customer JOIN FETCH p.movie";
+    private static final String COUNT = "SELECT COUNT(p) FROM Purchase p";
+    private static final String NEWEST_FIRST = " ORDER BY p.createdAt DESC, p.id DESC";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Purchase> findPurchasesWithFilters(UUID customerId, UUID movieId, PurchaseStatus status,
+                                                   LocalDateTime startDate, LocalDateTime endDate,
+                                                   Pageable pageable) {
+        Filters filters = new Filters(customerId, movieId, status, startDate, endDate);
+        // The requested sort only breaks ties, as it did when appended to the derived query
+        String jpql = QueryUtils.applySorting(SELECT + filters.where() + " ORDER BY p.createdAt DESC",
+                                              pageable.getSort(), "p");
+        TypedQuery<Purchase> query = filters.bind(entityManager.createQuery(jpql, Purchase.class));
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable,
+            () -> countPurchasesWithFilters(customerId, movieId, status, startDate, endDate));
+    }
+
+    @Override
+    public List<Purchase> findFirstPurchasesWithFilters(UUID customerId, UUID movieId, PurchaseStatus status,
+                                                        LocalDateTime startDate, LocalDateTime endDate,
+                                                        Pageable limit) {
+        Filters filters = new Filters(customerId, movieId, status, startDate, endDate);
+        return filters.bind(entityManager.createQuery(SELECT + filters.where() + NEWEST_FIRST, Purchase.class))
+            .setMaxResults(limit.getPageSize())
+            .getResultList();
+    }
+
+    @Override
+    public List<Purchase> findPurchasesWithFiltersAfter(UUID customerId, UUID movieId, PurchaseStatus status,
+                                                        LocalDateTime startDate, LocalDateTime endDate,
+                                                        LocalDateTime afterCreatedAt, UUID afterId,
+                                                        Pageable limit) {
+        Filters filters = new Filters(customerId, movieId, status, startDate, endDate);
+        filters.after(afterCreatedAt, afterId);
+        return filters.bind(entityManager.createQuery(SELECT + filters.where() + NEWEST_FIRST, Purchase.class))
+            .setMaxResults(limit.getPageSize())
+            .getResultList();
+    }
+
+    @Override
+    public long countPurchasesWithFilters(UUID customerId, UUID movieId, PurchaseStatus status,
+                                          LocalDateTime startDate, LocalDateTime endDate) {
+        Filters filters = new Filters(customerId, movieId, status, startDate, endDate);
+        return filters.bind(entityManager.createQuery(COUNT + filters.where(), Long.class)).getSingleResult();
+    }
+
+    private static final class Filters {
+        private final StringBuilder where = new StringBuilder();
+        private final Map<String, Object> params = new LinkedHashMap<>();
+
+        Filters(UUID customerId, UUID movieId, PurchaseStatus status, LocalDateTime startDate, LocalDateTime endDate) {
+            add("p.customer.id = :customerId", "customerId", customerId);
+            add("p.movie.id = :movieId", "movieId", movieId);
+            add("p.status = :status", "status", status);
+            add("p.createdAt >= :startDate", "startDate", startDate);
+            add("p.createdAt <= :endDate", "endDate", endDate);
+        }
+
+        void add(String predicate, String name, Object value) {
+            if (value != null) {
+                where.append(where.length() == 0 ? " WHERE " : " AND ").append(predicate);
+                params.put(name, value);
+            }
+        }
+
+        // Row-value comparison: PostgreSQL turns it into the start of an index range scan,
+        // while the equivalent OR form is only a filter over every row newer than the cursor
+        void after(LocalDateTime createdAt, UUID id) {
+            add("(p.createdAt, p.id) < (:afterCreatedAt, :afterId)", "afterCreatedAt", createdAt);
+            params.put("afterId", id);
+        }
+
+        String where() {
+            return where.toString();
+        }
+
+        <T> TypedQuery<T> bind(TypedQuery<T> query) {
+            params.forEach(query::setParameter);
+            return query;
+        }
+    }
+}
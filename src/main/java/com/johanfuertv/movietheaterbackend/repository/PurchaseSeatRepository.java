@@ -0,0 +1,27 @@
+package com.johanfuertv.movietheaterbackend.repository;
+
+import com.johanfuertv.movietheaterbackend.entity.Purchase;
+import com.johanfuertv.movietheaterbackend.entity.PurchaseSeat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PurchaseSeatRepository extends JpaRepository<PurchaseSeat, UUID> {
+    
+    @Query("SELECT s.seatNumber FROM PurchaseSeat s WHERE s.showtimeId = :showtimeId")
+    List<Integer> findSeatNumbersByShowtimeId(@Param("showtimeId") UUID showtimeId);
+    
+    @Query("SELECT s FROM PurchaseSeat s WHERE s.purchase.id IN :purchaseIds AND s.purchase.status = :status")
+    List<PurchaseSeat> findByPurchaseIdsAndStatus(@Param("purchaseIds") List<UUID> purchaseIds,
+                                                 @Param("status") Purchase.PurchaseStatus status);
+    
+    @Modifying
+    @Query("DELETE FROM PurchaseSeat s WHERE s.id IN :ids")
+    int deleteByIds(@Param("ids") List<UUID> ids);
+}
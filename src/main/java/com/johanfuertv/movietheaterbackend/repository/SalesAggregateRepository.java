@@ -0,0 +1,106 @@
+package com.johanfuertv.movietheaterbackend.repository;
+
+import com.johanfuertv.movietheaterbackend.entity.SalesAggregate;
+import com.johanfuertv.movietheaterbackend.entity.SalesAggregate.Scope;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface SalesAggregateRepository extends JpaRepository<SalesAggregate, SalesAggregate.Key> {
+    
+    // Paid revenue, tickets and purchases, then purchases in any status
+    String PURCHASE_COLUMNS =
+        "SUM(total_amount) FILTER (WHERE status = 'PAID') AS revenue, SUM(quantity) FILTER (WHERE status = 'PAID') AS tickets, " +
+        "COUNT(*) FILTER (WHERE status = 'PAID') AS purchases, COUNT(*) AS \"allPurchases\"";
+    
+    String DELTA_COLUMNS =
+        "SUM(revenue) AS revenue, SUM(tickets) AS tickets, SUM(purchases) AS purchases, SUM(all_purchases) AS \"allPurchases\"";
+    
+    // Totals per scope over the purchases themselves; GENRE uses the genre stored at sale time
+    String PURCHASE_TOTALS =
+        "SELECT 'GLOBAL' AS scope, '' AS \"scopeKey\", " + PURCHASE_COLUMNS + " FROM purchases " +
+        "UNION ALL SELECT 'MOVIE', CAST(movie_id AS VARCHAR), " + PURCHASE_COLUMNS + " FROM purchases GROUP BY movie_id " +
+        "UNION ALL SELECT 'GENRE', genre, " + PURCHASE_COLUMNS + " FROM purchases GROUP BY genre " +
+        "UNION ALL SELECT 'DAY', CAST(CAST(created_at AS DATE) AS VARCHAR), " + PURCHASE_COLUMNS + " " +
+        "FROM purchases GROUP BY CAST(created_at AS DATE)";
+    
+    // Totals per scope over the deltas not folded yet
+    String PENDING_DELTA_TOTALS =
+        "SELECT 'GLOBAL' AS scope, '' AS \"scopeKey\", " + DELTA_COLUMNS + " FROM sales_deltas HAVING COUNT(*) > 0 " +
+        "UNION ALL SELECT 'MOVIE', CAST(movie_id AS VARCHAR), " + DELTA_COLUMNS + " FROM sales_deltas GROUP BY movie_id " +
+        "UNION ALL SELECT 'GENRE', genre, " + DELTA_COLUMNS + " FROM sales_deltas GROUP BY genre " +
+        "UNION ALL SELECT 'DAY', CAST(sale_date AS VARCHAR), " + DELTA_COLUMNS + " FROM sales_deltas GROUP BY sale_date";
+    
+    // Same, over the rows deleted by foldDeltas
+    String MOVED_DELTA_TOTALS =
+        "SELECT 'GLOBAL' AS scope, '' AS \"scopeKey\", " + DELTA_COLUMNS + " FROM moved HAVING COUNT(*) > 0 " +
+        "UNION ALL SELECT 'MOVIE', CAST(movie_id AS VARCHAR), " + DELTA_COLUMNS + " FROM moved GROUP BY movie_id " +
+        "UNION ALL SELECT 'GENRE', genre, " + DELTA_COLUMNS + " FROM moved GROUP BY genre " +
+        "UNION ALL SELECT 'DAY', CAST(sale_date AS VARCHAR), " + DELTA_COLUMNS + " FROM moved GROUP BY sale_date";
+    
+    /**
+     * Moves up to {@code limit} deltas into the aggregates in one statement: the deleted
+     * delta rows are grouped per scope and upserted as increments.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "WITH moved AS (" +
+                   "DELETE FROM sales_deltas WHERE id IN " +
+                   "(SELECT id FROM sales_deltas ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING movie_id, genre, sale_date, revenue, tickets, purchases, all_purchases) " +
+                   "INSERT INTO sales_aggregates (scope, scope_key, revenue, tickets, purchases, all_purchases, updated_at) " +
+                   "SELECT scope, \"scopeKey\", revenue, tickets, purchases, \"allPurchases\", NOW() " +
+                   "FROM (" + MOVED_DELTA_TOTALS + ") totals " +
+                   "ON CONFLICT (scope, scope_key) DO UPDATE SET " +
+                   "revenue = sales_aggregates.revenue + EXCLUDED.revenue, " +
+                   "tickets = sales_aggregates.tickets + EXCLUDED.tickets, " +
+                   "purchases = sales_aggregates.purchases + EXCLUDED.purchases, " +
+                   "all_purchases = sales_aggregates.all_purchases + EXCLUDED.all_purchases, " +
+                   "updated_at = NOW()", nativeQuery = true)
+    int foldDeltas(@Param("limit") int limit);
+    
+    @Query(value = PURCHASE_TOTALS, nativeQuery = true)
+    List<ScopeTotals> computePurchaseTotals();
+    
+    @Query(value = PENDING_DELTA_TOTALS, nativeQuery = true)
+    List<ScopeTotals> computePendingDeltaTotals();
+    
+    // Rebuild, run together in one transaction by SalesAggregateService
+    @Modifying
+    @Query(value = "LOCK TABLE sales_deltas IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockDeltas();
+    
+    @Modifying
+    @Query(value = "DELETE FROM sales_deltas", nativeQuery = true)
+    int deleteAllDeltas();
+    
+    @Modifying
+    @Query(value = "DELETE FROM sales_aggregates", nativeQuery = true)
+    int deleteAllAggregates();
+    
+    @Modifying
+    @Query(value = "INSERT INTO sales_aggregates (scope, scope_key, revenue, tickets, purchases, all_purchases, updated_at) " +
+                   "SELECT scope, \"scopeKey\", COALESCE(revenue, 0), COALESCE(tickets, 0), purchases, \"allPurchases\", NOW() " +
+                   "FROM (" + PURCHASE_TOTALS + ") totals", nativeQuery = true)
+    int insertPurchaseTotals();
+    
+    List<SalesAggregate> findByScopeOrderByRevenueDesc(Scope scope);
+    
+    List<SalesAggregate> findByScopeAndScopeKeyBetweenOrderByScopeKeyAsc(Scope scope, String from, String to);
+    
+    interface ScopeTotals {
+        String getScope();
+        String getScopeKey();
+        BigDecimal getRevenue();
+        Long getTickets();
+        Long getPurchases();
+        Long getAllPurchases();
+    }
+}
@@ -0,0 +1,18 @@
+package com.johanfuertv.movietheaterbackend.repository;
+
+import com.johanfuertv.movietheaterbackend.entity.Showtime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ShowtimeRepository extends JpaRepository<Showtime, UUID> {
+    
+    Optional<Showtime> findByIdAndActiveTrue(UUID id);
+    
+    List<Showtime> findByMovieIdAndActiveTrueAndStartsAtAfterOrderByStartsAtAsc(UUID movieId, LocalDateTime after);
+}
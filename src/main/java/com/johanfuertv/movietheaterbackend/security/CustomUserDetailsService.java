@@ -2,20 +2,26 @@ package com.johanfuertv.movietheaterbackend.security;
 
 import com.johanfuertv.movietheaterbackend.entity.Customer;
 import com.johanfuertv.movietheaterbackend.repository.CustomerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
     
     @Autowired
     private CustomerRepository customerRepository;
@@ -32,28 +38,55 @@ public class CustomUserDetailsService implements UserDetailsService {
         return new CustomUserPrincipal(customer);
     }
     
+    /**
+     * Called after a successful login whose stored hash is below the configured algorithm or
+     * cost, with the password re-encoded under the current settings.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        CustomUserPrincipal principal = (CustomUserPrincipal) user;
+        // A targeted update; changing the entity too would write the row again if it is still managed
+        customerRepository.updatePasswordHash(principal.getCustomerId(), newPassword);
+        logger.info("Upgraded password hash for customer {}", principal.getCustomerId());
+        return principal;
+    }
+    
     public static class CustomUserPrincipal implements UserDetails {
-        private Customer customer;
+        private final UUID customerId;
+        private final String email;
+        private final String roles;
+        private final Customer customer;
         
         public CustomUserPrincipal(Customer customer) {
+            this.customerId = customer.getId();
+            this.email = customer.getEmail();
+            this.roles = customer.getRoles();
             this.customer = customer;
         }
         
+        // Built from verified token claims, without loading the customer row
+        public CustomUserPrincipal(UUID customerId, String email, String roles) {
+            this.customerId = customerId;
+            this.email = email;
+            this.roles = roles;
+            this.customer = null;
+        }
+        
         @Override
         public Collection<? extends GrantedAuthority> getAuthorities() {
-            return Arrays.stream(customer.getRoles().split(","))
+            return Arrays.stream(roles.split(","))
                     .map(role -> new SimpleGrantedAuthority("ROLE_" + role.trim()))
                     .collect(Collectors.toList());
         }
         
         @Override
         public String getPassword() {
-            return customer.getPasswordHash();
+            return customer != null ? customer.getPasswordHash() : null;
         }
         
         @Override
         public String getUsername() {
-            return customer.getEmail();
+            return email;
         }
         
         @Override
@@ -73,9 +106,20 @@ public class CustomUserDetailsService implements UserDetailsService {
         
         @Override
         public boolean isEnabled() {
-            return customer.getActive();
+            return customer == null || customer.getActive();
+        }
+        
+        public UUID getCustomerId() {
+            return customerId;
+        }
+        
+        public String getRoles() {
+            return roles;
         }
         
+        /**
+         * The loaded customer entity, or null when the principal was built from token claims.
+         */
         public Customer getCustomer() {
             return customer;
         }
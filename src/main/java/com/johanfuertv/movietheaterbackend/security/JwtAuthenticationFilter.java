@@ -25,7 +25,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtTokenProvider tokenProvider;
     
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private TokenRevocationList tokenRevocationList;
+    
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
     
     @Override
     protected void doFilterInternal(
@@ -37,11 +40,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
             
-            if (jwt != null && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            VerifiedToken token = jwt != null
+                ? verifiedTokenCache.getOrVerify(jwt, tokenProvider::verify).orElse(null)
+                : null;
+            
+            if (token != null) {
+                UserDetails userDetails = buildPrincipal(token);
                 
-                if (tokenProvider.validateToken(jwt, userDetails)) {
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authentication = 
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -56,6 +62,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    // Everything comes from the token; disabled customers and logged out tokens are in the revocation list
+    private UserDetails buildPrincipal(VerifiedToken token) {
+        if (!token.hasCustomerClaims()) {
+            logger.debug("Rejected token without customer claims: {}", token.getSubject());
+            return null;
+        }
+        
+        if (tokenRevocationList.isRevoked(token)) {
+            logger.debug("Rejected revoked token: {}", token.getSubject());
+            return null;
+        }
+        
+        return new CustomUserDetailsService.CustomUserPrincipal(
+            token.getCustomerId(), token.getSubject(), token.getRoles());
+    }
+    
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
@@ -7,97 +7,147 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * Issues and verifies access tokens.
+ *
+ * Signing keys and the parser are built once at startup and never change afterwards, so a
+ * single instance is safe to share between request threads. Tokens are signed with the
+ * current key and carry its id in the {@code kid} header; retired keys listed in
+ * {@code jwt.verification-keys} are still accepted until the tokens they signed expire.
+ */
 @Component
 public class JwtTokenProvider {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
-    
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-    
-    @Value("${jwt.expiration}")
-    private Long jwtExpiration;
-    
+
+    public static final String CLAIM_CUSTOMER_ID = "cid";
+    public static final String CLAIM_ROLES = "roles";
+
+    private final Long jwtExpiration;
+    private final String signingKeyId;
+    private final SecretKey signingKey;
+    private final Map<String, SecretKey> verificationKeys;
+    private final JwtParser parser;
+
+    public JwtTokenProvider(@Value("${jwt.secret}") String jwtSecret,
+                            @Value("${jwt.expiration}") Long jwtExpiration,
+                            @Value("${jwt.key-id:primary}") String signingKeyId,
+                            @Value("${jwt.verification-keys:}") String verificationKeys) {
+        this.jwtExpiration = jwtExpiration;
+        this.signingKeyId = signingKeyId;
+        this.signingKey = toKey(jwtSecret);
+
+        Map<String, SecretKey> keys = parseVerificationKeys(verificationKeys);
+        keys.put(signingKeyId, signingKey);
+        this.verificationKeys = Collections.unmodifiableMap(keys);
+
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    // jjwt 0.11 declares the raw JwsHeader here, so JwsHeader<?> would not override it
+                    @Override
+                    @SuppressWarnings("rawtypes")
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveKey(header.getKeyId());
+                    }
+                })
+                .build();
+
+        logger.info("JWT provider initialized with signing key '{}' and {} verification key(s)",
+                    signingKeyId, this.verificationKeys.size());
+    }
+
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof CustomUserDetailsService.CustomUserPrincipal principal) {
+            claims.put(CLAIM_CUSTOMER_ID, principal.getCustomerId().toString());
+            claims.put(CLAIM_ROLES, principal.getRoles());
+        }
         return createToken(claims, userDetails.getUsername());
     }
-    
+
     private String createToken(Map<String, Object> claims, String subject) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration * 1000);
-        
+
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKeyId)
                 .setClaims(claims)
                 .setSubject(subject)
+                // Lets a single token be revoked on logout
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
-    
-    public String getUsernameFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.getSubject();
-    }
-    
-    public Date getExpirationDateFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.getExpiration();
-    }
-    
-    private Claims getClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-    
-    public Boolean isTokenExpired(String token) {
-        try {
-            final Date expiration = getExpirationDateFromToken(token);
-            return expiration.before(new Date());
-        } catch (JwtException e) {
-            return true;
-        }
-    }
-    
-    public Boolean validateToken(String token, UserDetails userDetails) {
+
+    /**
+     * Verifies signature and expiry in a single parse.
+     *
+     * @return the verified claims, or empty when the token is malformed, expired or signed
+     *         with an unknown key
+     */
+    public Optional<VerifiedToken> verify(String token) {
         try {
-            final String username = getUsernameFromToken(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            Jws<Claims> jws = parser.parseClaimsJws(token);
+            return Optional.of(new VerifiedToken(jws.getBody(), jws.getHeader().getKeyId()));
         } catch (JwtException | IllegalArgumentException e) {
             logger.error("JWT validation error: {}", e.getMessage());
-            return false;
+            return Optional.empty();
         }
     }
-    
+
     public Boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            logger.error("JWT validation error: {}", e.getMessage());
-            return false;
-        }
+        return verify(token).isPresent();
     }
-    
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-    
+
     public Long getJwtExpiration() {
         return jwtExpiration;
     }
-}
\ No newline at end of file
+
+    private Key resolveKey(String keyId) {
+        // Tokens issued before key ids were introduced have no kid and were signed with jwt.secret
+        if (keyId == null) {
+            return signingKey;
+        }
+        SecretKey key = verificationKeys.get(keyId);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key id: " + keyId);
+        }
+        return key;
+    }
+
+    private static Map<String, SecretKey> parseVerificationKeys(String value) {
+        Map<String, SecretKey> keys = new HashMap<>();
+        if (!StringUtils.hasText(value)) {
+            return keys;
+        }
+
+        // Format: kid1:secret1,kid2:secret2
+        for (String entry : value.split(",")) {
+            String trimmed = entry.trim();
+            int separator = trimmed.indexOf(':');
+            if (separator <= 0 || separator == trimmed.length() - 1) {
+                throw new IllegalArgumentException("Invalid jwt.verification-keys entry, expected kid:secret");
+            }
+            keys.put(trimmed.substring(0, separator), toKey(trimmed.substring(separator + 1)));
+        }
+        return keys;
+    }
+
+    private static SecretKey toKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,36 @@
+package com.johanfuertv.movietheaterbackend.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Times each password check and reports it to {@link PasswordHashMetrics} under the stored
+ * hash's cost; everything else is left to the wrapped encoder.
+ */
+public class MeteredPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashMetrics metrics;
+
+    public MeteredPasswordEncoder(PasswordEncoder delegate, PasswordHashMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matched = delegate.matches(rawPassword, encodedPassword);
+        metrics.recordVerification(PasswordHashMetrics.costOf(encodedPassword), System.nanoTime() - start, matched);
+        return matched;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
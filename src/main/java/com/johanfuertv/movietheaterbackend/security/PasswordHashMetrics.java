@@ -0,0 +1,201 @@
+package com.johanfuertv.movietheaterbackend.security;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Password verification counts and latency histograms, per hash cost ("bcrypt-10",
+ * "bcrypt-12", "pbkdf2"), so the effect of raising the cost shows up as hashes get upgraded.
+ * Also counts logins turned away because the verification executor was full.
+ */
+@Component
+public class PasswordHashMetrics {
+
+    private final ConcurrentMap<String, CostHistogram> histograms = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    private final long startedNanos = System.nanoTime();
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    public void recordVerification(String cost, long nanos, boolean matched) {
+        histograms.computeIfAbsent(cost, c -> new CostHistogram()).record(nanos / 1000, matched);
+    }
+
+    public void recordRejected() {
+        rejected.increment();
+    }
+
+    public LoginStats getStats() {
+        double seconds = Math.max(1e-3, (System.nanoTime() - startedNanos) / 1e9);
+        List<CostStats> costs = new ArrayList<>();
+        for (Map.Entry<String, CostHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            costs.add(entry.getValue().snapshot(entry.getKey(), seconds));
+        }
+        return new LoginStats(startedAt, rejected.sum(), costs);
+    }
+
+    /**
+     * Labels a stored hash by algorithm and cost, e.g. "{bcrypt}$2a$12$..." and the legacy
+     * unprefixed "$2a$10$..." as "bcrypt-12" and "bcrypt-10".
+     */
+    static String costOf(String encoded) {
+        if (encoded == null) {
+            return "none";
+        }
+        String hash = encoded;
+        String id = null;
+        if (hash.startsWith("{")) {
+            int end = hash.indexOf('}');
+            if (end > 0) {
+                id = hash.substring(1, end);
+                hash = hash.substring(end + 1);
+            }
+        }
+        if (hash.startsWith("$2") && hash.length() > 7 && hash.charAt(3) == '$') {
+            return "bcrypt-" + hash.substring(4, 6);
+        }
+        return id != null ? id : "unknown";
+    }
+
+    /**
+     * Log-linear histogram over microseconds: eight buckets per power of two, so any
+     * percentile is within 12.5% of the true value. Lock-free, one array per cost.
+     */
+    static final class CostHistogram {
+        private static final int SUB_BUCKETS = 8;
+        private static final int BUCKETS = 40 * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder verifications = new LongAdder();
+        private final LongAdder matches = new LongAdder();
+        private final LongAdder totalMicros = new LongAdder();
+
+        void record(long micros, boolean matched) {
+            counts.incrementAndGet(Math.min(BUCKETS - 1, index(Math.max(0, micros))));
+            verifications.increment();
+            totalMicros.add(micros);
+            if (matched) {
+                matches.increment();
+            }
+        }
+
+        static int index(long micros) {
+            if (micros < SUB_BUCKETS) {
+                return (int) micros;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(micros);
+            int sub = (int) (micros >> (exponent - 3)) & (SUB_BUCKETS - 1);
+            return (exponent - 2) * SUB_BUCKETS + sub;
+        }
+
+        // Middle of the bucket's range, in microseconds
+        static long valueAt(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int exponent = index / SUB_BUCKETS + 2;
+            long width = 1L << (exponent - 3);
+            long lower = (SUB_BUCKETS + index % SUB_BUCKETS) * width;
+            return lower + width / 2;
+        }
+
+        long percentile(long[] snapshot, long total, double quantile) {
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                seen += snapshot[i];
+                if (seen >= rank && snapshot[i] > 0) {
+                    return valueAt(i);
+                }
+            }
+            return 0;
+        }
+
+        CostStats snapshot(String cost, double seconds) {
+            long[] snapshot = new long[BUCKETS];
+            long total = 0;
+            int highest = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                total += snapshot[i];
+                if (snapshot[i] > 0) {
+                    highest = i;
+                }
+            }
+            long count = verifications.sum();
+            return new CostStats(cost, count, matches.sum(), count / seconds,
+                                 count == 0 ? 0.0 : totalMicros.sum() / 1000.0 / count,
+                                 percentile(snapshot, total, 0.50) / 1000.0,
+                                 percentile(snapshot, total, 0.90) / 1000.0,
+                                 percentile(snapshot, total, 0.99) / 1000.0,
+                                 total == 0 ? 0.0 : valueAt(highest) / 1000.0);
+        }
+    }
+
+    // Stats classes
+    public static class LoginStats {
+        private LocalDateTime since;
+        private Long rejected;
+        private List<CostStats> costs;
+
+        public LoginStats(LocalDateTime since, Long rejected, List<CostStats> costs) {
+            this.since = since;
+            this.rejected = rejected;
+            this.costs = costs;
+        }
+
+        // Getters
+        public LocalDateTime getSince() { return since; }
+        public Long getRejected() { return rejected; }
+        public List<CostStats> getCosts() { return costs; }
+
+        public Long getUptimeSeconds() {
+            return Duration.between(since, LocalDateTime.now()).getSeconds();
+        }
+    }
+
+    public static class CostStats {
+        private String cost;
+        private Long verifications;
+        private Long matches;
+        private Double perSecond;
+        private Double meanMs;
+        private Double p50Ms;
+        private Double p90Ms;
+        private Double p99Ms;
+        private Double maxMs;
+
+        public CostStats(String cost, Long verifications, Long matches, Double perSecond, Double meanMs,
+                         Double p50Ms, Double p90Ms, Double p99Ms, Double maxMs) {
+            this.cost = cost;
+            this.verifications = verifications;
+            this.matches = matches;
+            this.perSecond = perSecond;
+            this.meanMs = meanMs;
+            this.p50Ms = p50Ms;
+            this.p90Ms = p90Ms;
+            this.p99Ms = p99Ms;
+            this.maxMs = maxMs;
+        }
+
+        // Getters
+        public String getCost() { return cost; }
+        public Long getVerifications() { return verifications; }
+        public Long getMatches() { return matches; }
+        public Double getPerSecond() { return perSecond; }
+        public Double getMeanMs() { return meanMs; }
+        public Double getP50Ms() { return p50Ms; }
+        public Double getP90Ms() { return p90Ms; }
+        public Double getP99Ms() { return p99Ms; }
+        public Double getMaxMs() { return maxMs; }
+    }
+}
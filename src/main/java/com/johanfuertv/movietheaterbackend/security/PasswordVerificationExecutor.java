@@ -0,0 +1,77 @@
+package com.johanfuertv.movietheaterbackend.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password checks (BCrypt, tens of milliseconds of CPU each) on a few dedicated threads
+ * with a short queue. Only the hashing runs here; the login's database work stays on the
+ * request thread, which waits for the result, so these threads are never parked on I/O.
+ * When the queue is full the login is refused at once with {@link RejectedExecutionException}
+ * instead of waiting, so a login storm costs at most these threads' CPU and leaves the rest
+ * of the API responsive.
+ */
+@Component
+public class PasswordVerificationExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordVerificationExecutor.class);
+
+    @Autowired
+    private PasswordHashMetrics metrics;
+
+    // 0 means half the cores, leaving the other half for everything else
+    @Value("${auth.login.threads:0}")
+    private int threads;
+
+    @Value("${auth.login.queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), r -> {
+                Thread thread = new Thread(r, "password-verify-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Password verification executor: {} threads, queue {}", size, queueCapacity);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues the task, or throws {@link RejectedExecutionException} right away when full.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            metrics.recordRejected();
+            throw e;
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+}
@@ -0,0 +1,243 @@
+package com.johanfuertv.movietheaterbackend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.johanfuertv.movietheaterbackend.dto.response.ApiResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles API traffic with token buckets, per endpoint group.
+ *
+ * Each group has a per-client limit, keyed by the authenticated customer id or else the
+ * remote address, and optionally a global limit shared by every client of the group (which
+ * is what protects BCrypt CPU and the connection pool from many clients at once). Runs right
+ * after {@link JwtAuthenticationFilter} so customers are already known.
+ *
+ * Buckets are created on first use and dropped again once full, since a full bucket is the
+ * same as a missing one; a sweep every few seconds keeps memory proportional to clients
+ * active recently, and {@code max-buckets} caps it outright.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    enum Group {
+        AUTH, PURCHASES, ADMIN, API;
+
+        // Null for requests outside the API (static files, docs), which are not limited
+        static Group of(String method, String path) {
+            if (path.startsWith("/api/auth/")) {
+                return AUTH;
+            }
+            if (path.startsWith("/api/purchases") && !"GET".equals(method)) {
+                return PURCHASES;
+            }
+            if (path.startsWith("/api/admin/")) {
+                return ADMIN;
+            }
+            if (path.startsWith("/api/")) {
+                return API;
+            }
+            return null;
+        }
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.max-buckets:100000}")
+    private int maxBuckets;
+
+    @Value("${rate-limit.sweep-seconds:10}")
+    private long sweepSeconds;
+
+    @Value("${rate-limit.auth.client:10/m:10}")
+    private String authClient;
+
+    @Value("${rate-limit.auth.global:50/s:100}")
+    private String authGlobal;
+
+    @Value("${rate-limit.purchases.client:30/m:10}")
+    private String purchasesClient;
+
+    @Value("${rate-limit.purchases.global:200/s:200}")
+    private String purchasesGlobal;
+
+    @Value("${rate-limit.admin.client:20/s:40}")
+    private String adminClient;
+
+    @Value("${rate-limit.admin.global:}")
+    private String adminGlobal;
+
+    @Value("${rate-limit.api.client:50/s:100}")
+    private String apiClient;
+
+    @Value("${rate-limit.api.global:}")
+    private String apiGlobal;
+
+    private final Map<Group, TokenBucket.Limit> clientLimits = new EnumMap<>(Group.class);
+    private final Map<Group, TokenBucket> globalBuckets = new EnumMap<>(Group.class);
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService sweeper;
+
+    @PostConstruct
+    void init() {
+        configure(Group.AUTH, authClient, authGlobal);
+        configure(Group.PURCHASES, purchasesClient, purchasesGlobal);
+        configure(Group.ADMIN, adminClient, adminGlobal);
+        configure(Group.API, apiClient, apiGlobal);
+    }
+
+    private void configure(Group group, String client, String global) {
+        TokenBucket.Limit clientLimit = TokenBucket.Limit.parse(client);
+        if (clientLimit != null) {
+            clientLimits.put(group, clientLimit);
+        }
+        TokenBucket.Limit globalLimit = TokenBucket.Limit.parse(global);
+        if (globalLimit != null) {
+            globalBuckets.put(group, new TokenBucket(globalLimit, System.nanoTime()));
+        }
+        logger.info("Rate limit for {}: client {}, global {}", group,
+                    clientLimit != null ? clientLimit : "none", globalLimit != null ? globalLimit : "none");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepSeconds, sweepSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @org.springframework.lang.NonNull HttpServletRequest request,
+            @org.springframework.lang.NonNull HttpServletResponse response,
+            @org.springframework.lang.NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Group group = enabled
+            ? Group.of(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()))
+            : null;
+        if (group != null) {
+            long waitNanos = acquire(group, clientKey(request), System.nanoTime());
+            if (waitNanos > 0) {
+                reject(response, group, waitNanos);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Takes a token from the client's bucket and then from the group's global one. Returns 0
+     * when both grant it, otherwise how long to wait. A request the global bucket refuses
+     * gets its client token back, so a busy group does not drain the limits of its clients.
+     */
+    long acquire(Group group, String client, long now) {
+        TokenBucket.Limit clientLimit = clientLimits.get(group);
+        TokenBucket bucket = null;
+        if (clientLimit != null) {
+            String key = group.name() + '|' + client;
+            bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= maxBuckets) {
+                    sweep();
+                }
+                bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(clientLimit, now));
+            }
+            long wait = bucket.tryAcquire(now);
+            if (wait > 0) {
+                return wait;
+            }
+        }
+
+        TokenBucket global = globalBuckets.get(group);
+        long wait = global != null ? global.tryAcquire(now) : 0;
+        if (wait > 0 && bucket != null) {
+            bucket.refund();
+        }
+        return wait;
+    }
+
+    void sweep() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(entry -> entry.getValue().isFull(now));
+        if (buckets.size() >= maxBuckets) {
+            // Only active clients left, e.g. many spoofed addresses: start everyone afresh
+            // rather than grow without bound
+            logger.warn("Rate limit buckets at capacity ({}), resetting", buckets.size());
+            buckets.clear();
+        }
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null
+                && authentication.getPrincipal() instanceof CustomUserDetailsService.CustomUserPrincipal principal
+                && principal.getCustomerId() != null) {
+            return "customer:" + principal.getCustomerId();
+        }
+        // Behind a proxy this needs server.forward-headers-strategy so it is the client address
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, Group group, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        logger.debug("Rate limited {} request, retry after {}s", group, retryAfter);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+            ApiResponse.error("Too many requests, retry in " + retryAfter + " seconds"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.johanfuertv.movietheaterbackend.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as the single instant at which the bucket is full again
+ * (the generic cell rate algorithm). Taking a token pushes that instant one refill interval
+ * further; the request is refused when it would end up more than a full bucket ahead of now.
+ * One compare-and-set per request and no background refill.
+ *
+ * A bucket whose instant has passed is full and holds no state worth keeping, which is what
+ * lets {@link RateLimitFilter} drop idle buckets without changing anyone's limit.
+ */
+public final class TokenBucket {
+
+    private final Limit limit;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(Limit limit, long nowNanos) {
+        this.limit = limit;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token. Returns 0 when granted, otherwise the nanoseconds until one is free.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long start = current - nowNanos > 0 ? current : nowNanos;
+            long next = start + limit.nanosPerToken;
+            long ahead = next - nowNanos;
+            if (ahead > limit.burstNanos) {
+                return ahead - limit.burstNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token granted by {@link #tryAcquire} to a request that was refused anyway.
+     * Moving the instant back one interval is exact even if other tokens were taken since.
+     */
+    public void refund() {
+        fullAt.addAndGet(-limit.nanosPerToken);
+    }
+
+    public boolean isFull(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+
+    /**
+     * A sustained rate plus a burst size, written as "rate/unit:burst" with unit s, m or h,
+     * e.g. "10/m:5" for ten per minute with up to five at once.
+     */
+    public static final class Limit {
+        private final long nanosPerToken;
+        private final long burstNanos;
+        private final String spec;
+
+        private Limit(long nanosPerToken, int burst, String spec) {
+            this.nanosPerToken = nanosPerToken;
+            this.burstNanos = nanosPerToken * burst;
+            this.spec = spec;
+        }
+
+        // Returns null for a blank spec, meaning no limit
+        public static Limit parse(String spec) {
+            if (spec == null || spec.isBlank()) {
+                return null;
+            }
+            String trimmed = spec.trim();
+            try {
+                int slash = trimmed.indexOf('/');
+                int colon = trimmed.indexOf(':');
+                long rate = Long.parseLong(trimmed.substring(0, slash));
+                String unit = colon < 0 ? trimmed.substring(slash + 1) : trimmed.substring(slash + 1, colon);
+                int burst = colon < 0 ? 1 : Integer.parseInt(trimmed.substring(colon + 1));
+                long period = switch (unit) {
+                    case "s" -> TimeUnit.SECONDS.toNanos(1);
+                    case "m" -> TimeUnit.MINUTES.toNanos(1);
+                    case "h" -> TimeUnit.HOURS.toNanos(1);
+                    default -> throw new IllegalArgumentException("unknown unit " + unit);
+                };
+                if (rate <= 0 || burst <= 0) {
+                    throw new IllegalArgumentException("rate and burst must be positive");
+                }
+                return new Limit(period / rate, burst, trimmed);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid rate limit '" + spec + "', expected rate/unit:burst", e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return spec;
+        }
+    }
+}
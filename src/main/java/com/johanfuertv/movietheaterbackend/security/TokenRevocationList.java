@@ -0,0 +1,261 @@
+package com.johanfuertv.movietheaterbackend.security;
+
+import com.johanfuertv.movietheaterbackend.repository.CustomerRepository;
+import com.johanfuertv.movietheaterbackend.repository.CustomerRepository.DisabledCustomer;
+import com.johanfuertv.movietheaterbackend.repository.RevokedAccessTokenRepository;
+import com.johanfuertv.movietheaterbackend.repository.RevokedAccessTokenRepository.RevokedToken;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory set of revoked access tokens, checked by {@link JwtAuthenticationFilter} on every
+ * request instead of reading the customer row.
+ *
+ * Two kinds of entries: a customer cutoff (every token of that customer issued at or before
+ * the cutoff is revoked, used when a customer is disabled) and a single token id (logout).
+ * An entry is only needed until the tokens it covers have expired, which with short-lived
+ * access tokens keeps the set small. A Bloom filter in front of the exact maps answers the
+ * common case, nothing revoked, from a few bits without touching the maps.
+ *
+ * Revocations made on this node apply immediately. Disables and logouts made on other nodes
+ * are picked up by polling recently disabled customers and recently revoked tokens (stored by
+ * logout in {@code revoked_access_tokens}) every {@code jwt.revocation.sync-seconds}; the same
+ * queries on startup restore what a restart would otherwise forget.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    // Covers clock differences between the nodes writing updated_at and this one
+    private static final long SYNC_OVERLAP_MILLIS = 5_000;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private RevokedAccessTokenRepository revokedAccessTokenRepository;
+
+    @Value("${jwt.expiration}")
+    private long accessTokenSeconds;
+
+    @Value("${jwt.revocation.sync-seconds:15}")
+    private long syncSeconds;
+
+    @Value("${jwt.revocation.expected-entries:10000}")
+    private int expectedEntries;
+
+    @Value("${jwt.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private final Map<UUID, Entry> customers = new ConcurrentHashMap<>();
+    private final Map<String, Entry> tokens = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder filterHits = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    private ScheduledExecutorService scheduler;
+    private volatile long syncedUntil;
+
+    @PostConstruct
+    void init() {
+        filter = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        syncedUntil = System.currentTimeMillis() - accessTokenSeconds * 1000;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "token-revocations");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::syncQuietly, 0, syncSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        checks.increment();
+        long issuedAt = token.getIssuedAt() != null ? token.getIssuedAt().getTime() : 0;
+        BloomFilter current = filter;
+
+        UUID customerId = token.getCustomerId();
+        if (customerId != null && current.mightContain(customerId.getMostSignificantBits(), customerId.getLeastSignificantBits())) {
+            filterHits.increment();
+            Entry entry = customers.get(customerId);
+            // iat has second precision, so a token from the same second as the cutoff counts as before it
+            if (entry != null && issuedAt <= entry.cutoff) {
+                rejections.increment();
+                return true;
+            }
+        }
+
+        String tokenId = token.getTokenId();
+        if (tokenId != null) {
+            UUID key = tokenKey(tokenId);
+            if (current.mightContain(key.getMostSignificantBits(), key.getLeastSignificantBits())) {
+                filterHits.increment();
+                if (tokens.containsKey(tokenId)) {
+                    rejections.increment();
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Revokes every access token of the customer issued at or before {@code cutoffMillis}.
+     */
+    public synchronized void revokeCustomer(UUID customerId, long cutoffMillis) {
+        long retainUntil = cutoffMillis + accessTokenSeconds * 1000 + SYNC_OVERLAP_MILLIS;
+        customers.merge(customerId, new Entry(cutoffMillis, retainUntil),
+                        (a, b) -> a.cutoff >= b.cutoff ? a : b);
+        filter.add(customerId.getMostSignificantBits(), customerId.getLeastSignificantBits());
+    }
+
+    /**
+     * Revokes a single access token until its own expiry.
+     */
+    public synchronized void revokeToken(String tokenId, long expiresAtMillis) {
+        tokens.put(tokenId, new Entry(Long.MAX_VALUE, expiresAtMillis));
+        UUID key = tokenKey(tokenId);
+        filter.add(key.getMostSignificantBits(), key.getLeastSignificantBits());
+    }
+
+    /**
+     * Polls customers disabled and tokens revoked since the last poll, then drops entries whose
+     * tokens have all expired and rebuilds the filter without them.
+     */
+    void sync() {
+        long now = System.currentTimeMillis();
+        LocalDateTime since = toLocal(syncedUntil - SYNC_OVERLAP_MILLIS);
+        int found = 0;
+        for (DisabledCustomer disabled : customerRepository.findDisabledSince(since)) {
+            revokeCustomer(disabled.getId(), toMillis(disabled.getUpdatedAt()));
+            found++;
+        }
+        int loggedOut = 0;
+        for (RevokedToken revoked : revokedAccessTokenRepository.findRevokedSince(since, toLocal(now))) {
+            revokeToken(revoked.getTokenId(), toMillis(revoked.getExpiresAt()));
+            loggedOut++;
+        }
+        syncedUntil = now;
+        if (found > 0 || loggedOut > 0) {
+            logger.debug("Revoked access tokens of {} recently disabled customer(s) and {} logout(s)", found, loggedOut);
+        }
+        sweep(now);
+    }
+
+    synchronized void sweep(long now) {
+        customers.values().removeIf(e -> e.retainUntil <= now);
+        tokens.values().removeIf(e -> e.retainUntil <= now);
+
+        // Sized for the current content, so a burst of revocations cannot saturate the filter
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, 2 * (customers.size() + tokens.size())),
+                                              falsePositiveRate);
+        customers.keySet().forEach(id -> rebuilt.add(id.getMostSignificantBits(), id.getLeastSignificantBits()));
+        tokens.keySet().stream().map(TokenRevocationList::tokenKey)
+            .forEach(key -> rebuilt.add(key.getMostSignificantBits(), key.getLeastSignificantBits()));
+        filter = rebuilt;
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (Exception e) {
+            logger.error("Syncing token revocations failed", e);
+        }
+    }
+
+    public RevocationStats getStats() {
+        BloomFilter current = filter;
+        return new RevocationStats(customers.size(), tokens.size(), current.getBitCount(), current.getHashes(),
+                                   checks.sum(), filterHits.sum(), rejections.sum());
+    }
+
+    // Token ids are UUID strings; anything else is hashed into one
+    private static UUID tokenKey(String tokenId) {
+        try {
+            return UUID.fromString(tokenId);
+        } catch (IllegalArgumentException e) {
+            return UUID.nameUUIDFromBytes(tokenId.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static LocalDateTime toLocal(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Entry {
+        private final long cutoff;
+        private final long retainUntil;
+
+        Entry(long cutoff, long retainUntil) {
+            this.cutoff = cutoff;
+            this.retainUntil = retainUntil;
+        }
+    }
+
+    // Stats class
+    public static class RevocationStats {
+        private Integer revokedCustomers;
+        private Integer revokedTokens;
+        private Long filterBits;
+        private Integer filterHashes;
+        private Long checks;
+        private Long filterHits;
+        private Long rejections;
+
+        public RevocationStats(Integer revokedCustomers, Integer revokedTokens, Long filterBits, Integer filterHashes,
+                               Long checks, Long filterHits, Long rejections) {
+            this.revokedCustomers = revokedCustomers;
+            this.revokedTokens = revokedTokens;
+            this.filterBits = filterBits;
+            this.filterHashes = filterHashes;
+            this.checks = checks;
+            this.filterHits = filterHits;
+            this.rejections = rejections;
+        }
+
+        // Getters
+        public Integer getRevokedCustomers() { return revokedCustomers; }
+        public Integer getRevokedTokens() { return revokedTokens; }
+        public Long getFilterBits() { return filterBits; }
+        public Integer getFilterHashes() { return filterHashes; }
+        public Long getChecks() { return checks; }
+        public Long getFilterHits() { return filterHits; }
+        public Long getRejections() { return rejections; }
+    }
+}
@@ -0,0 +1,55 @@
+package com.johanfuertv.movietheaterbackend.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Claims of a token whose signature and expiry have already been checked.
+ * Immutable, so it can be shared between threads and cached.
+ */
+public final class VerifiedToken {
+
+    private final String subject;
+    private final UUID customerId;
+    private final String roles;
+    private final String keyId;
+    private final String tokenId;
+    private final Date issuedAt;
+    private final Date expiresAt;
+
+    VerifiedToken(Claims claims, String keyId) {
+        String cid = claims.get(JwtTokenProvider.CLAIM_CUSTOMER_ID, String.class);
+        this.subject = claims.getSubject();
+        this.customerId = cid != null ? UUID.fromString(cid) : null;
+        this.roles = claims.get(JwtTokenProvider.CLAIM_ROLES, String.class);
+        this.keyId = keyId;
+        this.tokenId = claims.getId();
+        this.issuedAt = copy(claims.getIssuedAt());
+        this.expiresAt = copy(claims.getExpiration());
+    }
+
+    public String getSubject() { return subject; }
+    public UUID getCustomerId() { return customerId; }
+    public String getRoles() { return roles; }
+    public String getKeyId() { return keyId; }
+    public String getTokenId() { return tokenId; }
+    public Date getIssuedAt() { return copy(issuedAt); }
+    public Date getExpiresAt() { return copy(expiresAt); }
+
+    /**
+     * Tokens issued before customer claims were added only carry the subject.
+     */
+    public boolean hasCustomerClaims() {
+        return customerId != null && roles != null;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAt != null && expiresAt.getTime() <= nowMillis;
+    }
+
+    private static Date copy(Date date) {
+        return date != null ? new Date(date.getTime()) : null;
+    }
+}
@@ -0,0 +1,179 @@
+package com.johanfuertv.movietheaterbackend.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of already verified access tokens.
+ *
+ * Entries are keyed by the SHA-256 of the compact token, so the token itself is never kept
+ * in memory, and live until the token's own expiry. When the cache is full, expired entries
+ * are dropped first and then the least recently used ones. Revocation is still checked by
+ * {@link JwtAuthenticationFilter} on every request, so a cached token of a disabled customer
+ * is rejected all the same.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    @Value("${jwt.token-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jwt.token-cache.max-entries:50000}")
+    private int maxEntries;
+
+    private final Map<ByteBuffer, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder hitNanos = new LongAdder();
+    private final LongAdder missNanos = new LongAdder();
+
+    public Optional<VerifiedToken> getOrVerify(String token, Function<String, Optional<VerifiedToken>> verifier) {
+        if (!enabled) {
+            return verifier.apply(token);
+        }
+
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        ByteBuffer key = hash(token);
+
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (!entry.token.isExpired(now)) {
+                entry.lastAccess = now;
+                hits.increment();
+                hitNanos.add(System.nanoTime() - start);
+                return Optional.of(entry.token);
+            }
+            entries.remove(key, entry);
+        }
+
+        Optional<VerifiedToken> verified = verifier.apply(token);
+        verified.ifPresent(t -> put(key, t, now));
+        misses.increment();
+        missNanos.add(System.nanoTime() - start);
+        return verified;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(enabled, hits.sum(), misses.sum(), evictions.sum(),
+                              entries.size(), maxEntries, hitNanos.sum(), missNanos.sum());
+    }
+
+    private void put(ByteBuffer key, VerifiedToken token, long now) {
+        // Tokens without an expiry are not cached so an entry can never outlive its token
+        if (token.getExpiresAt() == null) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        entries.put(key, new Entry(token, now));
+    }
+
+    private synchronized void evict(long now) {
+        if (entries.size() < maxEntries) {
+            return;
+        }
+
+        int before = entries.size();
+        entries.values().removeIf(e -> e.token.isExpired(now));
+
+        // Still full: drop the least recently used tenth of the entries
+        int excess = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        if (excess > 0) {
+            entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(entries::remove);
+        }
+        evictions.add(Math.max(0, before - entries.size()));
+    }
+
+    private static ByteBuffer hash(String token) {
+        MessageDigest digest = SHA_256.get();
+        return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static final class Entry {
+        private final VerifiedToken token;
+        private volatile long lastAccess;
+
+        Entry(VerifiedToken token, long lastAccess) {
+            this.token = token;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    // Stats class
+    public static class CacheStats {
+        private boolean enabled;
+        private Long hits;
+        private Long misses;
+        private Long evictions;
+        private Integer entries;
+        private Integer maxEntries;
+        private Long hitNanos;
+        private Long missNanos;
+
+        public CacheStats(boolean enabled, Long hits, Long misses, Long evictions,
+                          Integer entries, Integer maxEntries, Long hitNanos, Long missNanos) {
+            this.enabled = enabled;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.entries = entries;
+            this.maxEntries = maxEntries;
+            this.hitNanos = hitNanos;
+            this.missNanos = missNanos;
+        }
+
+        // Getters
+        public boolean isEnabled() { return enabled; }
+        public Long getHits() { return hits; }
+        public Long getMisses() { return misses; }
+        public Long getEvictions() { return evictions; }
+        public Integer getEntries() { return entries; }
+        public Integer getMaxEntries() { return maxEntries; }
+
+        public Double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        // Average time spent resolving a token, in microseconds
+        public Double getAvgHitMicros() {
+            return hits == 0 ? 0.0 : hitNanos / 1000.0 / hits;
+        }
+
+        public Double getAvgMissMicros() {
+            return misses == 0 ? 0.0 : missNanos / 1000.0 / misses;
+        }
+    }
+}
@@ -5,20 +5,31 @@ import com.johanfuertv.movietheaterbackend.dto.request.RegisterRequest;
 import com.johanfuertv.movietheaterbackend.dto.response.CustomerResponse;
 import com.johanfuertv.movietheaterbackend.dto.response.LoginResponse;
 import com.johanfuertv.movietheaterbackend.entity.Customer;
+import com.johanfuertv.movietheaterbackend.entity.RevokedAccessToken;
+import com.johanfuertv.movietheaterbackend.exception.ConflictException;
 import com.johanfuertv.movietheaterbackend.repository.CustomerRepository;
+import com.johanfuertv.movietheaterbackend.repository.RevokedAccessTokenRepository;
+import com.johanfuertv.movietheaterbackend.security.CustomUserDetailsService;
+import com.johanfuertv.movietheaterbackend.security.CustomUserDetailsService.CustomUserPrincipal;
 import com.johanfuertv.movietheaterbackend.security.JwtTokenProvider;
+import com.johanfuertv.movietheaterbackend.security.PasswordVerificationExecutor;
+import com.johanfuertv.movietheaterbackend.security.TokenRevocationList;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class AuthService {
@@ -32,18 +43,35 @@ public class AuthService {
     private PasswordEncoder passwordEncoder;
     
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private CustomUserDetailsService userDetailsService;
     
     @Autowired
     private JwtTokenProvider tokenProvider;
     
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+    
+    @Autowired
+    private PasswordVerificationExecutor passwordVerificationExecutor;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+    
+    @Autowired
+    private RevokedAccessTokenRepository revokedAccessTokenRepository;
+    
+    // Matched against when the email is unknown, so those logins cost as much as a wrong password
+    private volatile String unknownCustomerHash;
+    
+    /**
+     * Inserts the customer straight away and lets the unique index on email reject duplicates,
+     * so there is no separate existence check and no window between check and insert.
+     */
+    @Transactional
     public CustomerResponse register(RegisterRequest request) {
-        // Check if email already exists
-        if (customerRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email already exists: " + request.getEmail());
-        }
-        
-        // Create new customer
         Customer customer = new Customer();
         customer.setFirstName(request.getFirstName());
         customer.setLastName(request.getLastName());
@@ -53,39 +81,131 @@ public class AuthService {
         customer.setRoles("USER");
         customer.setActive(true);
         
-        Customer savedCustomer = customerRepository.save(customer);
+        Customer savedCustomer;
+        try {
+            // Flushed here so a duplicate surfaces now rather than at commit
+            savedCustomer = customerRepository.saveAndFlush(customer);
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateEmail(e)) {
+                throw e;
+            }
+            throw new ConflictException("Email already exists: " + request.getEmail());
+        }
         logger.info("New customer registered: {}", savedCustomer.getEmail());
         
+        emailOutboxService.enqueueWelcomeEmail(savedCustomer);
+        
         return new CustomerResponse(savedCustomer);
     }
     
+    /**
+     * Only the password check runs on the password verification executor; the customer
+     * lookup, the hash upgrade write and the tokens stay on the calling thread, which waits
+     * for the check. Throws RejectedExecutionException straight away when the executor's
+     * queue is full.
+     */
     public LoginResponse login(LoginRequest request) {
+        CustomUserPrincipal principal;
         try {
-            // Authenticate user
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-            );
-            
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            
-            // Generate JWT token
-            String token = tokenProvider.generateToken(userDetails);
-            
-            // Get customer details
-            Customer customer = customerRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            // Prepare response
-            CustomerResponse customerResponse = new CustomerResponse(customer);
-            List<String> roles = Arrays.asList(customer.getRoles().split(","));
-            
-            logger.info("User logged in successfully: {}", customer.getEmail());
-            
-            return new LoginResponse(token, tokenProvider.getJwtExpiration(), customerResponse, roles);
-            
-        } catch (Exception e) {
-            logger.error("Login failed for user: {}", request.getEmail(), e);
+            principal = (CustomUserPrincipal) userDetailsService.loadUserByUsername(request.getEmail());
+        } catch (UsernameNotFoundException e) {
+            principal = null;
+        }
+        
+        String storedHash = principal != null ? principal.getPassword() : null;
+        PasswordCheck check;
+        try {
+            check = passwordVerificationExecutor.submit(() -> checkPassword(request.getPassword(), storedHash)).join();
+        } catch (CompletionException e) {
+            logger.error("Password check failed for user: {}", request.getEmail(), e.getCause());
             throw new RuntimeException("Invalid credentials");
         }
+        if (principal == null || !check.matched) {
+            logger.warn("Login failed for user: {}", request.getEmail());
+            throw new RuntimeException("Invalid credentials");
+        }
+        
+        if (check.upgradedHash != null) {
+            userDetailsService.updatePassword(principal, check.upgradedHash);
+        }
+        
+        // The principal carries the customer row loaded by the lookup
+        Customer customer = principal.getCustomer();
+        LoginResponse response = issueTokens(principal, refreshTokenService.issue(customer));
+        logger.info("User logged in successfully: {}", customer.getEmail());
+        return response;
+    }
+    
+    /**
+     * Trades a refresh token for a new access token and a new refresh token. The customer row
+     * is read here, once per access token lifetime, instead of on every request.
+     */
+    public LoginResponse refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        return issueTokens(new CustomUserPrincipal(rotation.getCustomer()), rotation.getRefreshToken());
+    }
+    
+    /**
+     * Revokes the refresh token's family and, when given, the access token still in use.
+     */
+    public void logout(String refreshToken, String accessToken) {
+        refreshTokenService.revoke(refreshToken);
+        if (accessToken != null) {
+            tokenProvider.verify(accessToken)
+                .filter(token -> token.getTokenId() != null && token.getExpiresAt() != null)
+                .ifPresent(token -> {
+                    // Stored for the other instances, which pick it up on their next sync
+                    revokedAccessTokenRepository.save(new RevokedAccessToken(token.getTokenId(), token.getCustomerId(),
+                        LocalDateTime.ofInstant(token.getExpiresAt().toInstant(), ZoneId.systemDefault())));
+                    tokenRevocationList.revokeToken(token.getTokenId(), token.getExpiresAt().getTime());
+                });
+        }
+    }
+    
+    private LoginResponse issueTokens(CustomUserPrincipal principal, String refreshToken) {
+        Customer customer = principal.getCustomer();
+        String token = tokenProvider.generateToken(principal);
+        
+        CustomerResponse customerResponse = new CustomerResponse(customer);
+        List<String> roles = Arrays.asList(customer.getRoles().split(","));
+        
+        return new LoginResponse(token, tokenProvider.getJwtExpiration(), refreshToken,
+                                 refreshTokenService.getRefreshSeconds(), customerResponse, roles);
+    }
+    
+    // Runs on the password verification executor: the match and, for a hash stored with an
+    // older algorithm or cost, the new hash. A null storedHash stands for an unknown email.
+    private PasswordCheck checkPassword(String password, String storedHash) {
+        if (storedHash == null) {
+            if (unknownCustomerHash == null) {
+                unknownCustomerHash = passwordEncoder.encode("unknown-customer");
+            }
+            passwordEncoder.matches(password, unknownCustomerHash);
+            return PasswordCheck.FAILED;
+        }
+        if (!passwordEncoder.matches(password, storedHash)) {
+            return PasswordCheck.FAILED;
+        }
+        return new PasswordCheck(true, passwordEncoder.upgradeEncoding(storedHash) ? passwordEncoder.encode(password) : null);
+    }
+    
+    // Other violations (a value too long for its column, a broken reference) are not the
+    // client's duplicate and must not be reported as one
+    private static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+               && violation.getConstraintName() != null
+               && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Customer.EMAIL_KEY);
+    }
+    
+    private static final class PasswordCheck {
+        static final PasswordCheck FAILED = new PasswordCheck(false, null);
+        
+        private final boolean matched;
+        private final String upgradedHash;
+        
+        PasswordCheck(boolean matched, String upgradedHash) {
+            this.matched = matched;
+            this.upgradedHash = upgradedHash;
+        }
     }
-}
\ No newline at end of file
+}
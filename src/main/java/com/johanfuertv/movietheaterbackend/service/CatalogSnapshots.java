@@ -0,0 +1,122 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Ready-to-send JSON bodies for the hottest catalog views (the first listing pages per genre
+ * with the default sort, and the genre list), so serving them is a byte copy instead of a
+ * Jackson run. Each snapshot also keeps a gzip copy for clients that accept it.
+ *
+ * {@link MovieService} decides which views qualify and drops every snapshot on each catalog
+ * write; a view is encoded again by the first request that needs it afterwards.
+ */
+@Component
+public class CatalogSnapshots {
+
+    // Below this size gzip saves less than its own header and the extra response headers
+    private static final int MIN_GZIP_BYTES = 512;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${catalog.snapshots.enabled:true}")
+    private boolean enabled;
+
+    @Value("${catalog.snapshots.gzip:true}")
+    private boolean gzip;
+
+    @Value("${catalog.snapshots.max-entries:200}")
+    private int maxEntries;
+
+    private final Object lock = new Object();
+
+    private final Map<String, Snapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    // Bumped on every write so an encoding that raced with an invalidation is not kept
+    private long generation;
+
+    /**
+     * Returns the snapshot stored under {@code key}, encoding {@code body} first when there is
+     * none. Returns null when snapshots are disabled so callers fall back to the normal path.
+     */
+    public Snapshot get(String key, Supplier<Object> body) {
+        if (!enabled) {
+            return null;
+        }
+
+        long loadGeneration;
+        synchronized (lock) {
+            Snapshot cached = snapshots.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+
+        Snapshot encoded = encode(body.get());
+        synchronized (lock) {
+            if (loadGeneration == generation) {
+                snapshots.put(key, encoded);
+            }
+        }
+        return encoded;
+    }
+
+    public void invalidate() {
+        synchronized (lock) {
+            generation++;
+            snapshots.clear();
+        }
+    }
+
+    private Snapshot encode(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new Snapshot(json, gzip && json.length >= MIN_GZIP_BYTES ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not encode catalog snapshot", e);
+        }
+    }
+
+    static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream compressed = new GZIPOutputStream(out)) {
+            compressed.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static final class Snapshot {
+        private final byte[] json;
+        private final byte[] gzip;
+
+        Snapshot(byte[] json, byte[] gzip) {
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        public byte[] getJson() { return json; }
+
+        // Null when the body is too small to be worth compressing
+        public byte[] getGzip() { return gzip; }
+    }
+}
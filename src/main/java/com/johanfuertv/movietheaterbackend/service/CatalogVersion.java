@@ -0,0 +1,60 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.repository.MovieRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Catalog version shared by every instance, kept in the {@code catalog_version_seq} sequence.
+ *
+ * Reading it costs a round trip, so the last value read is reused for
+ * {@code catalog.version.refresh-millis}; a write made on another instance shows up here at
+ * most that long afterwards. Writes made on this instance are seen at once.
+ */
+@Component
+public class CatalogVersion {
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Value("${catalog.version.refresh-millis:1000}")
+    private long refreshMillis;
+
+    LongSupplier clock = System::currentTimeMillis;
+
+    private final Object lock = new Object();
+
+    private long version = -1;
+    private long readAt;
+
+    public long current() {
+        synchronized (lock) {
+            if (version >= 0 && clock.getAsLong() - readAt < refreshMillis) {
+                return version;
+            }
+        }
+
+        long read = movieRepository.findCatalogVersion();
+        synchronized (lock) {
+            // A bump that landed while the query ran may already be newer than what it read
+            version = Math.max(version, read);
+            readAt = clock.getAsLong();
+            return version;
+        }
+    }
+
+    /**
+     * Moves the version forward; call it once the write has been saved, so a response tagged
+     * with the new version never predates the data it was built from.
+     */
+    public long bump() {
+        long bumped = movieRepository.bumpCatalogVersion();
+        synchronized (lock) {
+            version = Math.max(version, bumped);
+            return bumped;
+        }
+    }
+}
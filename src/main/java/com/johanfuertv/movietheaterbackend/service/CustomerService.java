@@ -4,28 +4,55 @@ import com.johanfuertv.movietheaterbackend.dto.response.CustomerResponse;
 import com.johanfuertv.movietheaterbackend.entity.Customer;
 import com.johanfuertv.movietheaterbackend.exception.ResourceNotFoundException;
 import com.johanfuertv.movietheaterbackend.repository.CustomerRepository;
+import com.johanfuertv.movietheaterbackend.security.TokenRevocationList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Locale;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Service
 public class CustomerService {
     
     private static final Logger logger = LoggerFactory.getLogger(CustomerService.class);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
     
     @Autowired
     private CustomerRepository customerRepository;
     
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
+    // Lower means more typo tolerance and more noise; pg_trgm's own default is 0.6
+    @Value("${customer.search.similarity-threshold:0.4}")
+    private double searchThreshold;
+    
+    /**
+     * Lists active customers. With a query, matches are fuzzy over name and email (substrings
+     * and near misses such as "jonh smiht") and come back most relevant first, so the
+     * requested sort only applies to the unfiltered listing.
+     */
+    @Transactional(readOnly = true)
     public Page<CustomerResponse> getAllCustomers(String query, Pageable pageable) {
         Page<Customer> customers;
         
-        if (query != null && !query.trim().isEmpty()) {
-            customers = customerRepository.findActiveCustomersWithQuery(query.trim(), pageable);
+        String normalized = normalizeQuery(query);
+        if (!normalized.isEmpty()) {
+            customerRepository.setWordSimilarityThreshold(Double.toString(searchThreshold));
+            customers = customerRepository.searchActiveCustomers(
+                normalized, likePattern(normalized),
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
         } else {
             customers = customerRepository.findByActiveTrue(pageable);
         }
@@ -46,6 +73,9 @@ public class CustomerService {
         
         customer.setActive(false);
         customerRepository.save(customer);
+        // Access tokens stop working on this node now and on the others at their next sync
+        tokenRevocationList.revokeCustomer(customer.getId(), System.currentTimeMillis());
+        refreshTokenService.revokeAll(customer.getId());
         
         logger.info("Customer disabled: {} ({})", customer.getEmail(), customer.getFullName());
     }
@@ -53,4 +83,17 @@ public class CustomerService {
     public boolean existsByEmail(String email) {
         return customerRepository.existsByEmail(email);
     }
+    
+    // Same folding as the indexed expression: lower case, single spaces
+    static String normalizeQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(query.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+    
+    // Escapes LIKE wildcards so "%" or "_" typed by an admin match literally
+    static String likePattern(String query) {
+        return query.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends a group of messages over a single SMTP connection and reports which of them failed,
+ * so one bad recipient does not fail (or resend) the rest of the group.
+ */
+@Component
+public class EmailBatchSender {
+
+    private final JavaMailSender mailSender;
+
+    public EmailBatchSender(JavaMailSender mailSender) {
+        this.mailSender = mailSender;
+    }
+
+    /**
+     * @return the failed messages by their index in {@code messages}, with the error; empty
+     *         when everything was sent
+     */
+    public Map<Integer, String> send(List<MimeMessage> messages) {
+        Map<Integer, String> failures = new HashMap<>();
+        if (messages.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            // JavaMailSenderImpl connects once for the whole array
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty()) {
+                failAll(messages, e, failures);
+            } else {
+                Map<Object, Integer> indexes = new IdentityHashMap<>();
+                for (int i = 0; i < messages.size(); i++) {
+                    indexes.put(messages.get(i), i);
+                }
+                failedMessages.forEach((message, error) -> {
+                    Integer index = indexes.get(message);
+                    if (index != null) {
+                        failures.put(index, describe(error));
+                    }
+                });
+            }
+        } catch (MailException e) {
+            // Authentication or configuration problems affect every message
+            failAll(messages, e, failures);
+        }
+        return failures;
+    }
+
+    private static void failAll(List<MimeMessage> messages, Exception error, Map<Integer, String> failures) {
+        for (int i = 0; i < messages.size(); i++) {
+            failures.put(i, describe(error));
+        }
+    }
+
+    private static String describe(Exception error) {
+        return error.getClass().getSimpleName() + ": " + error.getMessage();
+    }
+}
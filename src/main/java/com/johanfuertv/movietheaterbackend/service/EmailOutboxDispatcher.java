@@ -0,0 +1,267 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.config.WorkerThreads;
+import com.johanfuertv.movietheaterbackend.entity.EmailOutbox;
+import com.johanfuertv.movietheaterbackend.entity.EmailOutbox.EmailType;
+import com.johanfuertv.movietheaterbackend.entity.EmailOutbox.OutboxStatus;
+import com.johanfuertv.movietheaterbackend.entity.Purchase;
+import com.johanfuertv.movietheaterbackend.repository.PurchaseRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the email outbox in the background.
+ *
+ * A single dispatcher thread claims due rows in batches, splits each batch into groups of
+ * {@code messages-per-connection} and hands the groups to a fixed pool of
+ * {@code concurrency} senders, so at most that many SMTP connections are open at once and
+ * each connection carries a whole group. The dispatcher runs on a fixed poll interval and is
+ * also woken as soon as a transaction that enqueued an email commits.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailBatchSender emailBatchSender;
+
+    @Autowired
+    private PurchaseRepository purchaseRepository;
+
+    @Autowired
+    private WorkerThreads workerThreads;
+
+    @Value("${email.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${email.outbox.poll-millis:5000}")
+    private long pollMillis;
+
+    @Value("${email.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${email.outbox.concurrency:4}")
+    private int concurrency;
+
+    @Value("${email.outbox.messages-per-connection:25}")
+    private int messagesPerConnection;
+
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder failedAttempts = new LongAdder();
+    private final LongAdder connectionCount = new LongAdder();
+    private final LongAdder totalSendMillis = new LongAdder();
+
+    private ScheduledExecutorService dispatcher;
+    private ExecutorService senders;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("Email outbox dispatcher disabled");
+            return;
+        }
+
+        dispatcher = Executors.newSingleThreadScheduledExecutor(namedDaemon("email-outbox"));
+        senders = Executors.newFixedThreadPool(concurrency, workerThreads.factory("email-sender"));
+        dispatcher.scheduleWithFixedDelay(this::drain, 0, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+            senders.shutdownNow();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmailEnqueued(EmailOutboxService.EmailEnqueuedEvent event) {
+        // Coalesces wake-ups: one pending drain picks up everything enqueued before it runs
+        if (dispatcher != null && drainRequested.compareAndSet(false, true)) {
+            dispatcher.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        drainRequested.set(false);
+        try {
+            List<EmailOutbox> batch;
+            do {
+                batch = emailOutboxService.claimBatch(batchSize);
+                if (!batch.isEmpty()) {
+                    dispatch(batch);
+                }
+            } while (batch.size() == batchSize && !Thread.currentThread().isInterrupted());
+        } catch (Exception e) {
+            logger.error("Email outbox drain failed", e);
+        }
+    }
+
+    private void dispatch(List<EmailOutbox> batch) throws InterruptedException {
+        Map<UUID, Purchase> purchases = loadPurchases(batch);
+        Map<UUID, String> failures = new ConcurrentHashMap<>();
+        List<UUID> sent = new ArrayList<>();
+
+        List<Future<List<UUID>>> groups = new ArrayList<>();
+        for (int from = 0; from < batch.size(); from += messagesPerConnection) {
+            List<EmailOutbox> group = batch.subList(from, Math.min(from + messagesPerConnection, batch.size()));
+            groups.add(senders.submit(() -> sendGroup(group, purchases, failures)));
+        }
+        for (Future<List<UUID>> group : groups) {
+            try {
+                sent.addAll(group.get());
+            } catch (ExecutionException e) {
+                logger.error("Email sender failed", e.getCause());
+            }
+        }
+
+        // Rows of a crashed group are neither sent nor failed; their lease makes them due again
+        emailOutboxService.complete(sent, failures);
+        sentCount.add(sent.size());
+        failedAttempts.add(failures.size());
+        logger.info("Email outbox batch: {} sent, {} failed", sent.size(), failures.size());
+    }
+
+    private List<UUID> sendGroup(List<EmailOutbox> group, Map<UUID, Purchase> purchases, Map<UUID, String> failures) {
+        List<EmailOutbox> rendered = new ArrayList<>(group.size());
+        List<MimeMessage> messages = new ArrayList<>(group.size());
+        for (EmailOutbox email : group) {
+            try {
+                messages.add(render(email, purchases));
+                rendered.add(email);
+            } catch (Exception e) {
+                failures.put(email.getId(), e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+
+        Map<Integer, String> sendFailures = Map.of();
+        if (!messages.isEmpty()) {
+            long start = System.nanoTime();
+            sendFailures = emailBatchSender.send(messages);
+            totalSendMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            connectionCount.increment();
+        }
+
+        List<UUID> sent = new ArrayList<>(rendered.size());
+        for (int i = 0; i < rendered.size(); i++) {
+            String error = sendFailures.get(i);
+            if (error == null) {
+                sent.add(rendered.get(i).getId());
+            } else {
+                failures.put(rendered.get(i).getId(), error);
+            }
+        }
+        return sent;
+    }
+
+    private MimeMessage render(EmailOutbox email, Map<UUID, Purchase> purchases) throws Exception {
+        if (email.getType() == EmailType.WELCOME) {
+            return emailService.buildWelcomeEmail(email.getRecipient(), email.getRecipientName());
+        }
+
+        Purchase purchase = purchases.get(email.getPurchaseId());
+        if (purchase == null) {
+            throw new IllegalStateException("Purchase not found: " + email.getPurchaseId());
+        }
+        return emailService.buildPurchaseConfirmation(purchase);
+    }
+
+    private Map<UUID, Purchase> loadPurchases(List<EmailOutbox> batch) {
+        List<UUID> purchaseIds = batch.stream()
+            .filter(email -> email.getType() == EmailType.PURCHASE_CONFIRMATION)
+            .map(EmailOutbox::getPurchaseId)
+            .distinct()
+            .collect(Collectors.toList());
+        if (purchaseIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        // One query for the whole batch, with everything the template reads already joined
+        return purchaseRepository.findAllWithCustomerAndMovieByIdIn(purchaseIds).stream()
+            .collect(Collectors.toMap(Purchase::getId, Function.identity()));
+    }
+
+    private static ThreadFactory namedDaemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public OutboxStats getStats() {
+        long connections = connectionCount.sum();
+        return new OutboxStats(
+            emailOutboxService.countByStatus(OutboxStatus.PENDING) + emailOutboxService.countByStatus(OutboxStatus.SENDING),
+            emailOutboxService.countByStatus(OutboxStatus.FAILED),
+            sentCount.sum(),
+            failedAttempts.sum(),
+            connections,
+            connections == 0 ? 0.0 : (double) totalSendMillis.sum() / connections
+        );
+    }
+
+    // Stats class
+    public static class OutboxStats {
+        private Long pending;
+        private Long failed;
+        private Long sent;
+        private Long failedAttempts;
+        private Long connections;
+        private Double avgMillisPerConnection;
+
+        public OutboxStats(Long pending, Long failed, Long sent, Long failedAttempts,
+                           Long connections, Double avgMillisPerConnection) {
+            this.pending = pending;
+            this.failed = failed;
+            this.sent = sent;
+            this.failedAttempts = failedAttempts;
+            this.connections = connections;
+            this.avgMillisPerConnection = avgMillisPerConnection;
+        }
+
+        // Getters
+        public Long getPending() { return pending; }
+        public Long getFailed() { return failed; }
+        public Long getSent() { return sent; }
+        public Long getFailedAttempts() { return failedAttempts; }
+        public Long getConnections() { return connections; }
+        public Double getAvgMillisPerConnection() { return avgMillisPerConnection; }
+    }
+}
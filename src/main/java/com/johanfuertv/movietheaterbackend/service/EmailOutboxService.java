@@ -0,0 +1,134 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.entity.Customer;
+import com.johanfuertv.movietheaterbackend.entity.EmailOutbox;
+import com.johanfuertv.movietheaterbackend.entity.EmailOutbox.EmailType;
+import com.johanfuertv.movietheaterbackend.entity.EmailOutbox.OutboxStatus;
+import com.johanfuertv.movietheaterbackend.entity.Purchase;
+import com.johanfuertv.movietheaterbackend.repository.EmailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes emails to the outbox inside the caller's transaction and keeps the delivery state
+ * of outbox rows. The actual sending happens in {@link EmailOutboxDispatcher}.
+ */
+@Service
+public class EmailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${email.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.retry-base-seconds:30}")
+    private long retryBaseSeconds;
+
+    @Value("${email.outbox.retry-max-seconds:3600}")
+    private long retryMaxSeconds;
+
+    @Value("${email.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Transactional
+    public void enqueuePurchaseConfirmation(Purchase purchase) {
+        Customer customer = purchase.getCustomer();
+        enqueue(new EmailOutbox(EmailType.PURCHASE_CONFIRMATION, customer.getEmail(), customer.getFullName(), purchase.getId()));
+    }
+
+    @Transactional
+    public void enqueueWelcomeEmail(Customer customer) {
+        enqueue(new EmailOutbox(EmailType.WELCOME, customer.getEmail(), customer.getFirstName(), null));
+    }
+
+    private void enqueue(EmailOutbox email) {
+        emailOutboxRepository.save(email);
+        // Delivered to the dispatcher only once the surrounding transaction commits
+        eventPublisher.publishEvent(new EmailEnqueuedEvent(email.getType()));
+    }
+
+    /**
+     * Locks up to {@code limit} due rows and leases them to the caller. A row whose lease runs
+     * out before it is completed (for example because the instance died) becomes due again,
+     * unless that was its last attempt, in which case it is marked FAILED.
+     */
+    @Transactional
+    public List<EmailOutbox> claimBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        int abandoned = emailOutboxRepository.failExpiredLeases(now, maxAttempts, OutboxStatus.SENDING,
+                                                                OutboxStatus.FAILED, "Lease expired on the last attempt");
+        if (abandoned > 0) {
+            logger.error("Gave up on {} email(s) whose last attempt never completed", abandoned);
+        }
+        List<UUID> ids = emailOutboxRepository.lockDueIds(now, maxAttempts, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        emailOutboxRepository.claim(ids, OutboxStatus.SENDING, now.plusSeconds(leaseSeconds));
+        return emailOutboxRepository.findAllById(ids);
+    }
+
+    @Transactional
+    public void complete(Collection<UUID> sentIds, Map<UUID, String> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!sentIds.isEmpty()) {
+            emailOutboxRepository.markSent(List.copyOf(sentIds), OutboxStatus.SENT, now);
+        }
+
+        for (EmailOutbox email : emailOutboxRepository.findAllById(failures.keySet())) {
+            email.setLastError(truncate(failures.get(email.getId())));
+            if (email.getAttempts() >= maxAttempts) {
+                email.setStatus(OutboxStatus.FAILED);
+                logger.error("Giving up on {} email to {} after {} attempts", email.getType(), email.getRecipient(), email.getAttempts());
+            } else {
+                email.setStatus(OutboxStatus.PENDING);
+                email.setNextAttemptAt(now.plusSeconds(backoffSeconds(email.getAttempts())));
+            }
+        }
+    }
+
+    public long countByStatus(OutboxStatus status) {
+        return emailOutboxRepository.countByStatus(status);
+    }
+
+    private long backoffSeconds(int attempts) {
+        // Exponential with up to 20% jitter so a burst of failures does not retry in lockstep
+        long delay = Math.min(retryMaxSeconds, retryBaseSeconds << Math.min(attempts - 1, 20));
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= 1000) {
+            return error;
+        }
+        return error.substring(0, 1000);
+    }
+
+    public static class EmailEnqueuedEvent {
+        private final EmailType type;
+
+        public EmailEnqueuedEvent(EmailType type) {
+            this.type = type;
+        }
+
+        public EmailType getType() { return type; }
+    }
+}
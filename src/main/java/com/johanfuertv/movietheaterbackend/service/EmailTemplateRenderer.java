@@ -0,0 +1,209 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.entity.Movie;
+import com.johanfuertv.movietheaterbackend.entity.Purchase;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.unbescape.html.HtmlEscape;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders email bodies without running Thymeleaf per email.
+ *
+ * A template is processed once with its shared variables filled in (for the purchase
+ * confirmation, everything about the movie) and marker strings in place of the
+ * per-recipient ones. The output is split at the markers into static segments, and each
+ * email is then just the segments concatenated with the escaped per-recipient values in a
+ * per-thread buffer. Compiled purchase templates are kept per movie and keyed by the movie
+ * fields they contain, so an edited movie simply compiles a new entry.
+ *
+ * Per-recipient variables must be written out as-is by the template (th:text, th:attr or
+ * inlined), not formatted or transformed, since the template only ever sees the marker.
+ */
+@Component
+public class EmailTemplateRenderer {
+
+    static final String PURCHASE_TEMPLATE = "purchase-confirmation";
+    static final String WELCOME_TEMPLATE = "welcome";
+    static final String MOVIE_NOTICE_TEMPLATE = "movie-notice";
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final Pattern SLOT = Pattern.compile("@@slot:(\\d+)@@");
+
+    // Order of the values passed to CompiledTemplate.render
+    private static final String[] PURCHASE_FIELDS = {
+        "customerName", "quantity", "totalAmount", "status", "purchaseId", "purchaseDate"
+    };
+    private static final String[] WELCOME_FIELDS = {"customerName"};
+    private static final String[] NOTICE_FIELDS = {"customerName"};
+
+    private final TemplateEngine templateEngine;
+    private final int maxMovies;
+    private final Map<List<Object>, CompiledTemplate> purchaseTemplates;
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(8192));
+    private volatile CompiledTemplate welcomeTemplate;
+
+    public EmailTemplateRenderer(TemplateEngine templateEngine,
+                                 @Value("${email.template-cache.max-movies:256}") int maxMovies) {
+        this.templateEngine = templateEngine;
+        this.maxMovies = maxMovies;
+        this.purchaseTemplates = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, CompiledTemplate> eldest) {
+                return size() > EmailTemplateRenderer.this.maxMovies;
+            }
+        };
+    }
+
+    /**
+     * Renders the purchase confirmation. The purchase must have its customer and movie loaded.
+     */
+    public String renderPurchaseConfirmation(Purchase purchase) {
+        return purchaseTemplate(purchase.getMovie()).render(buffers.get(), purchaseValues(purchase));
+    }
+
+    public String renderWelcome(String customerName) {
+        CompiledTemplate template = welcomeTemplate;
+        if (template == null) {
+            // Racing threads compile the same result, so no locking is needed
+            template = compile(WELCOME_TEMPLATE, new Context(), WELCOME_FIELDS);
+            welcomeTemplate = template;
+        }
+        return template.render(buffers.get(), new String[] {customerName});
+    }
+
+    /**
+     * Compiles a one-off notice to the purchasers of a movie; only the customer name varies.
+     */
+    CompiledTemplate compileMovieNotice(Movie movie, String subject, String message) {
+        Context context = new Context();
+        context.setVariable("movieTitle", movie.getTitle());
+        context.setVariable("subject", subject);
+        context.setVariable("message", message);
+        return compile(MOVIE_NOTICE_TEMPLATE, context, NOTICE_FIELDS);
+    }
+
+    String renderMovieNotice(CompiledTemplate template, String customerName) {
+        return template.render(buffers.get(), new String[] {customerName});
+    }
+
+    public int getCachedMovieTemplates() {
+        synchronized (purchaseTemplates) {
+            return purchaseTemplates.size();
+        }
+    }
+
+    private CompiledTemplate purchaseTemplate(Movie movie) {
+        Map<String, Object> movieVariables = movieVariables(movie);
+        List<Object> key = Arrays.asList(movie.getId(), movieVariables.get("movieTitle"),
+                                         movieVariables.get("movieGenre"), movieVariables.get("movieDuration"));
+
+        CompiledTemplate template;
+        synchronized (purchaseTemplates) {
+            template = purchaseTemplates.get(key);
+        }
+        if (template == null) {
+            // Compiled outside the lock; a concurrent compile of the same movie is harmless
+            Context context = new Context();
+            context.setVariables(movieVariables);
+            template = compile(PURCHASE_TEMPLATE, context, PURCHASE_FIELDS);
+            synchronized (purchaseTemplates) {
+                purchaseTemplates.put(key, template);
+            }
+        }
+        return template;
+    }
+
+    private CompiledTemplate compile(String templateName, Context context, String[] fields) {
+        for (int i = 0; i < fields.length; i++) {
+            context.setVariable(fields[i], "@@slot:" + i + "@@");
+        }
+        String html = templateEngine.process(templateName, context);
+
+        List<String> segments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        Matcher matcher = SLOT.matcher(html);
+        int last = 0;
+        while (matcher.find()) {
+            segments.add(html.substring(last, matcher.start()));
+            slots.add(Integer.parseInt(matcher.group(1)));
+            last = matcher.end();
+        }
+        segments.add(html.substring(last));
+
+        return new CompiledTemplate(segments.toArray(new String[0]),
+                                    slots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Variables of the purchase confirmation shared by every purchase of the same movie.
+     */
+    static Map<String, Object> movieVariables(Movie movie) {
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("movieTitle", movie.getTitle());
+        variables.put("movieGenre", movie.getGenre());
+        variables.put("movieDuration", movie.getDurationFormatted());
+        return variables;
+    }
+
+    /**
+     * Per-purchase values in {@link #PURCHASE_FIELDS} order, already formatted for display.
+     */
+    static String[] purchaseValues(Purchase purchase) {
+        return new String[] {
+            purchase.getCustomer().getFullName(),
+            String.valueOf(purchase.getQuantity()),
+            purchase.getTotalAmount().toPlainString(),
+            purchase.getStatus().name(),
+            purchase.getId().toString(),
+            purchase.getCreatedAt() != null ? purchase.getCreatedAt().format(DATE_FORMAT) : ""
+        };
+    }
+
+    /**
+     * Builds the full Thymeleaf context for a purchase, as the template would be processed
+     * without this renderer.
+     */
+    static Context purchaseContext(Purchase purchase) {
+        Context context = new Context();
+        context.setVariables(movieVariables(purchase.getMovie()));
+        String[] values = purchaseValues(purchase);
+        for (int i = 0; i < PURCHASE_FIELDS.length; i++) {
+            context.setVariable(PURCHASE_FIELDS[i], values[i]);
+        }
+        return context;
+    }
+
+    static final class CompiledTemplate {
+        private final String[] segments;
+        private final int[] slots;
+
+        CompiledTemplate(String[] segments, int[] slots) {
+            this.segments = segments;
+            this.slots = slots;
+        }
+
+        String render(StringBuilder buffer, String[] values) {
+            buffer.setLength(0);
+            for (int i = 0; i < slots.length; i++) {
+                buffer.append(segments[i]);
+                String value = values[slots[i]];
+                if (value != null) {
+                    buffer.append(HtmlEscape.escapeHtml4Xml(value));
+                }
+            }
+            buffer.append(segments[slots.length]);
+            return buffer.toString();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.entity.Purchase;
+import com.johanfuertv.movietheaterbackend.repository.PurchaseRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Expires unpaid seat holds without one scheduled task per hold and without scanning the
+ * purchases table.
+ *
+ * Request threads only append (purchase id, deadline) to a lock-free queue. A single ticker
+ * thread moves them into a {@link TimingWheel}, advances the wheel once per tick and hands
+ * everything that came due to {@link HoldExpiryService} in batches. Pending holds are read
+ * once at startup so holds created before a restart still expire.
+ *
+ * A hold only sits in the wheel of the instance that created it, or that started after it.
+ * If that instance stops before the deadline and nothing restarts, the wheel path never sees
+ * the hold again, so every {@code sweep-seconds} the same thread also sweeps the purchases
+ * table for CREATED holds past their deadline. Any instance can run the sweep; holds the wheel
+ * already expired are no longer CREATED and are not found again.
+ */
+@Component
+public class HoldExpiryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(HoldExpiryScheduler.class);
+
+    @Autowired
+    private HoldExpiryService holdExpiryService;
+
+    @Autowired
+    private PurchaseRepository purchaseRepository;
+
+    @Value("${purchase.hold.tick-millis:1000}")
+    private long tickMillis;
+
+    @Value("${purchase.hold.batch-size:500}")
+    private int batchSize;
+
+    @Value("${purchase.hold.retry-delay-seconds:5}")
+    private long retryDelaySeconds;
+
+    @Value("${purchase.hold.sweep-seconds:60}")
+    private long sweepSeconds;
+
+    private final ConcurrentLinkedQueue<Scheduled> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger incomingSize = new AtomicInteger();
+
+    private final LongAdder scheduledCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+    private final LongAdder sweptCount = new LongAdder();
+    private final LongAdder processedCount = new LongAdder();
+    private final LongAdder totalLatencyMillis = new LongAdder();
+    private volatile long maxLatencyMillis;
+    private volatile long lastLatencyMillis;
+    private volatile int wheelSize;
+
+    private TimingWheel<UUID> wheel;
+    private ScheduledExecutorService ticker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        wheel = new TimingWheel<>(tickMillis, 4, System.currentTimeMillis());
+
+        List<PurchaseRepository.PendingHold> pending = purchaseRepository.findPendingHolds(Purchase.PurchaseStatus.CREATED);
+        pending.forEach(hold -> schedule(hold.getId(), hold.getHoldExpiresAt()));
+        logger.info("Hold expiry scheduler started with {} pending hold(s)", pending.size());
+
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        if (sweepSeconds > 0) {
+            ticker.scheduleWithFixedDelay(this::sweep, sweepSeconds, sweepSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    public void schedule(UUID purchaseId, LocalDateTime expiresAt) {
+        schedule(purchaseId, expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private void schedule(UUID purchaseId, long deadlineMillis) {
+        incoming.add(new Scheduled(purchaseId, deadlineMillis));
+        incomingSize.incrementAndGet();
+        scheduledCount.increment();
+    }
+
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            List<TimingWheel.Entry<UUID>> due = new ArrayList<>();
+
+            Scheduled scheduled;
+            while ((scheduled = incoming.poll()) != null) {
+                incomingSize.decrementAndGet();
+                wheel.add(scheduled.purchaseId, scheduled.deadlineMillis, due::add);
+            }
+            wheel.advanceTo(now, due::add);
+            wheelSize = wheel.size();
+
+            for (int from = 0; from < due.size(); from += batchSize) {
+                expireBatch(due.subList(from, Math.min(from + batchSize, due.size())));
+            }
+        } catch (Exception e) {
+            logger.error("Hold expiry tick failed", e);
+        }
+    }
+
+    private void expireBatch(List<TimingWheel.Entry<UUID>> batch) {
+        List<UUID> ids = new ArrayList<>(batch.size());
+        batch.forEach(entry -> ids.add(entry.getItem()));
+
+        try {
+            long now = System.currentTimeMillis();
+            LocalDateTime cutoff = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault());
+            expiredCount.add(holdExpiryService.expireHolds(ids, cutoff));
+            recordLatency(batch, System.currentTimeMillis());
+        } catch (Exception e) {
+            logger.error("Could not expire {} hold(s), retrying in {}s", ids.size(), retryDelaySeconds, e);
+            long retryAt = System.currentTimeMillis() + retryDelaySeconds * 1000;
+            ids.forEach(id -> schedule(id, retryAt));
+        }
+    }
+
+    private void sweep() {
+        try {
+            int swept;
+            do {
+                LocalDateTime now = LocalDateTime.now();
+                swept = holdExpiryService.sweepExpiredHolds(now, batchSize);
+                expiredCount.add(swept);
+                sweptCount.add(swept);
+            } while (swept == batchSize);
+        } catch (Exception e) {
+            logger.error("Hold expiry sweep failed", e);
+        }
+    }
+
+    private void recordLatency(List<TimingWheel.Entry<UUID>> batch, long completedAt) {
+        long max = maxLatencyMillis;
+        long last = 0;
+        for (TimingWheel.Entry<UUID> entry : batch) {
+            last = Math.max(0, completedAt - entry.getDeadlineMillis());
+            totalLatencyMillis.add(last);
+            max = Math.max(max, last);
+        }
+        processedCount.add(batch.size());
+        maxLatencyMillis = max;
+        lastLatencyMillis = last;
+    }
+
+    public HoldStats getStats() {
+        long processed = processedCount.sum();
+        return new HoldStats(
+            wheelSize + incomingSize.get(),
+            scheduledCount.sum(),
+            expiredCount.sum(),
+            sweptCount.sum(),
+            processed == 0 ? 0.0 : (double) totalLatencyMillis.sum() / processed,
+            maxLatencyMillis,
+            lastLatencyMillis
+        );
+    }
+
+    private static final class Scheduled {
+        private final UUID purchaseId;
+        private final long deadlineMillis;
+
+        Scheduled(UUID purchaseId, long deadlineMillis) {
+            this.purchaseId = purchaseId;
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+
+    // Stats class
+    public static class HoldStats {
+        private Integer backlog;
+        private Long scheduled;
+        private Long expired;
+        private Long swept;
+        private Double avgExpiryLatencyMillis;
+        private Long maxExpiryLatencyMillis;
+        private Long lastExpiryLatencyMillis;
+
+        public HoldStats(Integer backlog, Long scheduled, Long expired, Long swept, Double avgExpiryLatencyMillis,
+                         Long maxExpiryLatencyMillis, Long lastExpiryLatencyMillis) {
+            this.backlog = backlog;
+            this.scheduled = scheduled;
+            this.expired = expired;
+            this.swept = swept;
+            this.avgExpiryLatencyMillis = avgExpiryLatencyMillis;
+            this.maxExpiryLatencyMillis = maxExpiryLatencyMillis;
+            this.lastExpiryLatencyMillis = lastExpiryLatencyMillis;
+        }
+
+        // Getters
+        public Integer getBacklog() { return backlog; }
+        public Long getScheduled() { return scheduled; }
+        public Long getExpired() { return expired; }
+        public Long getSwept() { return swept; }
+        public Double getAvgExpiryLatencyMillis() { return avgExpiryLatencyMillis; }
+        public Long getMaxExpiryLatencyMillis() { return maxExpiryLatencyMillis; }
+        public Long getLastExpiryLatencyMillis() { return lastExpiryLatencyMillis; }
+    }
+}
@@ -0,0 +1,88 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.entity.Purchase;
+import com.johanfuertv.movietheaterbackend.entity.PurchaseSeat;
+import com.johanfuertv.movietheaterbackend.repository.PurchaseRepository;
+import com.johanfuertv.movietheaterbackend.repository.PurchaseSeatRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Cancels a batch of expired seat holds in one transaction: a single conditional UPDATE
+ * moves the still unpaid ones to CANCELLED, their seat rows are deleted and, once the
+ * transaction commits, the seats are released in the in-memory inventory.
+ *
+ * {@link #sweepExpiredHolds} finds the batch in the purchases table instead, for holds whose
+ * deadline no running instance is tracking.
+ */
+@Service
+public class HoldExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HoldExpiryService.class);
+
+    @Autowired
+    private PurchaseRepository purchaseRepository;
+
+    @Autowired
+    private PurchaseSeatRepository purchaseSeatRepository;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Transactional
+    public int expireHolds(List<UUID> purchaseIds, LocalDateTime now) {
+        // Holds paid in the meantime no longer match the status condition and are left alone
+        int cancelled = purchaseRepository.cancelExpiredHolds(
+            purchaseIds, Purchase.PurchaseStatus.CREATED, Purchase.PurchaseStatus.CANCELLED, now);
+        if (cancelled == 0) {
+            return 0;
+        }
+
+        List<PurchaseSeat> seats = purchaseSeatRepository.findByPurchaseIdsAndStatus(
+            purchaseIds, Purchase.PurchaseStatus.CANCELLED);
+        if (!seats.isEmpty()) {
+            purchaseSeatRepository.deleteByIds(seats.stream().map(PurchaseSeat::getId).collect(Collectors.toList()));
+            releaseAfterCommit(seats);
+        }
+
+        logger.info("Expired {} seat hold(s), released {} seat(s)", cancelled, seats.size());
+        return cancelled;
+    }
+
+    /**
+     * Cancels up to {@code limit} holds past their deadline, oldest first. The rows stay locked
+     * until the transaction ends, so instances sweeping at the same time skip each other's batch.
+     */
+    @Transactional
+    public int sweepExpiredHolds(LocalDateTime now, int limit) {
+        List<UUID> ids = purchaseRepository.lockExpiredHoldIds(
+            Purchase.PurchaseStatus.CREATED, now, PageRequest.of(0, limit));
+        return ids.isEmpty() ? 0 : expireHolds(ids, now);
+    }
+
+    private void releaseAfterCommit(List<PurchaseSeat> seats) {
+        Map<UUID, int[]> seatsByShowtime = seats.stream()
+            .collect(Collectors.groupingBy(PurchaseSeat::getShowtimeId,
+                     Collectors.collectingAndThen(Collectors.toList(),
+                         list -> list.stream().mapToInt(PurchaseSeat::getSeatNumber).toArray())));
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                seatsByShowtime.forEach(seatInventory::release);
+            }
+        });
+    }
+}
@@ -10,9 +10,16 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.UUID;
 
+/**
+ * Stores uploads under {@code storage.upload-dir}.
+ *
+ * Uploads are handed over with {@link MultipartFile#transferTo(java.io.File)}: the servlet
+ * container renames the part it spooled to disk into place when the multipart location is on
+ * the same file system, and otherwise copies it file to file. The bytes never pass through
+ * the heap, so memory per upload stays constant whatever the file size.
+ */
 @Service
 public class LocalStorageService implements StorageService {
     
@@ -24,16 +31,17 @@ public class LocalStorageService implements StorageService {
     @Override
     public String store(MultipartFile file, String folder) {
         try {
-            // Create directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir, folder);
+            // Create directory if it doesn't exist; absolute, since the container resolves
+            // relative paths against its own multipart location
+            Path uploadPath = Paths.get(uploadDir, folder).toAbsolutePath();
             Files.createDirectories(uploadPath);
             
             // Generate unique filename
             String fileName = generateFileName(file.getOriginalFilename());
             Path filePath = uploadPath.resolve(fileName);
             
-            // Copy file to target location
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            // Move file to target location
+            transfer(file, filePath);
             
             String publicUrl = getPublicUrl(folder + "/" + fileName);
             logger.info("File uploaded locally: {}", publicUrl);
@@ -45,6 +53,21 @@ public class LocalStorageService implements StorageService {
         }
     }
     
+    /**
+     * Moves the upload into {@code target} through a partial file created by this call, so a
+     * failed transfer only ever removes its own partial file and never replaces an existing one.
+     */
+    static void transfer(MultipartFile file, Path target) throws IOException {
+        Path partial = Files.createTempFile(target.getParent(), ".upload-", ".part");
+        try {
+            file.transferTo(partial.toFile());
+            Files.move(partial, target);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+    }
+    
     @Override
     public void delete(String fileUrl) {
         try {
@@ -0,0 +1,353 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.dto.response.MovieResponse;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache for the public movie catalog.
+ *
+ * Active movies are cached by id, listing pages by their query/genre/page key and the
+ * genre list as a single entry. Page keys are indexed by genre so a write only drops the
+ * pages that can contain the changed movie. All writes go through {@link MovieService},
+ * which evicts or refreshes entries synchronously after each save.
+ *
+ * Writes made on other instances never reach this cache, so every entry is also reloaded
+ * once it is older than {@code catalog.cache.max-age-seconds}; that bounds how long a node
+ * can serve a catalog another node has already changed.
+ */
+@Component
+public class MovieCatalogCache {
+
+    @Value("${catalog.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${catalog.cache.max-movies:1000}")
+    private int maxMovies;
+
+    @Value("${catalog.cache.max-pages:500}")
+    private int maxPages;
+
+    @Value("${catalog.cache.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    LongSupplier clock = System::currentTimeMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final Object lock = new Object();
+
+    private Map<UUID, Entry<MovieResponse>> movies;
+    private Map<PageKey, Entry<Page<MovieResponse>>> pages;
+
+    // genre (lower case, null for unfiltered listings) -> page keys holding that genre filter
+    private final Map<String, Set<PageKey>> pagesByGenre = new HashMap<>();
+
+    private Entry<List<String>> genres;
+
+    // Bumped on every write so a load that raced with an invalidation is not cached
+    private long generation;
+
+    @PostConstruct
+    void init() {
+        movies = new BoundedMap<>(maxMovies);
+        pages = new BoundedMap<>(maxPages);
+    }
+
+    public MovieResponse getMovie(UUID id, Supplier<MovieResponse> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        synchronized (lock) {
+            Entry<MovieResponse> cached = movies.get(id);
+            if (isFresh(cached)) {
+                hits.increment();
+                return cached.value;
+            }
+        }
+
+        misses.increment();
+        long loadGeneration = currentGeneration();
+        long loadedAt = clock.getAsLong();
+        MovieResponse loaded = loader.get();
+        synchronized (lock) {
+            if (loadGeneration == generation) {
+                putMovieLocked(loaded, loadedAt);
+            }
+        }
+        return loaded;
+    }
+
+    public Page<MovieResponse> getPage(String query, String genre, Pageable pageable,
+                                       Supplier<Page<MovieResponse>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        PageKey key = new PageKey(normalize(query), normalize(genre), pageable);
+        synchronized (lock) {
+            Entry<Page<MovieResponse>> cached = pages.get(key);
+            if (isFresh(cached)) {
+                hits.increment();
+                return cached.value;
+            }
+        }
+
+        misses.increment();
+        long loadGeneration = currentGeneration();
+        long loadedAt = clock.getAsLong();
+        Page<MovieResponse> loaded = loader.get();
+        synchronized (lock) {
+            if (loadGeneration != generation) {
+                return loaded;
+            }
+            pages.put(key, new Entry<>(loaded, loadedAt));
+            pagesByGenre.computeIfAbsent(key.indexGenre, g -> new HashSet<>()).add(key);
+            loaded.forEach(movie -> putMovieLocked(movie, loadedAt));
+        }
+        return loaded;
+    }
+
+    public List<String> getGenres(Supplier<List<String>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        synchronized (lock) {
+            if (isFresh(genres)) {
+                hits.increment();
+                return genres.value;
+            }
+        }
+
+        misses.increment();
+        long loadGeneration = currentGeneration();
+        long loadedAt = clock.getAsLong();
+        List<String> loaded = List.copyOf(loader.get());
+        synchronized (lock) {
+            if (loadGeneration == generation) {
+                genres = new Entry<>(loaded, loadedAt);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Refreshes the cache after a movie was created, updated or had its poster replaced.
+     * The previous genre is needed when an update moves the movie to another genre.
+     */
+    public void movieChanged(MovieResponse movie, String previousGenre) {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (lock) {
+            generation++;
+            if (Boolean.TRUE.equals(movie.getActive())) {
+                putMovieLocked(movie, clock.getAsLong());
+            } else {
+                movies.remove(movie.getId());
+            }
+
+            evictPagesForGenre(movie.getGenre());
+            if (previousGenre != null && !previousGenre.equalsIgnoreCase(movie.getGenre())) {
+                evictPagesForGenre(previousGenre);
+            }
+            genres = null;
+        }
+    }
+
+    public void movieRemoved(UUID id, String genre) {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (lock) {
+            generation++;
+            movies.remove(id);
+            evictPagesForGenre(genre);
+            genres = null;
+        }
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            generation++;
+            movies.clear();
+            pages.clear();
+            pagesByGenre.clear();
+            genres = null;
+        }
+    }
+
+    public CacheStats getStats() {
+        synchronized (lock) {
+            return new CacheStats(enabled, hits.sum(), misses.sum(), evictions.sum(),
+                                  movies.size(), maxMovies, pages.size(), maxPages);
+        }
+    }
+
+    private long currentGeneration() {
+        synchronized (lock) {
+            return generation;
+        }
+    }
+
+    private void putMovieLocked(MovieResponse movie, long loadedAt) {
+        if (movie != null && movie.getId() != null && Boolean.TRUE.equals(movie.getActive())) {
+            movies.put(movie.getId(), new Entry<>(movie, loadedAt));
+        }
+    }
+
+    // Expired entries are left in place; the reload that follows overwrites them
+    private boolean isFresh(Entry<?> entry) {
+        return entry != null && clock.getAsLong() - entry.loadedAt < maxAgeSeconds * 1000;
+    }
+
+    private void evictPagesForGenre(String genre) {
+        // Unfiltered and text-search listings may contain a movie of any genre
+        removePages(pagesByGenre.remove(null));
+        removePages(pagesByGenre.remove(normalize(genre)));
+    }
+
+    private void removePages(Set<PageKey> keys) {
+        if (keys != null) {
+            keys.forEach(pages::remove);
+        }
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private final class BoundedMap<K, V> extends LinkedHashMap<K, V> {
+        private final int maxSize;
+
+        BoundedMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            if (size() > maxSize) {
+                evictions.increment();
+                if (eldest.getKey() instanceof PageKey pageKey) {
+                    Set<PageKey> keys = pagesByGenre.get(pageKey.indexGenre);
+                    if (keys != null) {
+                        keys.remove(pageKey);
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private static final class PageKey {
+        private final String query;
+        private final String genre;
+        private final String indexGenre;
+        private final int page;
+        private final int size;
+        private final String sort;
+
+        PageKey(String query, String genre, Pageable pageable) {
+            this.query = query;
+            this.genre = genre;
+            // A text search can match movies of any genre, so it is indexed with the unfiltered pages
+            this.indexGenre = query == null ? genre : null;
+            this.page = pageable.getPageNumber();
+            this.size = pageable.getPageSize();
+            this.sort = pageable.getSort().toString();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PageKey)) return false;
+            PageKey other = (PageKey) o;
+            return page == other.page && size == other.size
+                && Objects.equals(query, other.query)
+                && Objects.equals(genre, other.genre)
+                && Objects.equals(sort, other.sort);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, genre, page, size, sort);
+        }
+    }
+
+    // Stats class
+    public static class CacheStats {
+        private boolean enabled;
+        private Long hits;
+        private Long misses;
+        private Long evictions;
+        private Integer movieEntries;
+        private Integer maxMovieEntries;
+        private Integer pageEntries;
+        private Integer maxPageEntries;
+
+        public CacheStats(boolean enabled, Long hits, Long misses, Long evictions,
+                          Integer movieEntries, Integer maxMovieEntries,
+                          Integer pageEntries, Integer maxPageEntries) {
+            this.enabled = enabled;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.movieEntries = movieEntries;
+            this.maxMovieEntries = maxMovieEntries;
+            this.pageEntries = pageEntries;
+            this.maxPageEntries = maxPageEntries;
+        }
+
+        // Getters
+        public boolean isEnabled() { return enabled; }
+        public Long getHits() { return hits; }
+        public Long getMisses() { return misses; }
+        public Long getEvictions() { return evictions; }
+        public Integer getMovieEntries() { return movieEntries; }
+        public Integer getMaxMovieEntries() { return maxMovieEntries; }
+        public Integer getPageEntries() { return pageEntries; }
+        public Integer getMaxPageEntries() { return maxPageEntries; }
+
+        public Double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
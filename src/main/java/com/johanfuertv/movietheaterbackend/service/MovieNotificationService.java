@@ -0,0 +1,304 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.config.WorkerThreads;
+import com.johanfuertv.movietheaterbackend.dto.request.MovieNotificationRequest;
+import com.johanfuertv.movietheaterbackend.dto.response.NotificationJobResponse;
+import com.johanfuertv.movietheaterbackend.entity.Movie;
+import com.johanfuertv.movietheaterbackend.entity.Purchase;
+import com.johanfuertv.movietheaterbackend.entity.Showtime;
+import com.johanfuertv.movietheaterbackend.exception.ResourceNotFoundException;
+import com.johanfuertv.movietheaterbackend.repository.MovieRepository;
+import com.johanfuertv.movietheaterbackend.repository.PurchaseRepository;
+import com.johanfuertv.movietheaterbackend.repository.PurchaseRepository.Purchaser;
+import com.johanfuertv.movietheaterbackend.repository.ShowtimeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Emails every purchaser of a movie (or of one showtime) in the background.
+ *
+ * Purchasers are read page by page with a keyset cursor on customer id, so the database
+ * never materializes an offset and only one page of (id, email, first name) projections is
+ * held at a time. Each page is cut into groups that sender threads render and send over one
+ * SMTP connection each. A semaphore bounds the groups in flight, which stalls the cursor when
+ * sending falls behind, and a shared rate limiter caps messages per second, so memory stays
+ * flat no matter how many purchases the movie has.
+ */
+@Service
+public class MovieNotificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieNotificationService.class);
+
+    // Customer ids are compared as unsigned bytes, so the nil UUID sorts first
+    private static final UUID CURSOR_START = new UUID(0L, 0L);
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private PurchaseRepository purchaseRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailTemplateRenderer emailTemplateRenderer;
+
+    @Autowired
+    private EmailBatchSender emailBatchSender;
+
+    @Autowired
+    private WorkerThreads workerThreads;
+
+    @Value("${notifications.page-size:500}")
+    private int pageSize;
+
+    @Value("${notifications.concurrency:4}")
+    private int concurrency;
+
+    @Value("${notifications.messages-per-connection:25}")
+    private int messagesPerConnection;
+
+    @Value("${notifications.rate-per-second:20}")
+    private double ratePerSecond;
+
+    @Value("${notifications.max-retained-jobs:50}")
+    private int maxRetainedJobs;
+
+    private final Map<UUID, NotificationJob> jobs = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<UUID> jobOrder = new ConcurrentLinkedDeque<>();
+
+    private SendRateLimiter rateLimiter;
+    private ExecutorService jobRunner;
+    private ExecutorService senders;
+
+    @PostConstruct
+    public void init() {
+        rateLimiter = new SendRateLimiter(ratePerSecond);
+        // Jobs run one after another so they share, rather than multiply, the send rate
+        jobRunner = Executors.newSingleThreadExecutor(namedDaemon("movie-notify"));
+        senders = Executors.newFixedThreadPool(concurrency, workerThreads.factory("movie-notify-sender"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        jobRunner.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    public NotificationJobResponse notifyPurchasers(UUID movieId, MovieNotificationRequest request) {
+        Movie movie = movieRepository.findById(movieId)
+            .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + movieId));
+
+        if (request.getShowtimeId() != null) {
+            Showtime showtime = showtimeRepository.findById(request.getShowtimeId())
+                .orElseThrow(() -> new ResourceNotFoundException("Showtime not found with id: " + request.getShowtimeId()));
+            if (!showtime.getMovie().getId().equals(movieId)) {
+                throw new RuntimeException("Showtime does not belong to movie: " + movieId);
+            }
+        }
+
+        // Everything but the customer name is rendered once for the whole job
+        EmailTemplateRenderer.CompiledTemplate template =
+            emailTemplateRenderer.compileMovieNotice(movie, request.getSubject(), request.getMessage());
+
+        NotificationJob job = new NotificationJob(UUID.randomUUID(), movieId, request.getShowtimeId(), request.getSubject());
+        register(job);
+        jobRunner.execute(() -> run(job, template));
+
+        logger.info("Notification job {} queued for movie {}", job.getId(), movie.getTitle());
+        return new NotificationJobResponse(job);
+    }
+
+    public NotificationJobResponse getJob(UUID jobId) {
+        return new NotificationJobResponse(findJob(jobId));
+    }
+
+    public NotificationJobResponse cancelJob(UUID jobId) {
+        NotificationJob job = findJob(jobId);
+        job.cancelRequested = true;
+        return new NotificationJobResponse(job);
+    }
+
+    private NotificationJob findJob(UUID jobId) {
+        NotificationJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Notification job not found with id: " + jobId);
+        }
+        return job;
+    }
+
+    private void run(NotificationJob job, EmailTemplateRenderer.CompiledTemplate template) {
+        job.status = JobStatus.RUNNING;
+        job.startedAt = LocalDateTime.now();
+
+        int maxInFlight = concurrency * 2;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        try {
+            UUID cursor = CURSOR_START;
+            while (!job.cancelRequested) {
+                List<Purchaser> page = nextPage(job, cursor);
+                if (page.isEmpty()) {
+                    break;
+                }
+                cursor = page.get(page.size() - 1).getId();
+                job.recipients.add(page.size());
+
+                for (int from = 0; from < page.size() && !job.cancelRequested; from += messagesPerConnection) {
+                    List<Purchaser> group = page.subList(from, Math.min(from + messagesPerConnection, page.size()));
+                    inFlight.acquire();
+                    try {
+                        senders.execute(() -> {
+                            try {
+                                sendGroup(job, template, group);
+                            } finally {
+                                inFlight.release();
+                            }
+                        });
+                    } catch (RuntimeException e) {
+                        inFlight.release();
+                        throw e;
+                    }
+                }
+            }
+
+            // Wait for the last groups before reporting the job as done
+            inFlight.acquire(maxInFlight);
+            job.status = job.cancelRequested ? JobStatus.CANCELLED : JobStatus.COMPLETED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.status = JobStatus.CANCELLED;
+        } catch (Exception e) {
+            logger.error("Notification job {} failed", job.getId(), e);
+            job.error = e.getMessage();
+            job.status = JobStatus.FAILED;
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            logger.info("Notification job {} {}: {} sent, {} failed",
+                        job.getId(), job.status, job.getSent(), job.getFailed());
+        }
+    }
+
+    private List<Purchaser> nextPage(NotificationJob job, UUID cursor) {
+        PageRequest page = PageRequest.of(0, pageSize);
+        if (job.getShowtimeId() != null) {
+            return purchaseRepository.findPurchasersOfShowtime(job.getShowtimeId(), Purchase.PurchaseStatus.PAID, cursor, page);
+        }
+        return purchaseRepository.findPurchasersOfMovie(job.getMovieId(), Purchase.PurchaseStatus.PAID, cursor, page);
+    }
+
+    private void sendGroup(NotificationJob job, EmailTemplateRenderer.CompiledTemplate template, List<Purchaser> group) {
+        if (job.cancelRequested) {
+            return;
+        }
+
+        List<MimeMessage> messages = new ArrayList<>(group.size());
+        for (Purchaser purchaser : group) {
+            try {
+                String html = emailTemplateRenderer.renderMovieNotice(template, purchaser.getFirstName());
+                messages.add(emailService.buildHtmlEmail(purchaser.getEmail(), job.getSubject(), html));
+            } catch (Exception e) {
+                logger.warn("Could not build notice for {}", purchaser.getEmail(), e);
+                job.failed.increment();
+            }
+        }
+
+        try {
+            rateLimiter.acquire(messages.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        int failures = emailBatchSender.send(messages).size();
+        job.failed.add(failures);
+        job.sent.add(messages.size() - failures);
+    }
+
+    private void register(NotificationJob job) {
+        jobs.put(job.getId(), job);
+        jobOrder.addLast(job.getId());
+
+        // Forget the oldest finished jobs beyond the retention limit
+        while (jobOrder.size() > maxRetainedJobs) {
+            UUID oldest = jobOrder.peekFirst();
+            NotificationJob oldestJob = oldest != null ? jobs.get(oldest) : null;
+            if (oldestJob == null || oldestJob.finishedAt == null || !jobOrder.remove(oldest)) {
+                break;
+            }
+            jobs.remove(oldest);
+        }
+    }
+
+    private static ThreadFactory namedDaemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public enum JobStatus {
+        QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    public static class NotificationJob {
+        private final UUID id;
+        private final UUID movieId;
+        private final UUID showtimeId;
+        private final String subject;
+        private final LongAdder recipients = new LongAdder();
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile boolean cancelRequested;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        NotificationJob(UUID id, UUID movieId, UUID showtimeId, String subject) {
+            this.id = id;
+            this.movieId = movieId;
+            this.showtimeId = showtimeId;
+            this.subject = subject;
+        }
+
+        // Getters
+        public UUID getId() { return id; }
+        public UUID getMovieId() { return movieId; }
+        public UUID getShowtimeId() { return showtimeId; }
+        public String getSubject() { return subject; }
+        public JobStatus getStatus() { return status; }
+        public Long getRecipients() { return recipients.sum(); }
+        public Long getSent() { return sent.sum(); }
+        public Long getFailed() { return failed.sum(); }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+        public String getError() { return error; }
+    }
+}
@@ -0,0 +1,427 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.dto.response.MovieResponse;
+import com.johanfuertv.movietheaterbackend.dto.response.MovieSearchResponse;
+import com.johanfuertv.movietheaterbackend.repository.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process full-text index over the active movies, searched without touching the database.
+ *
+ * Titles and descriptions are folded to lower case without accents and split into terms.
+ * Terms are kept in a sorted map to their postings, so the last query term can be matched as
+ * a prefix (for type-ahead) with a range scan. Every query term must match; hits are ranked
+ * with BM25, title matches weighing more than description matches, and the genres of all
+ * matches are counted as facets before the genre filter is applied.
+ *
+ * Each movie gets a dense slot number and postings are parallel int arrays of slots and term
+ * frequencies, so a query scores into primitive arrays instead of maps and keeps only the
+ * top results in a bounded heap.
+ *
+ * Loaded from the database at startup, then kept current by {@link MovieService}, which
+ * calls {@link #put} or {@link #remove} after each write. Updates only touch the postings of
+ * the changed movie. Writes made on other instances are not seen that way, so the service
+ * calls {@link #load} again when the shared catalog version moves past its own writes.
+ */
+@Component
+public class MovieSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieSearchIndex.class);
+
+    private static final Pattern SPLIT = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    // BM25 parameters and field weights
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double TITLE_WEIGHT = 3.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    // A prefix expansion ranks below an exact match of the same term
+    private static final double PREFIX_FACTOR = 0.8;
+
+    // Per-thread score arrays, sized to the slot count and reused across searches
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(() -> new Scratch(0));
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> slotsById = new HashMap<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final Map<String, Integer> genreIds = new HashMap<>();
+    private final List<String> genreNames = new ArrayList<>();
+    private Document[] documents = new Document[64];
+    private int slotLimit;
+    private long totalTitleLength;
+    private long totalDescriptionLength;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            slotsById.clear();
+            freeSlots.clear();
+            postings.clear();
+            documents = new Document[64];
+            slotLimit = 0;
+            totalTitleLength = 0;
+            totalDescriptionLength = 0;
+            movieRepository.findAllByActiveTrue().forEach(movie -> putLocked(new MovieResponse(movie)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Movie search index loaded: {} movies", slotsById.size());
+    }
+
+    /**
+     * Indexes a created or changed movie, or drops it when it is no longer active.
+     */
+    public void put(MovieResponse movie) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(movie.getId());
+            if (Boolean.TRUE.equals(movie.getActive())) {
+                putLocked(movie);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID movieId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(movieId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public MovieSearchResponse search(String query, String genre, int limit) {
+        List<String> terms = tokenize(query);
+
+        lock.readLock().lock();
+        try {
+            if (terms.isEmpty() || slotsById.isEmpty()) {
+                return new MovieSearchResponse(List.of(), List.of(), 0);
+            }
+
+            Integer genreFilter = genre == null || genre.isBlank() ? null : genreIds.get(genreKey(genre));
+            boolean unknownGenre = genre != null && !genre.isBlank() && genreFilter == null;
+            int[] genreCounts = new int[genreNames.size()];
+            List<MovieSearchResponse.Hit> hits = new ArrayList<>();
+            int total = 0;
+
+            Scratch scratch = scratch(slotLimit);
+            try {
+                int matches = matchAll(terms, scratch);
+
+                PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, rank(scratch.totals).reversed());
+                for (int j = 0; j < matches; j++) {
+                    int slot = scratch.touched[j];
+                    Document document = documents[slot];
+                    genreCounts[document.genreId]++;
+                    if (unknownGenre || (genreFilter != null && genreFilter != document.genreId)) {
+                        continue;
+                    }
+                    total++;
+                    top.offer(slot);
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+                while (!top.isEmpty()) {
+                    int slot = top.poll();
+                    hits.add(new MovieSearchResponse.Hit(documents[slot].movie, scratch.totals[slot]));
+                }
+                Collections.reverse(hits);
+            } catch (RuntimeException | Error e) {
+                // The arrays may be left dirty, so this thread starts over with fresh ones
+                SCRATCH.remove();
+                throw e;
+            }
+            scratch.clear();
+
+            List<MovieSearchResponse.GenreFacet> facets = new ArrayList<>();
+            for (int id = 0; id < genreCounts.length; id++) {
+                if (genreCounts[id] > 0) {
+                    facets.add(new MovieSearchResponse.GenreFacet(genreNames.get(id), genreCounts[id]));
+                }
+            }
+            facets.sort(Comparator.comparing(MovieSearchResponse.GenreFacet::getGenre, String.CASE_INSENSITIVE_ORDER));
+            return new MovieSearchResponse(hits, facets, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores the movies matching every term into {@code scratch.totals} and leaves their slots
+     * in the first entries of {@code scratch.touched}; returns how many there are.
+     */
+    private int matchAll(List<String> terms, Scratch scratch) {
+        int documentCount = slotsById.size();
+        double avgTitle = Math.max(1.0, (double) totalTitleLength / documentCount);
+        double avgDescription = Math.max(1.0, (double) totalDescriptionLength / documentCount);
+
+        int touchedCount = 0;
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            Map<String, Postings> expansions = i == terms.size() - 1
+                ? postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                : exact(term);
+
+            // Best score of this term per movie; a prefix can match several of its terms
+            touchedCount = 0;
+            for (Map.Entry<String, Postings> expansion : expansions.entrySet()) {
+                Postings list = expansion.getValue();
+                double weight = (expansion.getKey().equals(term) ? 1.0 : PREFIX_FACTOR)
+                    * Math.log(1 + (documentCount - list.size + 0.5) / (list.size + 0.5));
+                for (int j = 0; j < list.size; j++) {
+                    int slot = list.slots[j];
+                    if (scratch.matchedTerms[slot] != i) {
+                        continue;
+                    }
+                    Document document = documents[slot];
+                    double score = weight * (
+                        TITLE_WEIGHT * bm25(list.titleFrequencies[j], document.titleLength, avgTitle)
+                        + DESCRIPTION_WEIGHT * bm25(list.descriptionFrequencies[j], document.descriptionLength, avgDescription));
+                    if (scratch.termBest[slot] == 0.0) {
+                        scratch.touched[touchedCount++] = slot;
+                    }
+                    scratch.termBest[slot] = Math.max(scratch.termBest[slot], score);
+                }
+            }
+
+            // Only movies that matched every term so far move on to the next one
+            for (int j = 0; j < touchedCount; j++) {
+                int slot = scratch.touched[j];
+                scratch.totals[slot] += scratch.termBest[slot];
+                scratch.matchedTerms[slot] = i + 1;
+                scratch.termBest[slot] = 0.0;
+            }
+            if (i == 0) {
+                // Later terms only ever touch these slots, so they are all that needs clearing
+                System.arraycopy(scratch.touched, 0, scratch.firstTouched, 0, touchedCount);
+                scratch.firstTouchedCount = touchedCount;
+            }
+            if (touchedCount == 0) {
+                break;
+            }
+        }
+        return touchedCount;
+    }
+
+    private static Scratch scratch(int capacity) {
+        Scratch scratch = SCRATCH.get();
+        if (scratch.totals.length < capacity) {
+            scratch = new Scratch(capacity + capacity / 2);
+            SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+
+    // Higher score first, then title, so equal scores come back in a stable order
+    private Comparator<Integer> rank(double[] totals) {
+        return (a, b) -> {
+            int byScore = Double.compare(totals[b], totals[a]);
+            return byScore != 0 ? byScore
+                : documents[a].movie.getTitle().compareToIgnoreCase(documents[b].movie.getTitle());
+        };
+    }
+
+    private Map<String, Postings> exact(String term) {
+        Postings list = postings.get(term);
+        return list == null ? Map.of() : Map.of(term, list);
+    }
+
+    private static double bm25(int frequency, int length, double averageLength) {
+        if (frequency == 0) {
+            return 0.0;
+        }
+        return frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private void putLocked(MovieResponse movie) {
+        List<String> titleTerms = tokenize(movie.getTitle());
+        List<String> descriptionTerms = tokenize(movie.getDescription());
+
+        Map<String, int[]> frequencies = new HashMap<>();
+        titleTerms.forEach(term -> frequencies.computeIfAbsent(term, t -> new int[2])[0]++);
+        descriptionTerms.forEach(term -> frequencies.computeIfAbsent(term, t -> new int[2])[1]++);
+
+        Integer slot = freeSlots.pollFirst();
+        if (slot == null) {
+            slot = slotLimit++;
+            if (slot == documents.length) {
+                documents = Arrays.copyOf(documents, documents.length * 2);
+            }
+        }
+        int movieSlot = slot;
+        frequencies.forEach((term, counts) ->
+            postings.computeIfAbsent(term, t -> new Postings()).add(movieSlot, counts[0], counts[1]));
+
+        int genreId = genreIds.computeIfAbsent(genreKey(movie.getGenre()), key -> {
+            genreNames.add(movie.getGenre());
+            return genreNames.size() - 1;
+        });
+        documents[slot] = new Document(movie, frequencies.keySet().toArray(new String[0]),
+                                       titleTerms.size(), descriptionTerms.size(), genreId);
+        slotsById.put(movie.getId(), slot);
+        totalTitleLength += titleTerms.size();
+        totalDescriptionLength += descriptionTerms.size();
+    }
+
+    private void removeLocked(UUID movieId) {
+        Integer slot = slotsById.remove(movieId);
+        if (slot == null) {
+            return;
+        }
+        Document document = documents[slot];
+        for (String term : document.terms) {
+            Postings list = postings.get(term);
+            if (list != null && list.remove(slot) && list.size == 0) {
+                postings.remove(term);
+            }
+        }
+        documents[slot] = null;
+        freeSlots.addLast(slot);
+        totalTitleLength -= document.titleLength;
+        totalDescriptionLength -= document.descriptionLength;
+    }
+
+    private static String genreKey(String genre) {
+        return genre == null ? "" : genre.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Lower-cased, accent-free terms of a text; also applied to queries so "Acción" finds "accion".
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String term : SPLIT.split(fold(text))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Lower case without accents, shared with {@link MovieTitleTrie} so both match alike.
+     */
+    static String fold(String text) {
+        return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    // Movies containing one term, as parallel arrays of slots and per-field frequencies
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int[] titleFrequencies = new int[4];
+        private int[] descriptionFrequencies = new int[4];
+        private int size;
+
+        void add(int slot, int titleFrequency, int descriptionFrequency) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                titleFrequencies = Arrays.copyOf(titleFrequencies, size * 2);
+                descriptionFrequencies = Arrays.copyOf(descriptionFrequencies, size * 2);
+            }
+            slots[size] = slot;
+            titleFrequencies[size] = titleFrequency;
+            descriptionFrequencies[size] = descriptionFrequency;
+            size++;
+        }
+
+        boolean remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    // Order does not matter, so the last entry fills the gap
+                    size--;
+                    slots[i] = slots[size];
+                    titleFrequencies[i] = titleFrequencies[size];
+                    descriptionFrequencies[i] = descriptionFrequencies[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Scratch {
+        private final double[] totals;
+        private final double[] termBest;
+        private final int[] matchedTerms;
+        private final int[] touched;
+        private final int[] firstTouched;
+        private int firstTouchedCount;
+
+        Scratch(int capacity) {
+            totals = new double[capacity];
+            termBest = new double[capacity];
+            matchedTerms = new int[capacity];
+            touched = new int[capacity];
+            firstTouched = new int[capacity];
+        }
+
+        void clear() {
+            for (int j = 0; j < firstTouchedCount; j++) {
+                totals[firstTouched[j]] = 0.0;
+                matchedTerms[firstTouched[j]] = 0;
+            }
+            firstTouchedCount = 0;
+        }
+    }
+
+    private static final class Document {
+        private final MovieResponse movie;
+        private final String[] terms;
+        private final int titleLength;
+        private final int descriptionLength;
+        private final int genreId;
+
+        Document(MovieResponse movie, String[] terms, int titleLength, int descriptionLength, int genreId) {
+            this.movie = movie;
+            this.terms = terms;
+            this.titleLength = titleLength;
+            this.descriptionLength = descriptionLength;
+            this.genreId = genreId;
+        }
+    }
+}
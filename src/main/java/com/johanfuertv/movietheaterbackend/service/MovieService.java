@@ -2,19 +2,26 @@ package com.johanfuertv.movietheaterbackend.service;
 
 import com.johanfuertv.movietheaterbackend.dto.request.MovieRequest;
 import com.johanfuertv.movietheaterbackend.dto.response.MovieResponse;
+import com.johanfuertv.movietheaterbackend.dto.response.MovieSearchResponse;
+import com.johanfuertv.movietheaterbackend.dto.response.MovieSuggestionResponse;
 import com.johanfuertv.movietheaterbackend.entity.Movie;
 import com.johanfuertv.movietheaterbackend.exception.ResourceNotFoundException;
 import com.johanfuertv.movietheaterbackend.repository.MovieRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 @Service
 public class MovieService {
@@ -27,19 +34,96 @@ public class MovieService {
     @Autowired
     private StorageService storageService;
     
+    @Autowired
+    private MovieCatalogCache catalogCache;
+    
+    @Autowired
+    private MovieSearchIndex searchIndex;
+    
+    @Autowired
+    private MovieTitleTrie titleTrie;
+    
+    @Autowired
+    private CatalogSnapshots snapshots;
+    
+    @Autowired
+    private CatalogVersion catalogVersion;
+    
+    // The listing the public catalog opens with; only these pages are kept as snapshots
+    private static final Sort SNAPSHOT_SORT = Sort.by(Sort.Direction.DESC, "createdAt");
+    private static final int SNAPSHOT_PAGE_SIZE = 10;
+    
+    @Value("${catalog.snapshots.pages:3}")
+    private int snapshotPages;
+    
+    // Newest catalog version this instance has built responses for
+    private final AtomicLong seenVersion = new AtomicLong();
+    
     public Page<MovieResponse> getAllMovies(String query, String genre, Pageable pageable) {
-        Page<Movie> movies = movieRepository.findActiveMoviesWithFilters(query, genre, pageable);
-        return movies.map(MovieResponse::new);
+        // The cache keys on trimmed, case-folded filters, so the query must see the same values
+        String queryFilter = query == null || query.isBlank() ? null : query.trim();
+        String genreFilter = genre == null || genre.isBlank() ? null : genre.trim();
+        return catalogCache.getPage(queryFilter, genreFilter, pageable, () -> {
+            Page<Movie> movies = movieRepository.findActiveMoviesWithFilters(queryFilter, genreFilter, pageable);
+            return movies.map(MovieResponse::new);
+        });
     }
     
     public MovieResponse getMovieById(UUID id) {
-        Movie movie = movieRepository.findByIdAndActiveTrue(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + id));
-        return new MovieResponse(movie);
+        return catalogCache.getMovie(id, () -> {
+            Movie movie = movieRepository.findByIdAndActiveTrue(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + id));
+            return new MovieResponse(movie);
+        });
+    }
+    
+    /**
+     * Pre-encoded body for a listing request, or null when the request is not one of the
+     * common views (no text query, default size and sort, one of the first pages).
+     */
+    public CatalogSnapshots.Snapshot getMoviesSnapshot(String query, String genre, Pageable pageable,
+                                                       Supplier<Object> body) {
+        if ((query != null && !query.isBlank())
+                || pageable.getPageNumber() >= snapshotPages
+                || pageable.getPageSize() != SNAPSHOT_PAGE_SIZE
+                || !SNAPSHOT_SORT.equals(pageable.getSort())) {
+            return null;
+        }
+        String genreKey = genre == null || genre.isBlank() ? "" : genre.trim().toLowerCase(Locale.ROOT);
+        return snapshots.get("movies:" + genreKey + ":" + pageable.getPageNumber(), body);
+    }
+    
+    public CatalogSnapshots.Snapshot getGenresSnapshot(Supplier<Object> body) {
+        return snapshots.get("genres", body);
+    }
+    
+    public MovieSearchResponse searchMovies(String query, String genre, int limit) {
+        syncCatalogVersion();
+        return searchIndex.search(query, genre, limit);
+    }
+    
+    public List<MovieSuggestionResponse> suggestMovies(String prefix, int limit) {
+        syncCatalogVersion();
+        return titleTrie.suggest(prefix, limit);
     }
     
     public List<String> getGenres() {
-        return movieRepository.findDistinctGenres();
+        return catalogCache.getGenres(movieRepository::findDistinctGenres);
+    }
+    
+    /**
+     * Strong ETag for every public catalog response, taken from the version all instances
+     * share. It changes after each write has been saved, so a response tagged with it never
+     * predates the data it was built from: when the version moved because of a write made on
+     * another instance, the local caches are dropped before anything is served under it.
+     */
+    public String getCatalogETag() {
+        long version = syncCatalogVersion();
+        return "\"c" + Long.toString(version, 36) + "\"";
+    }
+    
+    public MovieCatalogCache.CacheStats getCatalogCacheStats() {
+        return catalogCache.getStats();
     }
     
     
@@ -55,18 +139,31 @@ public class MovieService {
         Movie savedMovie = movieRepository.save(movie);
         logger.info("Movie created: {}", savedMovie.getTitle());
         
-        return new MovieResponse(savedMovie);
+        MovieResponse response = new MovieResponse(savedMovie);
+        catalogCache.movieChanged(response, null);
+        searchIndex.put(response);
+        titleTrie.put(response);
+        snapshots.invalidate();
+        catalogVersionChanged();
+        return response;
     }
     
     public MovieResponse updateMovie(UUID id, MovieRequest request) {
         Movie movie = movieRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + id));
         
+        String previousGenre = movie.getGenre();
         updateMovieFromRequest(movie, request);
         Movie updatedMovie = movieRepository.save(movie);
         
         logger.info("Movie updated: {}", updatedMovie.getTitle());
-        return new MovieResponse(updatedMovie);
+        MovieResponse response = new MovieResponse(updatedMovie);
+        catalogCache.movieChanged(response, previousGenre);
+        searchIndex.put(response);
+        titleTrie.put(response);
+        snapshots.invalidate();
+        catalogVersionChanged();
+        return response;
     }
     
     public void disableMovie(UUID id) {
@@ -75,6 +172,11 @@ public class MovieService {
         
         movie.setActive(false);
         movieRepository.save(movie);
+        catalogCache.movieRemoved(movie.getId(), movie.getGenre());
+        searchIndex.remove(movie.getId());
+        titleTrie.remove(movie.getId());
+        snapshots.invalidate();
+        catalogVersionChanged();
         
         logger.info("Movie disabled: {}", movie.getTitle());
     }
@@ -109,7 +211,39 @@ public class MovieService {
         Movie updatedMovie = movieRepository.save(movie);
         logger.info("Poster uploaded for movie: {}", updatedMovie.getTitle());
         
-        return new MovieResponse(updatedMovie);
+        MovieResponse response = new MovieResponse(updatedMovie);
+        catalogCache.movieChanged(response, null);
+        searchIndex.put(response);
+        titleTrie.put(response);
+        snapshots.invalidate();
+        catalogVersionChanged();
+        return response;
+    }
+    
+    // Local caches were already updated for this write; they are only dropped when the bump
+    // skipped versions, i.e. another instance wrote since this one last looked
+    private void catalogVersionChanged() {
+        long bumped = catalogVersion.bump();
+        if (seenVersion.getAndAccumulate(bumped, Math::max) < bumped - 1) {
+            catalogChangedElsewhere();
+        }
+    }
+    
+    private long syncCatalogVersion() {
+        long version = catalogVersion.current();
+        if (seenVersion.getAndAccumulate(version, Math::max) < version) {
+            catalogChangedElsewhere();
+        }
+        return version;
+    }
+    
+    // The search index and title trie only hear about this instance's writes, so they are
+    // rebuilt from the database rather than patched
+    private void catalogChangedElsewhere() {
+        catalogCache.clear();
+        snapshots.invalidate();
+        searchIndex.load();
+        titleTrie.load();
     }
     
     private void updateMovieFromRequest(Movie movie, MovieRequest request) {
@@ -0,0 +1,230 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.dto.response.MovieResponse;
+import com.johanfuertv.movietheaterbackend.dto.response.MovieSuggestionResponse;
+import com.johanfuertv.movietheaterbackend.repository.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix tree over active movie titles for type-ahead suggestions.
+ *
+ * Titles are folded like the search index (lower case, no accents, punctuation runs turned
+ * into a single space). One tree holds whole titles; a second holds every title from each of
+ * its later words on, so "part" suggests "Dune: Part Two". Suggestions are the first
+ * {@code limit} titles under the prefix node in alphabetical order, title starts before word
+ * starts, found with a depth-first walk that stops as soon as enough are collected, so the
+ * cost depends on the prefix and the limit but not on the catalog size.
+ *
+ * Kept current by {@link MovieService} alongside {@link MovieSearchIndex}, and reloaded with
+ * it when another instance changes the catalog.
+ */
+@Component
+public class MovieTitleTrie {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieTitleTrie.class);
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node titles = new Node();
+    private final Node words = new Node();
+    private final Map<UUID, Suggestion> suggestions = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            new ArrayList<>(suggestions.keySet()).forEach(this::removeLocked);
+            movieRepository.findAllByActiveTrue().forEach(movie -> putLocked(new MovieResponse(movie)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Movie title trie loaded: {} titles", suggestions.size());
+    }
+
+    /**
+     * Adds or replaces a movie's title, or drops it when the movie is no longer active.
+     */
+    public void put(MovieResponse movie) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(movie.getId());
+            if (Boolean.TRUE.equals(movie.getActive())) {
+                putLocked(movie);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID movieId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(movieId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<MovieSuggestionResponse> suggest(String prefix, int limit) {
+        String key = normalize(prefix, true);
+        if (key.isBlank()) {
+            return List.of();
+        }
+
+        Map<UUID, MovieSuggestionResponse> found = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            collect(titles.find(key), found, limit);
+            if (found.size() < limit) {
+                collect(words.find(key), found, limit);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return suggestions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void collect(Node node, Map<UUID, MovieSuggestionResponse> found, int limit) {
+        if (node == null || found.size() >= limit) {
+            return;
+        }
+        for (Suggestion suggestion : node.ending.values()) {
+            found.putIfAbsent(suggestion.id, suggestion.response);
+            if (found.size() >= limit) {
+                return;
+            }
+        }
+        for (Node child : node.children.values()) {
+            collect(child, found, limit);
+            if (found.size() >= limit) {
+                return;
+            }
+        }
+    }
+
+    private void putLocked(MovieResponse movie) {
+        String key = normalize(movie.getTitle(), false);
+        if (key.isEmpty()) {
+            return;
+        }
+        Suggestion suggestion = new Suggestion(movie.getId(), key, movie.getTitle(),
+                                               new MovieSuggestionResponse(movie));
+        suggestions.put(movie.getId(), suggestion);
+
+        titles.insert(key, 0, suggestion);
+        for (int start : laterWordStarts(key)) {
+            words.insert(key.substring(start), 0, suggestion);
+        }
+    }
+
+    private void removeLocked(UUID movieId) {
+        Suggestion suggestion = suggestions.remove(movieId);
+        if (suggestion == null) {
+            return;
+        }
+        titles.delete(suggestion.key, 0, suggestion);
+        for (int start : laterWordStarts(suggestion.key)) {
+            words.delete(suggestion.key.substring(start), 0, suggestion);
+        }
+    }
+
+    private static List<Integer> laterWordStarts(String key) {
+        List<Integer> starts = new ArrayList<>();
+        for (int i = key.indexOf(' '); i >= 0; i = key.indexOf(' ', i + 1)) {
+            starts.add(i + 1);
+        }
+        return starts;
+    }
+
+    /**
+     * Folds text to the key alphabet. A query keeps one trailing space, so "dune " only
+     * suggests titles where "dune" is a whole word.
+     */
+    static String normalize(String text, boolean query) {
+        if (text == null) {
+            return "";
+        }
+        String key = SEPARATORS.matcher(MovieSearchIndex.fold(text)).replaceAll(" ");
+        boolean wordBoundary = query && key.endsWith(" ");
+        key = key.strip();
+        return wordBoundary && !key.isEmpty() ? key + " " : key;
+    }
+
+    private static final class Node {
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        // Titles whose key ends here, in title order; a map since titles are not unique
+        private final TreeMap<String, Suggestion> ending = new TreeMap<>();
+
+        Node find(String key) {
+            Node node = this;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            return node;
+        }
+
+        void insert(String key, int depth, Suggestion suggestion) {
+            if (depth == key.length()) {
+                ending.put(suggestion.order, suggestion);
+                return;
+            }
+            children.computeIfAbsent(key.charAt(depth), c -> new Node()).insert(key, depth + 1, suggestion);
+        }
+
+        // Returns whether this node became empty, so the parent can drop it
+        boolean delete(String key, int depth, Suggestion suggestion) {
+            if (depth == key.length()) {
+                ending.remove(suggestion.order);
+            } else {
+                Node child = children.get(key.charAt(depth));
+                if (child != null && child.delete(key, depth + 1, suggestion)) {
+                    children.remove(key.charAt(depth));
+                }
+            }
+            return ending.isEmpty() && children.isEmpty();
+        }
+    }
+
+    private static final class Suggestion {
+        private final UUID id;
+        private final String key;
+        private final String order;
+        private final MovieSuggestionResponse response;
+
+        Suggestion(UUID id, String key, String title, MovieSuggestionResponse response) {
+            this.id = id;
+            this.key = key;
+            // Unique per movie, so identical titles do not replace each other
+            this.order = title + '\u0000' + id;
+            this.response = response;
+        }
+    }
+}
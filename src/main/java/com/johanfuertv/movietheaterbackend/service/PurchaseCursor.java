@@ -0,0 +1,44 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the admin purchase listing: the (createdAt, id) of the last purchase returned.
+ * Clients get it as an opaque URL-safe token and send it back unchanged for the next page.
+ */
+public final class PurchaseCursor {
+
+    private final LocalDateTime createdAt;
+    private final UUID id;
+
+    public PurchaseCursor(LocalDateTime createdAt, UUID id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PurchaseCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("missing separator");
+            }
+            return new PurchaseCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                                      UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor: " + token);
+        }
+    }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public UUID getId() { return id; }
+}
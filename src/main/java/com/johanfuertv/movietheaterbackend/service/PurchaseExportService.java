@@ -0,0 +1,251 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.johanfuertv.movietheaterbackend.entity.Purchase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes purchases matching the admin listing filters straight to an output stream.
+ *
+ * Rows are read through a server-side cursor (a fixed JDBC fetch size inside a read-only
+ * transaction, which is what makes the PostgreSQL driver stream instead of buffering the
+ * whole result) and each row is formatted and written as soon as it is read, so heap use does
+ * not depend on how many purchases are exported.
+ */
+@Service
+public class PurchaseExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PurchaseExportService.class);
+
+    private static final String[] COLUMNS = {
+        "purchaseId", "createdAt", "status", "quantity", "totalAmount", "paymentMethod", "last4",
+        "customerId", "customerEmail", "customerFirstName", "customerLastName",
+        "movieId", "movieTitle", "movieGenre", "showtimeId"
+    };
+
+    private static final String SELECT =
+        "SELECT p.id, p.created_at, p.status, p.quantity, p.total_amount, p.payment_method, p.last4, " +
+        "c.id, c.email, c.first_name, c.last_name, m.id, m.title, m.genre, p.showtime_id " +
+        "FROM purchases p JOIN customers c ON c.id = p.customer_id JOIN movies m ON m.id = p.movie_id";
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${purchase.export.fetch-size:1000}")
+    private int fetchSize;
+
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+    }
+
+    /**
+     * Streams every matching purchase, newest first, and returns the number of rows written.
+     * Runs in its own read-only transaction, so it can be called from the async thread of a
+     * StreamingResponseBody.
+     */
+    public long export(ExportFormat format, UUID customerId, UUID movieId, Purchase.PurchaseStatus status,
+                       LocalDateTime startDate, LocalDateTime endDate, OutputStream out) throws IOException {
+        // Only the filters that are set go into the SQL, so the planner sees plain predicates
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>();
+        String glue = " WHERE ";
+        if (customerId != null) {
+            sql.append(glue).append("p.customer_id = ?");
+            args.add(customerId);
+            glue = " AND ";
+        }
+        if (movieId != null) {
+            sql.append(glue).append("p.movie_id = ?");
+            args.add(movieId);
+            glue = " AND ";
+        }
+        if (status != null) {
+            sql.append(glue).append("p.status = ?");
+            args.add(status.name());
+            glue = " AND ";
+        }
+        if (startDate != null) {
+            sql.append(glue).append("p.created_at >= ?");
+            args.add(Timestamp.valueOf(startDate));
+            glue = " AND ";
+        }
+        if (endDate != null) {
+            sql.append(glue).append("p.created_at <= ?");
+            args.add(Timestamp.valueOf(endDate));
+        }
+        sql.append(" ORDER BY p.created_at DESC, p.id DESC");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rows = format == ExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        JdbcTemplate cursor = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursor.setFetchSize(fetchSize);
+
+        long[] count = {0};
+        try {
+            readOnly.executeWithoutResult(tx -> cursor.query(sql.toString(), rs -> {
+                try {
+                    rows.write(rs);
+                    count[0]++;
+                } catch (IOException e) {
+                    // Usually the client went away; abandons the cursor and the transaction
+                    throw new UncheckedIOException(e);
+                }
+            }, args.toArray()));
+            rows.finish();
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            logger.warn("Purchase export aborted after {} rows: {}", count[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        logger.info("Purchase export finished: {} rows as {}", count[0], format);
+        return count[0];
+    }
+
+    interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= COLUMNS.length; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = rs.getObject(i);
+                if (value != null) {
+                    writer.write(csvField(value instanceof Timestamp timestamp
+                        ? timestamp.toLocalDateTime().toString() : value.toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
+
+    static final class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final JsonGenerator generator;
+        private boolean empty = true;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = JSON.createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 1; i <= COLUMNS.length; i++) {
+                Object value = rs.getObject(i);
+                generator.writeFieldName(COLUMNS[i - 1]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.toString());
+                } else if (value instanceof Timestamp timestamp) {
+                    generator.writeString(timestamp.toLocalDateTime().toString());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            empty = false;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+            // The generator only separates values, so the last line gets its newline here
+            if (!empty) {
+                writer.write('\n');
+            }
+            generator.close();
+        }
+    }
+
+    /**
+     * Quotes a CSV field when needed and neutralizes values a spreadsheet would run as a
+     * formula, since names and emails are customer input.
+     */
+    static String csvField(String value) {
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0 && !isNumber(value)) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    private static boolean isNumber(String value) {
+        try {
+            new BigDecimal(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
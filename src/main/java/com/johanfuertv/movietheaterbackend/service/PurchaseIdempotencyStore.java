@@ -0,0 +1,152 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.dto.request.PurchaseRequest;
+import com.johanfuertv.movietheaterbackend.dto.response.PurchaseResponse;
+import com.johanfuertv.movietheaterbackend.exception.ConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Remembers purchases created with an Idempotency-Key so a retried request gets the original
+ * result instead of a second purchase.
+ *
+ * Keys are scoped to the customer. The first request for a key is recorded as in flight
+ * while it runs; a concurrent retry is rejected with a conflict rather than run twice, and a
+ * retry after completion replays the stored response. A failed request leaves nothing
+ * behind, since its transaction rolled back, so the client may retry it. Reusing a key for a
+ * different request body is a conflict too.
+ *
+ * Entries live in insertion order and all share one TTL, so expired ones are always at the
+ * head and are dropped there on each new key. Held in memory on this instance only.
+ */
+@Component
+public class PurchaseIdempotencyStore {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    @Value("${purchase.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${purchase.idempotency.max-entries:100000}")
+    private int maxEntries;
+
+    LongSupplier clock = System::currentTimeMillis;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    public Outcome execute(UUID customerId, String key, PurchaseRequest request, Supplier<PurchaseResponse> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String storeKey = customerId + ":" + key;
+        byte[] fingerprint = fingerprint(request);
+        Entry entry;
+        synchronized (lock) {
+            long now = clock.getAsLong();
+            evictLocked(now);
+
+            Entry existing = entries.get(storeKey);
+            if (existing != null) {
+                if (!Arrays.equals(existing.fingerprint, fingerprint)) {
+                    throw new ConflictException("Idempotency-Key was already used for a different purchase");
+                }
+                if (existing.response == null) {
+                    throw new ConflictException("A purchase with this Idempotency-Key is still being processed");
+                }
+                return new Outcome(existing.response, true);
+            }
+
+            entry = new Entry(fingerprint, now + ttlHours * 3_600_000L);
+            entries.put(storeKey, entry);
+        }
+
+        PurchaseResponse response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                entries.remove(storeKey, entry);
+            }
+            throw e;
+        }
+
+        synchronized (lock) {
+            entry.response = response;
+        }
+        return new Outcome(response, false);
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    private void evictLocked(long now) {
+        Iterator<Map.Entry<String, Entry>> oldest = entries.entrySet().iterator();
+        while (oldest.hasNext()) {
+            Entry entry = oldest.next().getValue();
+            // Past the cap the oldest keys go early; they are the least likely to be retried
+            if (entry.expiresAt > now && entries.size() < maxEntries) {
+                break;
+            }
+            oldest.remove();
+        }
+    }
+
+    // Digest of everything that decides what gets bought, so a reused key with another body is caught
+    static byte[] fingerprint(PurchaseRequest request) {
+        PurchaseRequest.PaymentInfo payment = request.getPayment();
+        String canonical = String.join("\n",
+            String.valueOf(request.getMovieId()),
+            String.valueOf(request.getQuantity()),
+            String.valueOf(request.getShowtimeId()),
+            String.valueOf(request.getSeats()),
+            payment == null ? "" : String.valueOf(payment.getMethod()),
+            payment == null ? "" : String.valueOf(payment.getName()),
+            payment == null ? "" : String.valueOf(payment.getLast4()));
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] fingerprint;
+        private final long expiresAt;
+        // Null while the first request is still running
+        private PurchaseResponse response;
+
+        Entry(byte[] fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public static final class Outcome {
+        private final PurchaseResponse response;
+        private final boolean replayed;
+
+        Outcome(PurchaseResponse response, boolean replayed) {
+            this.response = response;
+            this.replayed = replayed;
+        }
+
+        public PurchaseResponse getResponse() { return response; }
+        public boolean isReplayed() { return replayed; }
+    }
+}
@@ -1,24 +1,32 @@
 package com.johanfuertv.movietheaterbackend.service;
 
+import com.johanfuertv.movietheaterbackend.dto.request.HoldRequest;
 import com.johanfuertv.movietheaterbackend.dto.request.PurchaseRequest;
+import com.johanfuertv.movietheaterbackend.dto.response.CursorPageResponse;
 import com.johanfuertv.movietheaterbackend.dto.response.PurchaseResponse;
 import com.johanfuertv.movietheaterbackend.entity.Customer;
 import com.johanfuertv.movietheaterbackend.entity.Movie;
 import com.johanfuertv.movietheaterbackend.entity.Purchase;
+import com.johanfuertv.movietheaterbackend.entity.PurchaseSeat;
+import com.johanfuertv.movietheaterbackend.entity.Showtime;
 import com.johanfuertv.movietheaterbackend.exception.ResourceNotFoundException;
-//import com.johanfuertv.movietheaterbackend.repository.CustomerRepository;
+import com.johanfuertv.movietheaterbackend.repository.CustomerRepository;
 import com.johanfuertv.movietheaterbackend.repository.MovieRepository;
 import com.johanfuertv.movietheaterbackend.repository.PurchaseRepository;
 import com.johanfuertv.movietheaterbackend.security.CustomUserDetailsService.CustomUserPrincipal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -37,21 +45,31 @@ public class PurchaseService {
     @Autowired
     private MovieRepository movieRepository;
     
-    //@Autowired
-    //private CustomerRepository customerRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+    
+    @Autowired
+    private ShowtimeService showtimeService;
     
     @Autowired
-    private EmailService emailService;
+    private SeatInventory seatInventory;
+    
+    @Autowired
+    private HoldExpiryScheduler holdExpiryScheduler;
+    
+    @Autowired
+    private SalesAggregateService salesAggregateService;
+    
+    @Value("${purchase.hold.minutes:10}")
+    private long holdMinutes;
     
     @Transactional
     public PurchaseResponse createPurchase(PurchaseRequest request) {
-        // Get current authenticated user
-        Customer customer = getCurrentCustomer();
-        
-        // Validate customer is active
-        if (!customer.getActive()) {
-            throw new RuntimeException("Customer account is not active");
-        }
+        // Get current authenticated user, validated active
+        Customer customer = getActiveCustomer();
         
         // Get movie and validate it's available
         Movie movie = movieRepository.findByIdAndActiveTrue(request.getMovieId())
@@ -61,10 +79,16 @@ public class PurchaseService {
         Purchase purchase = new Purchase();
         purchase.setCustomer(customer);
         purchase.setMovie(movie);
+        purchase.setGenre(movie.getGenre());
         purchase.setQuantity(request.getQuantity());
         
+        // Reserve seats when booking a specific showtime
+        if (request.getShowtimeId() != null) {
+            reserveSeats(purchase, movie, request.getShowtimeId(), request.getSeats());
+        }
+        
         // Calculate total amount
-        BigDecimal totalAmount = movie.getPrice().multiply(BigDecimal.valueOf(request.getQuantity()));
+        BigDecimal totalAmount = movie.getPrice().multiply(BigDecimal.valueOf(purchase.getQuantity()));
         purchase.setTotalAmount(totalAmount);
         
         // Set payment information
@@ -81,17 +105,100 @@ public class PurchaseService {
         logger.info("Purchase created - ID: {}, Customer: {}, Movie: {}, Amount: {}", 
                    savedPurchase.getId(), customer.getEmail(), movie.getTitle(), totalAmount);
         
-        // Send confirmation email asynchronously
-        try {
-            emailService.sendPurchaseConfirmation(savedPurchase);
-        } catch (Exception e) {
-            logger.error("Error sending purchase confirmation email", e);
-            // Don't fail the purchase if email fails
-        }
+        salesAggregateService.recordPurchase(savedPurchase);
+        
+        // Queued in this transaction, sent by the outbox dispatcher after commit
+        emailOutboxService.enqueuePurchaseConfirmation(savedPurchase);
         
         return new PurchaseResponse(savedPurchase);
     }
     
+    @Transactional
+    public PurchaseResponse holdSeats(HoldRequest request) {
+        Customer customer = getActiveCustomer();
+        
+        Movie movie = movieRepository.findByIdAndActiveTrue(request.getMovieId())
+            .orElseThrow(() -> new ResourceNotFoundException("Movie not found or not available: " + request.getMovieId()));
+        
+        Purchase purchase = new Purchase();
+        purchase.setCustomer(customer);
+        purchase.setMovie(movie);
+        purchase.setGenre(movie.getGenre());
+        reserveSeats(purchase, movie, request.getShowtimeId(), request.getSeats());
+        purchase.setTotalAmount(movie.getPrice().multiply(BigDecimal.valueOf(purchase.getQuantity())));
+        
+        // Unpaid until payHold is called, cancelled by HoldExpiryScheduler otherwise
+        purchase.setStatus(Purchase.PurchaseStatus.CREATED);
+        purchase.setHoldExpiresAt(LocalDateTime.now().plusMinutes(holdMinutes));
+        
+        Purchase savedPurchase = purchaseRepository.save(purchase);
+        salesAggregateService.recordPurchase(savedPurchase);
+        scheduleExpiryAfterCommit(savedPurchase.getId(), savedPurchase.getHoldExpiresAt());
+        
+        logger.info("Seats held - ID: {}, Customer: {}, Seats: {}, Expires: {}", 
+                   savedPurchase.getId(), customer.getId(), purchase.getQuantity(), savedPurchase.getHoldExpiresAt());
+        
+        return new PurchaseResponse(savedPurchase);
+    }
+    
+    @Transactional
+    public PurchaseResponse payHold(UUID id, PurchaseRequest.PaymentInfo payment) {
+        Customer customer = getCurrentCustomer();
+        
+        // Conditional update: loses cleanly against a concurrent expiry instead of paying for released seats
+        int updated = purchaseRepository.payHold(id, customer.getId(),
+            Purchase.PurchaseStatus.CREATED, Purchase.PurchaseStatus.PAID,
+            payment.getMethod(), payment.getLast4(), "Payment by " + payment.getName(), LocalDateTime.now());
+        if (updated == 0) {
+            throw new RuntimeException("Hold not found, already paid or expired");
+        }
+        
+        Purchase purchase = purchaseRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Purchase not found with id: " + id));
+        
+        logger.info("Hold paid - ID: {}, Customer: {}, Amount: {}", id, customer.getEmail(), purchase.getTotalAmount());
+        
+        salesAggregateService.recordSale(purchase);
+        emailOutboxService.enqueuePurchaseConfirmation(purchase);
+        
+        return new PurchaseResponse(purchase);
+    }
+    
+    private void scheduleExpiryAfterCommit(UUID purchaseId, LocalDateTime expiresAt) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                holdExpiryScheduler.schedule(purchaseId, expiresAt);
+            }
+        });
+    }
+    
+    private void reserveSeats(Purchase purchase, Movie movie, UUID showtimeId, List<String> seats) {
+        Showtime showtime = showtimeService.getActiveShowtime(showtimeId);
+        
+        if (!showtime.getMovie().getId().equals(movie.getId())) {
+            throw new RuntimeException("Showtime does not belong to movie: " + movie.getId());
+        }
+        if (seats == null || seats.isEmpty()) {
+            throw new RuntimeException("Seats are required when booking a showtime");
+        }
+        
+        SeatMap seatMap = seatInventory.getSeatMap(showtime);
+        int[] seatNumbers = seats.stream()
+            .mapToInt(seatMap::toSeatNumber)
+            .distinct()
+            .toArray();
+        
+        // Released again if the purchase transaction does not commit
+        seatInventory.reserveForTransaction(showtime, seatNumbers);
+        
+        purchase.setShowtime(showtime);
+        purchase.setQuantity(seatNumbers.length);
+        for (int seatNumber : seatNumbers) {
+            purchase.addSeat(new PurchaseSeat(purchase, showtime.getId(), seatNumber, seatMap.toLabel(seatNumber)));
+        }
+    }
+    
     public List<PurchaseResponse> getMyPurchases() {
         Customer customer = getCurrentCustomer();
         List<Purchase> purchases = purchaseRepository.findByCustomerIdOrderByCreatedAtDesc(customer.getId());
@@ -115,6 +222,43 @@ public class PurchaseService {
         return purchases.map(PurchaseResponse::new);
     }
     
+    /**
+     * Keyset variant of {@link #getPurchasesWithFilters}: each page seeks straight to the
+     * cursor on the (created_at, id) index, so page cost does not grow with depth.
+     */
+    public CursorPageResponse<PurchaseResponse> getPurchasesAfter(UUID customerId, UUID movieId,
+                                                                 Purchase.PurchaseStatus status,
+                                                                 LocalDateTime startDate, LocalDateTime endDate,
+                                                                 String cursor, int size, boolean includeTotal) {
+        // One extra row tells whether another page exists without counting
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Purchase> purchases;
+        if (cursor == null || cursor.isBlank()) {
+            purchases = purchaseRepository.findFirstPurchasesWithFilters(
+                customerId, movieId, status, startDate, endDate, limit);
+        } else {
+            PurchaseCursor after = PurchaseCursor.decode(cursor);
+            purchases = purchaseRepository.findPurchasesWithFiltersAfter(
+                customerId, movieId, status, startDate, endDate, after.getCreatedAt(), after.getId(), limit);
+        }
+        
+        String nextCursor = null;
+        if (purchases.size() > size) {
+            purchases = purchases.subList(0, size);
+            Purchase last = purchases.get(size - 1);
+            nextCursor = new PurchaseCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        
+        Long total = includeTotal
+            ? purchaseRepository.countPurchasesWithFilters(customerId, movieId, status, startDate, endDate)
+            : null;
+        
+        List<PurchaseResponse> content = purchases.stream()
+            .map(PurchaseResponse::new)
+            .collect(Collectors.toList());
+        return new CursorPageResponse<>(content, nextCursor, total);
+    }
+    
     public PurchaseResponse getPurchaseById(UUID id) {
         Purchase purchase = purchaseRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Purchase not found with id: " + id));
@@ -122,23 +266,42 @@ public class PurchaseService {
     }
     
     public PurchaseStats getPurchaseStats() {
-        BigDecimal totalRevenue = purchaseRepository.getTotalRevenue();
-        Long totalTickets = purchaseRepository.getTotalTicketsSold();
-        Long totalPurchases = purchaseRepository.count();
-        
-        return new PurchaseStats(
-            totalRevenue != null ? totalRevenue : BigDecimal.ZERO,
-            totalTickets != null ? totalTickets : 0L,
-            totalPurchases
-        );
+        // Read from the folded aggregates; trails the latest purchases by one fold interval
+        return salesAggregateService.getGlobalStats();
     }
     
     private Customer getCurrentCustomer() {
+        CustomUserPrincipal userPrincipal = getCurrentPrincipal();
+        if (userPrincipal.getCustomer() != null) {
+            return userPrincipal.getCustomer();
+        }
+        // Token-built principal: a lazy reference is enough and only loads if a field is read
+        return customerRepository.getReferenceById(userPrincipal.getCustomerId());
+    }
+    
+    /**
+     * Like {@link #getCurrentCustomer()}, for operations only active customers may perform.
+     * A token-built principal is not checked again: disabling a customer revokes its tokens
+     * in the TokenRevocationList, so the filter has already turned inactive accounts away,
+     * and reading the flag here would load the reference with an extra SELECT.
+     */
+    private Customer getActiveCustomer() {
+        CustomUserPrincipal userPrincipal = getCurrentPrincipal();
+        Customer customer = userPrincipal.getCustomer();
+        if (customer == null) {
+            return customerRepository.getReferenceById(userPrincipal.getCustomerId());
+        }
+        if (!customer.getActive()) {
+            throw new RuntimeException("Customer account is not active");
+        }
+        return customer;
+    }
+    
+    private CustomUserPrincipal getCurrentPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         
         if (authentication != null && authentication.getPrincipal() instanceof CustomUserPrincipal) {
-            CustomUserPrincipal userPrincipal = (CustomUserPrincipal) authentication.getPrincipal();
-            return userPrincipal.getCustomer();
+            return (CustomUserPrincipal) authentication.getPrincipal();
         }
         
         throw new RuntimeException("No authenticated user found");
@@ -146,6 +309,7 @@ public class PurchaseService {
     
     // Stats class
     public static class PurchaseStats {
+        // Revenue and tickets of paid purchases; the purchase count covers every status
         private BigDecimal totalRevenue;
         private Long totalTickets;
         private Long totalPurchases;
@@ -0,0 +1,174 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.entity.Customer;
+import com.johanfuertv.movietheaterbackend.entity.RefreshToken;
+import com.johanfuertv.movietheaterbackend.repository.RefreshTokenRepository;
+import com.johanfuertv.movietheaterbackend.repository.RevokedAccessTokenRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues and rotates refresh tokens. Only the SHA-256 of a token is stored, so the table is
+ * of no use to someone who reads it. Each refresh consumes the presented token and returns a
+ * new one; presenting an already consumed token revokes the whole family.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int TOKEN_BYTES = 32;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RevokedAccessTokenRepository revokedAccessTokenRepository;
+
+    @Value("${jwt.refresh.expiration:2592000}")
+    private long refreshSeconds;
+
+    @Value("${jwt.refresh.purge-minutes:60}")
+    private long purgeMinutes;
+
+    private ScheduledExecutorService scheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "refresh-token-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::purgeQuietly, purgeMinutes, purgeMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts a new token family for a fresh login and returns the token to hand out.
+     */
+    @Transactional
+    public String issue(Customer customer) {
+        return issue(customer, UUID.randomUUID(), LocalDateTime.now());
+    }
+
+    /**
+     * Consumes the presented token and issues its successor in the same family.
+     *
+     * @throws BadCredentialsException when the token is unknown, expired, already used or
+     *         belongs to a disabled customer
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotation rotate(String token) {
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(token))
+            .orElseThrow(() -> new BadCredentialsException("Unknown refresh token"));
+
+        // Either already rotated or lost a race against a concurrent refresh with the same token
+        if (current.getRevokedAt() != null || refreshTokenRepository.revoke(current.getId(), now) == 0) {
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            logger.warn("Refresh token reused for customer {}, revoked {} token(s) of its family",
+                        current.getCustomer().getId(), revoked);
+            throw new BadCredentialsException("Refresh token already used");
+        }
+        if (!current.getExpiresAt().isAfter(now)) {
+            throw new BadCredentialsException("Refresh token expired");
+        }
+
+        Customer customer = current.getCustomer();
+        if (!customer.getActive()) {
+            refreshTokenRepository.revokeAllForCustomer(customer.getId(), now);
+            throw new BadCredentialsException("Customer is disabled");
+        }
+
+        return new Rotation(customer, issue(customer, current.getFamilyId(), now));
+    }
+
+    /**
+     * Logout: revokes the family of the given token. Unknown tokens are ignored.
+     */
+    @Transactional
+    public void revoke(String token) {
+        refreshTokenRepository.findByTokenHash(hash(token))
+            .ifPresent(t -> refreshTokenRepository.revokeFamily(t.getFamilyId(), LocalDateTime.now()));
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void revokeAll(UUID customerId) {
+        int revoked = refreshTokenRepository.revokeAllForCustomer(customerId, LocalDateTime.now());
+        logger.info("Revoked {} refresh token(s) of customer {}", revoked, customerId);
+    }
+
+    public long getRefreshSeconds() {
+        return refreshSeconds;
+    }
+
+    private String issue(Customer customer, UUID familyId, LocalDateTime now) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(customer, familyId, hash(token), now.plusSeconds(refreshSeconds)));
+        return token;
+    }
+
+    private void purgeQuietly() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int deleted = refreshTokenRepository.deleteExpired(now);
+            int revoked = revokedAccessTokenRepository.deleteExpired(now);
+            logger.info("Purged {} expired refresh token(s) and {} expired access token revocation(s)", deleted, revoked);
+        } catch (Exception e) {
+            logger.error("Purging refresh tokens failed", e);
+        }
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static class Rotation {
+        private final Customer customer;
+        private final String refreshToken;
+
+        public Rotation(Customer customer, String refreshToken) {
+            this.customer = customer;
+            this.refreshToken = refreshToken;
+        }
+
+        // Getters
+        public Customer getCustomer() { return customer; }
+        public String getRefreshToken() { return refreshToken; }
+    }
+}
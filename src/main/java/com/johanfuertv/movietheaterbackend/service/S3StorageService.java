@@ -9,14 +9,25 @@ import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.ContentStreamProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.UUID;
 
+/**
+ * Stores uploads in an S3 bucket.
+ *
+ * Uploads are sent as a streamed PUT with a declared content length, reading the multipart
+ * part (spooled to disk by the multipart resolver) as the request body goes out, so no upload
+ * is ever held on the heap. Posters are capped at the multipart limit, far below the 5 GB a
+ * single PUT accepts, so multipart upload would only add round trips.
+ */
 @Service
 public class S3StorageService implements StorageService {
     
@@ -34,17 +45,25 @@ public class S3StorageService implements StorageService {
     @Value("${aws.s3.secret-key}")
     private String secretKey;
     
-    private S3Client s3Client;
+    private volatile S3Client s3Client;
     
     private S3Client getS3Client() {
-        if (s3Client == null) {
-            AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKey, secretKey);
-            s3Client = S3Client.builder()
-                    .region(Region.of(region))
-                    .credentialsProvider(StaticCredentialsProvider.create(credentials))
-                    .build();
+        S3Client client = s3Client;
+        if (client == null) {
+            // Concurrent first uploads must not each build (and leak) a client
+            synchronized (this) {
+                client = s3Client;
+                if (client == null) {
+                    AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKey, secretKey);
+                    client = S3Client.builder()
+                            .region(Region.of(region))
+                            .credentialsProvider(StaticCredentialsProvider.create(credentials))
+                            .build();
+                    s3Client = client;
+                }
+            }
         }
-        return s3Client;
+        return client;
     }
     
     @Override
@@ -57,15 +76,19 @@ public class S3StorageService implements StorageService {
                     .bucket(bucketName)
                     .key(key)
                     .contentType(file.getContentType())
+                    .contentLength(file.getSize())
                     .build();
             
-            getS3Client().putObject(putObjectRequest, RequestBody.fromBytes(file.getBytes()));
+            try (PartStreamProvider body = new PartStreamProvider(file)) {
+                getS3Client().putObject(putObjectRequest,
+                        RequestBody.fromContentProvider(body, file.getSize(), file.getContentType()));
+            }
             
             String publicUrl = getPublicUrl(key);
             logger.info("File uploaded to S3: {}", publicUrl);
             return publicUrl;
             
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
             logger.error("Error uploading file to S3", e);
             throw new RuntimeException("Error uploading file to S3", e);
         }
@@ -108,4 +131,36 @@ public class S3StorageService implements StorageService {
         }
         return null;
     }
+    
+    /**
+     * Reopens the part for every attempt, so a retried PUT resends from the start without the
+     * SDK having to buffer the body for mark/reset.
+     */
+    private static final class PartStreamProvider implements ContentStreamProvider, AutoCloseable {
+        private final MultipartFile file;
+        private InputStream current;
+        
+        PartStreamProvider(MultipartFile file) {
+            this.file = file;
+        }
+        
+        @Override
+        public InputStream newStream() {
+            try {
+                close();
+                current = file.getInputStream();
+                return current;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+        }
+    }
 }
@@ -0,0 +1,300 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.entity.Purchase;
+import com.johanfuertv.movietheaterbackend.entity.SalesAggregate;
+import com.johanfuertv.movietheaterbackend.entity.SalesAggregate.Scope;
+import com.johanfuertv.movietheaterbackend.entity.SalesDelta;
+import com.johanfuertv.movietheaterbackend.repository.SalesAggregateRepository;
+import com.johanfuertv.movietheaterbackend.repository.SalesAggregateRepository.ScopeTotals;
+import com.johanfuertv.movietheaterbackend.repository.SalesDeltaRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps sales totals per scope (global, movie, genre, day) so the admin statistics are
+ * primary-key reads instead of scans over purchases.
+ *
+ * Placing or paying a purchase appends a {@link SalesDelta} in the same transaction, so the
+ * totals cover paid purchases as well as purchases in any status. A background thread
+ * folds pending deltas into {@link SalesAggregate} rows every few seconds with a single
+ * statement, so the totals trail commits by at most one fold interval. A periodic
+ * reconciliation compares the totals (plus still pending deltas) against the purchases
+ * table and reports any drift; {@link #rebuild()} recomputes everything from scratch.
+ * GENRE totals use the genre stored with each purchase, so they stay put when a movie's
+ * genre is edited afterwards.
+ */
+@Service
+public class SalesAggregateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesAggregateService.class);
+    private static final String GLOBAL_KEY = "";
+    private static final int MAX_REPORTED_MISMATCHES = 20;
+
+    @Autowired
+    private SalesAggregateRepository salesAggregateRepository;
+
+    @Autowired
+    private SalesDeltaRepository salesDeltaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${stats.aggregates.fold-millis:2000}")
+    private long foldMillis;
+
+    @Value("${stats.aggregates.fold-batch-size:5000}")
+    private int foldBatchSize;
+
+    @Value("${stats.aggregates.reconcile-minutes:60}")
+    private long reconcileMinutes;
+
+    private ScheduledExecutorService scheduler;
+    private volatile ReconciliationReport lastReconciliation;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sales-aggregates");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::foldPending, foldMillis, foldMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, reconcileMinutes, reconcileMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Records a purchase that was just created, paid or still a hold. Must run in the
+     * transaction that created it.
+     */
+    @Transactional
+    public void recordPurchase(Purchase purchase) {
+        if (purchase.getStatus() == Purchase.PurchaseStatus.PAID) {
+            record(purchase, purchase.getTotalAmount(), purchase.getQuantity(), 1, 1);
+        } else {
+            record(purchase, BigDecimal.ZERO, 0, 0, 1);
+        }
+    }
+
+    /**
+     * Records a hold that just became PAID; the hold itself was counted by
+     * {@link #recordPurchase}. Must run in the transaction that paid it.
+     */
+    @Transactional
+    public void recordSale(Purchase purchase) {
+        record(purchase, purchase.getTotalAmount(), purchase.getQuantity(), 1, 0);
+    }
+
+    public PurchaseService.PurchaseStats getGlobalStats() {
+        return salesAggregateRepository.findById(new SalesAggregate.Key(Scope.GLOBAL, GLOBAL_KEY))
+            .map(global -> new PurchaseService.PurchaseStats(global.getRevenue(), global.getTickets(), global.getAllPurchases()))
+            .orElseGet(() -> new PurchaseService.PurchaseStats(BigDecimal.ZERO, 0L, 0L));
+    }
+
+    public List<SalesAggregate> getByScope(Scope scope) {
+        return salesAggregateRepository.findByScopeOrderByRevenueDesc(scope);
+    }
+
+    public List<SalesAggregate> getByDay(LocalDate from, LocalDate to) {
+        // ISO dates sort lexicographically, so the string key supports range scans
+        return salesAggregateRepository.findByScopeAndScopeKeyBetweenOrderByScopeKeyAsc(
+            Scope.DAY, from.toString(), to.toString());
+    }
+
+    public ReconciliationReport getLastReconciliation() {
+        return lastReconciliation;
+    }
+
+    private void record(Purchase purchase, BigDecimal revenue, int tickets, int purchases, int allPurchases) {
+        LocalDateTime createdAt = purchase.getCreatedAt() != null ? purchase.getCreatedAt() : LocalDateTime.now();
+        // The genre stored with the purchase, as rebuild and reconcile read it
+        salesDeltaRepository.save(new SalesDelta(
+            purchase.getMovie().getId(),
+            purchase.getGenre(),
+            createdAt.toLocalDate(),
+            revenue,
+            tickets,
+            purchases,
+            allPurchases));
+    }
+
+    private void foldPending() {
+        try {
+            // Keep folding while full batches come back, then wait for the next interval
+            while (salesAggregateRepository.foldDeltas(foldBatchSize) > 0
+                   && salesDeltaRepository.count() > 0
+                   && !Thread.currentThread().isInterrupted()) {
+                logger.debug("Sales deltas still pending, folding again");
+            }
+        } catch (Exception e) {
+            logger.error("Folding sales deltas failed", e);
+        }
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            logger.error("Sales aggregate reconciliation failed", e);
+        }
+    }
+
+    /**
+     * Compares the aggregates plus pending deltas against the purchases table, all read from
+     * one snapshot so concurrent purchases cannot show up as drift.
+     */
+    public ReconciliationReport reconcile() {
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshot.setReadOnly(true);
+
+        ReconciliationReport report = snapshot.execute(status -> {
+            Map<String, Totals> actual = new HashMap<>();
+            for (ScopeTotals totals : salesAggregateRepository.computePurchaseTotals()) {
+                actual.put(totals.getScope() + ":" + totals.getScopeKey(), Totals.of(totals));
+            }
+
+            Map<String, Totals> expected = new HashMap<>();
+            for (SalesAggregate aggregate : salesAggregateRepository.findAll()) {
+                expected.put(aggregate.getScope() + ":" + aggregate.getScopeKey(),
+                             new Totals(aggregate.getRevenue(), aggregate.getTickets(), aggregate.getPurchases(),
+                                        aggregate.getAllPurchases()));
+            }
+            for (ScopeTotals pending : salesAggregateRepository.computePendingDeltaTotals()) {
+                expected.merge(pending.getScope() + ":" + pending.getScopeKey(), Totals.of(pending), Totals::plus);
+            }
+
+            return compare(actual, expected);
+        });
+
+        lastReconciliation = report;
+        if (report.getMismatches() > 0) {
+            logger.warn("Sales aggregates drifted from purchases in {} scope(s): {}", report.getMismatches(), report.getDetails());
+        } else {
+            logger.info("Sales aggregates reconciled: {} scope(s) match", report.getChecked());
+        }
+        return report;
+    }
+
+    /**
+     * Recomputes every aggregate from the purchases table. Pending deltas are dropped since
+     * the purchases they describe are already counted by the recomputation; the table lock
+     * makes purchases committing meanwhile wait and land their delta afterwards.
+     */
+    @Transactional
+    public ReconciliationReport rebuild() {
+        salesAggregateRepository.lockDeltas();
+        salesAggregateRepository.deleteAllDeltas();
+        salesAggregateRepository.deleteAllAggregates();
+        int rows = salesAggregateRepository.insertPurchaseTotals();
+
+        logger.info("Sales aggregates rebuilt: {} scope row(s)", rows);
+        ReconciliationReport report = new ReconciliationReport(LocalDateTime.now(), rows, 0, List.of());
+        lastReconciliation = report;
+        return report;
+    }
+
+    static ReconciliationReport compare(Map<String, Totals> actual, Map<String, Totals> expected) {
+        Set<String> keys = new HashSet<>(actual.keySet());
+        keys.addAll(expected.keySet());
+
+        int mismatches = 0;
+        List<String> details = new ArrayList<>();
+        for (String key : keys) {
+            Totals fromPurchases = actual.getOrDefault(key, Totals.ZERO);
+            Totals fromAggregates = expected.getOrDefault(key, Totals.ZERO);
+            if (!fromPurchases.matches(fromAggregates)) {
+                mismatches++;
+                if (details.size() < MAX_REPORTED_MISMATCHES) {
+                    details.add(key + " purchases=" + fromPurchases + " aggregates=" + fromAggregates);
+                }
+            }
+        }
+        return new ReconciliationReport(LocalDateTime.now(), keys.size(), mismatches, details);
+    }
+
+    static final class Totals {
+        static final Totals ZERO = new Totals(BigDecimal.ZERO, 0L, 0L, 0L);
+
+        private final BigDecimal revenue;
+        private final long tickets;
+        private final long purchases;
+        private final long allPurchases;
+
+        Totals(BigDecimal revenue, Long tickets, Long purchases, Long allPurchases) {
+            this.revenue = revenue != null ? revenue : BigDecimal.ZERO;
+            this.tickets = tickets != null ? tickets : 0L;
+            this.purchases = purchases != null ? purchases : 0L;
+            this.allPurchases = allPurchases != null ? allPurchases : 0L;
+        }
+
+        static Totals of(ScopeTotals totals) {
+            return new Totals(totals.getRevenue(), totals.getTickets(), totals.getPurchases(), totals.getAllPurchases());
+        }
+
+        Totals plus(Totals other) {
+            return new Totals(revenue.add(other.revenue), tickets + other.tickets, purchases + other.purchases,
+                              allPurchases + other.allPurchases);
+        }
+
+        boolean matches(Totals other) {
+            return revenue.compareTo(other.revenue) == 0 && tickets == other.tickets && purchases == other.purchases
+                   && allPurchases == other.allPurchases;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + revenue.toPlainString() + ", " + tickets + " tickets, " + purchases + " paid of "
+                   + allPurchases + " purchases)";
+        }
+    }
+
+    public static class ReconciliationReport {
+        private LocalDateTime checkedAt;
+        private Integer checked;
+        private Integer mismatches;
+        private List<String> details;
+
+        public ReconciliationReport(LocalDateTime checkedAt, Integer checked, Integer mismatches, List<String> details) {
+            this.checkedAt = checkedAt;
+            this.checked = checked;
+            this.mismatches = mismatches;
+            this.details = details;
+        }
+
+        // Getters
+        public LocalDateTime getCheckedAt() { return checkedAt; }
+        public Integer getChecked() { return checked; }
+        public Integer getMismatches() { return mismatches; }
+        public List<String> getDetails() { return details; }
+    }
+}
@@ -0,0 +1,134 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.entity.Auditorium;
+import com.johanfuertv.movietheaterbackend.entity.Showtime;
+import com.johanfuertv.movietheaterbackend.repository.PurchaseSeatRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory seat availability for every showtime that has been booked or viewed since
+ * startup. A showtime's {@link SeatMap} is built from the sold seats in purchase_seats on
+ * first use and then kept up to date by reservations made through this component.
+ *
+ * The in-memory map only decides which buyer gets a seat on this instance. The unique key
+ * on purchase_seats(showtime_id, seat_number) stays the final guarantee, so a seat can not
+ * be sold twice even when several instances serve the same showtime. Seats sold, cancelled
+ * or expired on other instances reach this one when the map is rebuilt: once it is older
+ * than {@code purchase.seats.refresh-seconds}, when a reservation finds a seat taken, and
+ * after a reservation rolls back (for example on the unique key).
+ */
+@Component
+public class SeatInventory {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatInventory.class);
+
+    @Autowired
+    private PurchaseSeatRepository purchaseSeatRepository;
+
+    @Value("${purchase.seats.refresh-seconds:30}")
+    private long refreshSeconds;
+
+    LongSupplier clock = System::currentTimeMillis;
+
+    private final ConcurrentMap<UUID, Loaded> seatMaps = new ConcurrentHashMap<>();
+
+    public SeatMap getSeatMap(Showtime showtime) {
+        Loaded current = seatMaps.get(showtime.getId());
+        if (current != null && clock.getAsLong() - current.loadedAt < refreshSeconds * 1000) {
+            return current.seatMap;
+        }
+        return reload(showtime, current);
+    }
+
+    // Replaces the map unless another thread already did, in which case that one is used
+    private SeatMap reload(Showtime showtime, Loaded previous) {
+        Auditorium auditorium = showtime.getAuditorium();
+        SeatMap loaded = new SeatMap(auditorium.getRows(), auditorium.getSeatsPerRow());
+        purchaseSeatRepository.findSeatNumbersByShowtimeId(showtime.getId()).forEach(loaded::markTaken);
+        Loaded fresh = new Loaded(loaded, clock.getAsLong());
+
+        boolean stored = previous == null
+            ? seatMaps.putIfAbsent(showtime.getId(), fresh) == null
+            : seatMaps.replace(showtime.getId(), previous, fresh);
+        if (!stored) {
+            Loaded existing = seatMaps.putIfAbsent(showtime.getId(), fresh);
+            if (existing != null) {
+                return existing.seatMap;
+            }
+        }
+        logger.debug("Seat map loaded for showtime {}: {} of {} seats taken",
+                     showtime.getId(), loaded.countTaken(), loaded.getCapacity());
+        return loaded;
+    }
+
+    /**
+     * Reserves the given seats for the current transaction. If the transaction does not
+     * commit, the seats are released again.
+     *
+     * @throws RuntimeException if any of the seats is already taken
+     */
+    public void reserveForTransaction(Showtime showtime, int[] seats) {
+        SeatMap seatMap = getSeatMap(showtime);
+        if (!seatMap.tryReserve(seats)) {
+            // The seats may have been released on another instance since the map was loaded
+            seatMap = reload(showtime, seatMaps.get(showtime.getId()));
+            if (!seatMap.tryReserve(seats)) {
+                throw new RuntimeException("One or more of the selected seats are no longer available");
+            }
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            SeatMap reserved = seatMap;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        reserved.release(seats);
+                        // A rollback on the unique key means another instance sold a seat this
+                        // map shows as free, so the next use reloads it
+                        evictIfCurrent(showtime.getId(), reserved);
+                    }
+                }
+            });
+        }
+    }
+
+    public void release(UUID showtimeId, int[] seats) {
+        Loaded current = seatMaps.get(showtimeId);
+        if (current != null) {
+            current.seatMap.release(seats);
+        }
+    }
+
+    public void evict(UUID showtimeId) {
+        seatMaps.remove(showtimeId);
+    }
+
+    private void evictIfCurrent(UUID showtimeId, SeatMap seatMap) {
+        Loaded current = seatMaps.get(showtimeId);
+        if (current != null && current.seatMap == seatMap) {
+            seatMaps.remove(showtimeId, current);
+        }
+    }
+
+    private static final class Loaded {
+        private final SeatMap seatMap;
+        private final long loadedAt;
+
+        Loaded(SeatMap seatMap, long loadedAt) {
+            this.seatMap = seatMap;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
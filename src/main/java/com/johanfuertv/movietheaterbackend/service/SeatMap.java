@@ -0,0 +1,165 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Seat availability of one showtime, one bit per seat (set = taken).
+ *
+ * Seats are claimed with compare-and-set on the 64-seat word that holds them, so concurrent
+ * buyers never block each other. A multi-seat reservation is all-or-nothing: if any seat is
+ * already taken, the seats claimed so far are released again.
+ *
+ * Seat numbers are 0-based and row-major; labels are the row letter and the 1-based seat
+ * in that row, e.g. seat 0 is "A1".
+ */
+public class SeatMap {
+
+    private final int rows;
+    private final int seatsPerRow;
+    private final AtomicLongArray words;
+
+    public SeatMap(int rows, int seatsPerRow) {
+        if (rows < 1 || rows > 26 || seatsPerRow < 1) {
+            throw new IllegalArgumentException("Invalid seat map size: " + rows + "x" + seatsPerRow);
+        }
+        this.rows = rows;
+        this.seatsPerRow = seatsPerRow;
+        this.words = new AtomicLongArray((getCapacity() + 63) >>> 6);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    public int getCapacity() {
+        return rows * seatsPerRow;
+    }
+
+    /**
+     * Claims all the given seats or none of them.
+     *
+     * @return true if every seat was free and is now taken
+     */
+    public boolean tryReserve(int[] seats) {
+        int[] sorted = distinctSorted(seats);
+        for (int i = 0; i < sorted.length; i++) {
+            if (!tryClaim(sorted[i])) {
+                for (int j = 0; j < i; j++) {
+                    release(sorted[j]);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void release(int[] seats) {
+        for (int seat : distinctSorted(seats)) {
+            release(seat);
+        }
+    }
+
+    /**
+     * Marks a seat as taken without checking, used when loading already sold seats.
+     */
+    public void markTaken(int seat) {
+        checkSeat(seat);
+        long mask = 1L << (seat & 63);
+        int index = seat >>> 6;
+        long current;
+        do {
+            current = words.get(index);
+        } while (!words.compareAndSet(index, current, current | mask));
+    }
+
+    public boolean isTaken(int seat) {
+        checkSeat(seat);
+        return (words.get(seat >>> 6) & (1L << (seat & 63))) != 0;
+    }
+
+    public int countTaken() {
+        int taken = 0;
+        for (int i = 0; i < words.length(); i++) {
+            taken += Long.bitCount(words.get(i));
+        }
+        return taken;
+    }
+
+    public List<String> getTakenLabels() {
+        List<String> labels = new ArrayList<>();
+        for (int seat = 0; seat < getCapacity(); seat++) {
+            if (isTaken(seat)) {
+                labels.add(toLabel(seat));
+            }
+        }
+        return labels;
+    }
+
+    public String toLabel(int seat) {
+        checkSeat(seat);
+        return (char) ('A' + seat / seatsPerRow) + String.valueOf(seat % seatsPerRow + 1);
+    }
+
+    public int toSeatNumber(String label) {
+        if (label == null || label.length() < 2) {
+            throw new IllegalArgumentException("Invalid seat: " + label);
+        }
+
+        int row = Character.toUpperCase(label.charAt(0)) - 'A';
+        int number;
+        try {
+            number = Integer.parseInt(label.substring(1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid seat: " + label);
+        }
+
+        if (row < 0 || row >= rows || number < 1 || number > seatsPerRow) {
+            throw new IllegalArgumentException("Seat does not exist in this auditorium: " + label);
+        }
+        return row * seatsPerRow + number - 1;
+    }
+
+    private boolean tryClaim(int seat) {
+        long mask = 1L << (seat & 63);
+        int index = seat >>> 6;
+        while (true) {
+            long current = words.get(index);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(index, current, current | mask)) {
+                return true;
+            }
+        }
+    }
+
+    private void release(int seat) {
+        long mask = ~(1L << (seat & 63));
+        int index = seat >>> 6;
+        long current;
+        do {
+            current = words.get(index);
+        } while (!words.compareAndSet(index, current, current & mask));
+    }
+
+    private int[] distinctSorted(int[] seats) {
+        int[] sorted = Arrays.stream(seats).distinct().sorted().toArray();
+        for (int seat : sorted) {
+            checkSeat(seat);
+        }
+        return sorted;
+    }
+
+    private void checkSeat(int seat) {
+        if (seat < 0 || seat >= getCapacity()) {
+            throw new IllegalArgumentException("Seat number out of range: " + seat);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces out permits evenly at a fixed rate. Each caller reserves the next free slot and
+ * sleeps until it comes round, so concurrent senders together never exceed the rate.
+ */
+public class SendRateLimiter {
+
+    private final long nanosPerPermit;
+    private long nextFreeNanos;
+
+    public SendRateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        this.nanosPerPermit = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    public void acquire(int permits) throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            // Idle time is not banked, so a quiet period cannot turn into a burst
+            long start = Math.max(nextFreeNanos, now);
+            nextFreeNanos = start + permits * nanosPerPermit;
+            waitNanos = start - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.dto.request.AuditoriumRequest;
+import com.johanfuertv.movietheaterbackend.dto.request.ShowtimeRequest;
+import com.johanfuertv.movietheaterbackend.dto.response.AuditoriumResponse;
+import com.johanfuertv.movietheaterbackend.dto.response.SeatMapResponse;
+import com.johanfuertv.movietheaterbackend.dto.response.ShowtimeResponse;
+import com.johanfuertv.movietheaterbackend.entity.Auditorium;
+import com.johanfuertv.movietheaterbackend.entity.Movie;
+import com.johanfuertv.movietheaterbackend.entity.Showtime;
+import com.johanfuertv.movietheaterbackend.exception.ResourceNotFoundException;
+import com.johanfuertv.movietheaterbackend.repository.AuditoriumRepository;
+import com.johanfuertv.movietheaterbackend.repository.MovieRepository;
+import com.johanfuertv.movietheaterbackend.repository.ShowtimeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+public class ShowtimeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShowtimeService.class);
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private AuditoriumRepository auditoriumRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    public AuditoriumResponse createAuditorium(AuditoriumRequest request) {
+        if (auditoriumRepository.existsByNameIgnoreCase(request.getName())) {
+            throw new RuntimeException("Auditorium already exists: " + request.getName());
+        }
+
+        Auditorium auditorium = new Auditorium(request.getName(), request.getRows(), request.getSeatsPerRow());
+        Auditorium savedAuditorium = auditoriumRepository.save(auditorium);
+
+        logger.info("Auditorium created: {} ({} seats)", savedAuditorium.getName(), savedAuditorium.getCapacity());
+        return new AuditoriumResponse(savedAuditorium);
+    }
+
+    public ShowtimeResponse createShowtime(ShowtimeRequest request) {
+        Movie movie = movieRepository.findByIdAndActiveTrue(request.getMovieId())
+            .orElseThrow(() -> new ResourceNotFoundException("Movie not found or not available: " + request.getMovieId()));
+
+        Auditorium auditorium = auditoriumRepository.findById(request.getAuditoriumId())
+            .orElseThrow(() -> new ResourceNotFoundException("Auditorium not found with id: " + request.getAuditoriumId()));
+
+        Showtime savedShowtime = showtimeRepository.save(new Showtime(movie, auditorium, request.getStartsAt()));
+        logger.info("Showtime created: {} at {} in {}", movie.getTitle(), savedShowtime.getStartsAt(), auditorium.getName());
+
+        return new ShowtimeResponse(savedShowtime);
+    }
+
+    public void disableShowtime(UUID id) {
+        Showtime showtime = showtimeRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Showtime not found with id: " + id));
+
+        showtime.setActive(false);
+        showtimeRepository.save(showtime);
+        seatInventory.evict(id);
+
+        logger.info("Showtime disabled: {}", id);
+    }
+
+    public List<ShowtimeResponse> getUpcomingShowtimes(UUID movieId) {
+        return showtimeRepository
+            .findByMovieIdAndActiveTrueAndStartsAtAfterOrderByStartsAtAsc(movieId, LocalDateTime.now())
+            .stream()
+            .map(ShowtimeResponse::new)
+            .collect(Collectors.toList());
+    }
+
+    public SeatMapResponse getSeatMap(UUID showtimeId) {
+        Showtime showtime = getActiveShowtime(showtimeId);
+        return new SeatMapResponse(showtimeId, seatInventory.getSeatMap(showtime));
+    }
+
+    public Showtime getActiveShowtime(UUID id) {
+        return showtimeRepository.findByIdAndActiveTrue(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Showtime not found or not available: " + id));
+    }
+}
@@ -0,0 +1,154 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel with 64 slots per level.
+ *
+ * Level 0 slots are one tick wide, level 1 slots 64 ticks, level 2 slots 4096 ticks and so
+ * on. An entry is placed in the lowest level whose span covers its deadline and moves down
+ * a level each time the slot it sits in comes due, so adding an entry and expiring it are
+ * both O(1) no matter how many entries are outstanding. Deadlines beyond the top level are
+ * parked in its farthest slot and re-placed when that slot cascades.
+ *
+ * Not thread-safe: it is meant to be driven by a single ticker thread.
+ */
+public class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final long originMillis;
+    private final int levels;
+    private final List<List<Entry<T>>> slots;
+
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, int levels, long originMillis) {
+        if (tickMillis <= 0 || levels < 1 || levels > 5) {
+            throw new IllegalArgumentException("Invalid timing wheel configuration");
+        }
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.originMillis = originMillis;
+        this.slots = new ArrayList<>(levels * SLOTS);
+        for (int i = 0; i < levels * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedules an item. Items whose deadline has already passed are handed straight to
+     * {@code due}.
+     */
+    public void add(T item, long deadlineMillis, Consumer<Entry<T>> due) {
+        Entry<T> entry = new Entry<>(item, deadlineMillis, toTick(deadlineMillis));
+        if (!place(entry)) {
+            due.accept(entry);
+        }
+    }
+
+    /**
+     * Advances the wheel up to {@code nowMillis}, handing every entry that came due to
+     * {@code due} in deadline order per tick.
+     */
+    public void advanceTo(long nowMillis, Consumer<Entry<T>> due) {
+        long targetTick = (nowMillis - originMillis) / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            // Cascade higher levels whose slot boundary was just crossed, top-down
+            for (int level = levels - 1; level >= 1; level--) {
+                long span = 1L << (SLOT_BITS * level);
+                if ((currentTick & (span - 1)) == 0) {
+                    List<Entry<T>> bucket = takeSlot(level, (int) ((currentTick >> (SLOT_BITS * level)) & SLOT_MASK));
+                    for (Entry<T> entry : bucket) {
+                        if (!place(entry)) {
+                            due.accept(entry);
+                        }
+                    }
+                }
+            }
+
+            // Only entries parked past a single-level wheel's span can be re-placed here
+            for (Entry<T> entry : takeSlot(0, (int) (currentTick & SLOT_MASK))) {
+                if (!place(entry)) {
+                    due.accept(entry);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    private boolean place(Entry<T> entry) {
+        long delta = entry.deadlineTick - currentTick;
+        if (delta <= 0) {
+            return false;
+        }
+
+        long slotTick = entry.deadlineTick;
+        int level = 0;
+        while (level < levels - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        long maxDelta = (1L << (SLOT_BITS * (level + 1))) - 1;
+        if (delta > maxDelta) {
+            // Beyond the top level: park in its farthest slot, re-placed when that slot cascades
+            slotTick = currentTick + maxDelta;
+        }
+
+        int slot = (int) ((slotTick >> (SLOT_BITS * level)) & SLOT_MASK);
+        slots.get(level * SLOTS + slot).add(entry);
+        size++;
+        return true;
+    }
+
+    private List<Entry<T>> takeSlot(int level, int slot) {
+        int index = level * SLOTS + slot;
+        List<Entry<T>> bucket = slots.get(index);
+        if (bucket.isEmpty()) {
+            return bucket;
+        }
+        slots.set(index, new ArrayList<>());
+        size -= bucket.size();
+        return bucket;
+    }
+
+    private long toTick(long millis) {
+        // Round up so an entry never fires before its deadline
+        long elapsed = millis - originMillis;
+        return elapsed <= 0 ? 0 : (elapsed + tickMillis - 1) / tickMillis;
+    }
+
+    public static final class Entry<T> {
+        private final T item;
+        private final long deadlineMillis;
+        private final long deadlineTick;
+
+        Entry(T item, long deadlineMillis, long deadlineTick) {
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+    }
+}
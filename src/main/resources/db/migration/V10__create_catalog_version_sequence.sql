@@ -0,0 +1,5 @@
+-- Version behind the public catalog ETags, shared by every instance. MovieService bumps it
+-- after each catalog write has been saved; sequences are not transactional, so the new value
+-- is visible to every other session at once.
+CREATE SEQUENCE catalog_version_seq;
+SELECT setval('catalog_version_seq', 1);
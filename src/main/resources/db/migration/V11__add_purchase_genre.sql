@@ -0,0 +1,25 @@
+-- Genre of the movie at the time of the purchase. GENRE sales totals are keyed on it; reading
+-- the current movies.genre instead made every genre edit show up as drift.
+ALTER TABLE purchases ADD COLUMN genre VARCHAR(100);
+
+UPDATE purchases p SET genre = m.genre FROM movies m WHERE m.id = p.movie_id;
+ALTER TABLE purchases ALTER COLUMN genre SET NOT NULL;
+
+-- Recompute the aggregates with the stored genre. This also fills them for databases
+-- baselined past V5, where its backfill never ran.
+LOCK TABLE sales_deltas IN EXCLUSIVE MODE;
+DELETE FROM sales_deltas;
+DELETE FROM sales_aggregates;
+
+INSERT INTO sales_aggregates (scope, scope_key, revenue, tickets, purchases, updated_at)
+SELECT 'GLOBAL', '', COALESCE(SUM(total_amount), 0), COALESCE(SUM(quantity), 0), COUNT(*), NOW()
+FROM purchases WHERE status = 'PAID'
+UNION ALL
+SELECT 'MOVIE', CAST(movie_id AS VARCHAR), SUM(total_amount), SUM(quantity), COUNT(*), NOW()
+FROM purchases WHERE status = 'PAID' GROUP BY movie_id
+UNION ALL
+SELECT 'GENRE', genre, SUM(total_amount), SUM(quantity), COUNT(*), NOW()
+FROM purchases WHERE status = 'PAID' GROUP BY genre
+UNION ALL
+SELECT 'DAY', CAST(CAST(created_at AS DATE) AS VARCHAR), SUM(total_amount), SUM(quantity), COUNT(*), NOW()
+FROM purchases WHERE status = 'PAID' GROUP BY CAST(created_at AS DATE);
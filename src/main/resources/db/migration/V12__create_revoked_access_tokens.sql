@@ -0,0 +1,12 @@
+-- Access tokens revoked by logout; every instance polls recent rows into its revocation list
+CREATE TABLE revoked_access_tokens (
+    token_id VARCHAR(64) PRIMARY KEY,
+    customer_id UUID,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT fk_revoked_access_tokens_customer FOREIGN KEY (customer_id) REFERENCES customers(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_revoked_access_tokens_revoked ON revoked_access_tokens(revoked_at);
+CREATE INDEX idx_revoked_access_tokens_expires ON revoked_access_tokens(expires_at);
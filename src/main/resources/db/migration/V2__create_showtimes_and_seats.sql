@@ -0,0 +1,43 @@
+-- Create auditoriums table
+CREATE TABLE auditoriums (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    name VARCHAR(100) UNIQUE NOT NULL,
+    seat_rows INTEGER NOT NULL,
+    seats_per_row INTEGER NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW()
+);
+
+-- Create showtimes table
+CREATE TABLE showtimes (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    movie_id UUID NOT NULL,
+    auditorium_id UUID NOT NULL,
+    starts_at TIMESTAMP NOT NULL,
+    active BOOLEAN NOT NULL DEFAULT true,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+
+    CONSTRAINT fk_showtime_movie FOREIGN KEY (movie_id) REFERENCES movies(id),
+    CONSTRAINT fk_showtime_auditorium FOREIGN KEY (auditorium_id) REFERENCES auditoriums(id)
+);
+
+-- Purchases made for a showtime (NULL for general admission)
+ALTER TABLE purchases ADD COLUMN showtime_id UUID;
+ALTER TABLE purchases ADD CONSTRAINT fk_purchase_showtime FOREIGN KEY (showtime_id) REFERENCES showtimes(id);
+
+-- Create purchase_seats table; the unique key guarantees a seat is never sold twice
+CREATE TABLE purchase_seats (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    purchase_id UUID NOT NULL,
+    showtime_id UUID NOT NULL,
+    seat_number INTEGER NOT NULL,
+    seat_label VARCHAR(8) NOT NULL,
+
+    CONSTRAINT fk_purchase_seat_purchase FOREIGN KEY (purchase_id) REFERENCES purchases(id),
+    CONSTRAINT fk_purchase_seat_showtime FOREIGN KEY (showtime_id) REFERENCES showtimes(id),
+    CONSTRAINT uk_purchase_seats_showtime_seat UNIQUE (showtime_id, seat_number)
+);
+
+-- Create indexes
+CREATE INDEX idx_showtimes_movie_starts ON showtimes(movie_id, starts_at);
+CREATE INDEX idx_purchases_showtime ON purchases(showtime_id);
+CREATE INDEX idx_purchase_seats_purchase ON purchase_seats(purchase_id);
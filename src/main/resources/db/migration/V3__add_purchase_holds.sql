@@ -0,0 +1,4 @@
+-- Unpaid seat holds expire back to CANCELLED at this time
+ALTER TABLE purchases ADD COLUMN hold_expires_at TIMESTAMP;
+
+CREATE INDEX idx_purchases_pending_holds ON purchases(hold_expires_at) WHERE status = 'CREATED';
@@ -0,0 +1,19 @@
+-- Create email_outbox table; rows are inserted with the change that triggers the email
+CREATE TABLE email_outbox (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    type VARCHAR(40) NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    recipient_name VARCHAR(255),
+    purchase_id UUID,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    sent_at TIMESTAMP,
+
+    CONSTRAINT fk_email_outbox_purchase FOREIGN KEY (purchase_id) REFERENCES purchases(id)
+);
+
+-- Only rows still to be sent are scanned by the dispatcher
+CREATE INDEX idx_email_outbox_due ON email_outbox(next_attempt_at) WHERE status IN ('PENDING', 'SENDING');
@@ -0,0 +1,36 @@
+-- Sales totals per scope (GLOBAL, MOVIE, GENRE, DAY), read by the admin statistics
+CREATE TABLE sales_aggregates (
+    scope VARCHAR(10) NOT NULL,
+    scope_key VARCHAR(100) NOT NULL,
+    revenue DECIMAL(14,2) NOT NULL DEFAULT 0,
+    tickets BIGINT NOT NULL DEFAULT 0,
+    purchases BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP,
+
+    PRIMARY KEY (scope, scope_key)
+);
+
+-- Paid purchases not folded into sales_aggregates yet; appended in the paying transaction
+CREATE TABLE sales_deltas (
+    id BIGSERIAL PRIMARY KEY,
+    movie_id UUID NOT NULL,
+    genre VARCHAR(100) NOT NULL,
+    sale_date DATE NOT NULL,
+    revenue DECIMAL(10,2) NOT NULL,
+    tickets INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Backfill from the purchases already paid
+INSERT INTO sales_aggregates (scope, scope_key, revenue, tickets, purchases, updated_at)
+SELECT 'GLOBAL', '', COALESCE(SUM(total_amount), 0), COALESCE(SUM(quantity), 0), COUNT(*), NOW()
+FROM purchases WHERE status = 'PAID'
+UNION ALL
+SELECT 'MOVIE', CAST(movie_id AS VARCHAR), SUM(total_amount), SUM(quantity), COUNT(*), NOW()
+FROM purchases WHERE status = 'PAID' GROUP BY movie_id
+UNION ALL
+SELECT 'GENRE', m.genre, SUM(p.total_amount), SUM(p.quantity), COUNT(*), NOW()
+FROM purchases p JOIN movies m ON m.id = p.movie_id WHERE p.status = 'PAID' GROUP BY m.genre
+UNION ALL
+SELECT 'DAY', CAST(CAST(created_at AS DATE) AS VARCHAR), SUM(total_amount), SUM(quantity), COUNT(*), NOW()
+FROM purchases WHERE status = 'PAID' GROUP BY CAST(created_at AS DATE);
@@ -0,0 +1,6 @@
+-- Keyset pagination of the admin purchase listing seeks on (created_at, id), newest first.
+-- The filtered variants lead with the filter column so each page is a single index range scan.
+CREATE INDEX idx_purchases_created_id ON purchases(created_at DESC, id DESC);
+CREATE INDEX idx_purchases_customer_created_id ON purchases(customer_id, created_at DESC, id DESC);
+CREATE INDEX idx_purchases_movie_created_id ON purchases(movie_id, created_at DESC, id DESC);
+CREATE INDEX idx_purchases_status_created_id ON purchases(status, created_at DESC, id DESC);
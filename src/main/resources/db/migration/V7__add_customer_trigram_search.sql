@@ -0,0 +1,8 @@
+-- Fuzzy admin customer search (CustomerRepository.searchActiveCustomers). The trigram index
+-- serves both substring LIKE and word_similarity (<%) matches on the combined name and email.
+-- On a large existing table, build it with CREATE INDEX CONCURRENTLY outside a transaction.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_customers_search_trgm ON customers
+    USING GIN (lower(first_name || ' ' || last_name || ' ' || email) gin_trgm_ops)
+    WHERE active = true;
@@ -0,0 +1,5 @@
+-- Purchaser fan-out (PurchaseRepository.findPurchasersOfMovie/OfShowtime) pages through the
+-- paid purchases of one movie or showtime in customer_id order. With customer_id last, each
+-- page is an index range scan starting at the cursor instead of a rescan and sort of them all.
+CREATE INDEX idx_purchases_movie_status_customer ON purchases(movie_id, status, customer_id);
+CREATE INDEX idx_purchases_showtime_status_customer ON purchases(showtime_id, status, customer_id);
@@ -0,0 +1,78 @@
+-- Brings a database whose tables were created by Hibernate (ddl-auto: update, before the
+-- Flyway migrations ran) to the schema of V9, so it can be baselined there with
+-- FLYWAY_BASELINE_VERSION=9 and take V10 onwards from Flyway. Run it once, by hand, before
+-- that first start; every statement is a no-op when its object already exists.
+--
+-- Hibernate already created the tables and columns of V1-V8. It did not create the
+-- extensions or the indexes, and it named the unique constraints with hashes.
+
+CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Give the single-column unique constraints the names the migrations create, which the
+-- application matches on (e.g. customers_email_key for duplicate registrations)
+DO $$
+DECLARE
+    target RECORD;
+    existing TEXT;
+BEGIN
+    FOR target IN SELECT * FROM (VALUES
+        ('customers', 'email'),
+        ('auditoriums', 'name'),
+        ('refresh_tokens', 'token_hash')) AS t(table_name, column_name)
+    LOOP
+        SELECT c.conname INTO existing
+        FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+        WHERE c.conrelid = target.table_name::regclass AND c.contype = 'u'
+          AND array_length(c.conkey, 1) = 1 AND a.attname = target.column_name;
+
+        IF existing IS NOT NULL AND existing <> target.table_name || '_' || target.column_name || '_key' THEN
+            EXECUTE format('ALTER TABLE %I RENAME CONSTRAINT %I TO %I', target.table_name, existing,
+                           target.table_name || '_' || target.column_name || '_key');
+        END IF;
+    END LOOP;
+END $$;
+
+-- V1
+CREATE INDEX IF NOT EXISTS idx_customers_email ON customers(email);
+CREATE INDEX IF NOT EXISTS idx_customers_active ON customers(active);
+CREATE INDEX IF NOT EXISTS idx_movies_active ON movies(active);
+CREATE INDEX IF NOT EXISTS idx_movies_genre ON movies(genre);
+CREATE INDEX IF NOT EXISTS idx_purchases_customer ON purchases(customer_id);
+CREATE INDEX IF NOT EXISTS idx_purchases_movie ON purchases(movie_id);
+CREATE INDEX IF NOT EXISTS idx_purchases_status ON purchases(status);
+
+-- V2
+CREATE INDEX IF NOT EXISTS idx_showtimes_movie_starts ON showtimes(movie_id, starts_at);
+CREATE INDEX IF NOT EXISTS idx_purchases_showtime ON purchases(showtime_id);
+CREATE INDEX IF NOT EXISTS idx_purchase_seats_purchase ON purchase_seats(purchase_id);
+
+-- V3
+CREATE INDEX IF NOT EXISTS idx_purchases_pending_holds ON purchases(hold_expires_at) WHERE status = 'CREATED';
+
+-- V4
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due ON email_outbox(next_attempt_at) WHERE status IN ('PENDING', 'SENDING');
+
+-- V6
+CREATE INDEX IF NOT EXISTS idx_purchases_created_id ON purchases(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_purchases_customer_created_id ON purchases(customer_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_purchases_movie_created_id ON purchases(movie_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_purchases_status_created_id ON purchases(status, created_at DESC, id DESC);
+
+-- V7
+CREATE INDEX IF NOT EXISTS idx_customers_search_trgm ON customers
+    USING GIN (lower(first_name || ' ' || last_name || ' ' || email) gin_trgm_ops)
+    WHERE active = true;
+
+-- V8
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens(family_id) WHERE revoked_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_customer ON refresh_tokens(customer_id) WHERE revoked_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires ON refresh_tokens(expires_at);
+CREATE INDEX IF NOT EXISTS idx_customers_disabled ON customers(updated_at) WHERE active = false;
+
+-- V9
+CREATE INDEX IF NOT EXISTS idx_purchases_movie_status_customer ON purchases(movie_id, status, customer_id);
+CREATE INDEX IF NOT EXISTS idx_purchases_showtime_status_customer ON purchases(showtime_id, status, customer_id);
+
+-- The V5 backfill of sales_aggregates is not needed: V11 and V13 recompute the aggregates.
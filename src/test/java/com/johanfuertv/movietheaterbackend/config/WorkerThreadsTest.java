@@ -0,0 +1,40 @@
+package com.johanfuertv.movietheaterbackend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ThreadFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkerThreadsTest {
+
+    @Test
+    void usesVirtualThreadsOnlyWhenEnabledAndSupported() {
+        WorkerThreads threads = workerThreads(true);
+
+        assertEquals(Runtime.version().feature() >= 21, threads.isVirtual());
+        assertEquals(false, workerThreads(false).isVirtual());
+    }
+
+    @Test
+    void platformThreadsAreNamedDaemons() {
+        ThreadFactory factory = workerThreads(false).factory("email-sender");
+
+        Thread first = factory.newThread(() -> { });
+        Thread second = factory.newThread(() -> { });
+        assertEquals("email-sender-1", first.getName());
+        assertEquals("email-sender-2", second.getName());
+        assertTrue(first.isDaemon());
+    }
+
+    private static WorkerThreads workerThreads(boolean virtual) {
+        WorkerThreads threads = new WorkerThreads();
+        ReflectionTestUtils.setField(threads, "environment",
+            new MockEnvironment().withProperty("spring.threads.virtual.enabled", String.valueOf(virtual)));
+        threads.init();
+        return threads;
+    }
+}
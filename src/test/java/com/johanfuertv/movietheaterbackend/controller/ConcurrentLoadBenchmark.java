@@ -0,0 +1,137 @@
+package com.johanfuertv.movietheaterbackend.controller;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load against a running instance: {@code LOAD_CONNECTIONS} clients (5000 by
+ * default), each sending its next request as soon as the previous answer arrives, over a mix
+ * of catalog and showtime reads that go through JDBC.
+ *
+ * Used to compare the default platform thread pool with the {@code virtual-threads} profile.
+ * Start the application on Java 21 once without and once with the profile, against the same
+ * database, and run:
+ * <pre>
+ * mvn -q test-compile
+ * java -cp target/test-classes \
+ *     com.johanfuertv.movietheaterbackend.controller.ConcurrentLoadBenchmark
+ * </pre>
+ * Settings: LOAD_BASE_URL (http://localhost:8080), LOAD_CONNECTIONS, LOAD_SECONDS (60),
+ * LOAD_WARMUP_SECONDS (15) and LOAD_PATHS (comma separated). Opening thousands of connections
+ * needs a matching {@code ulimit -n} on both sides.
+ */
+public class ConcurrentLoadBenchmark {
+
+    private static final String DEFAULT_PATHS =
+        "/api/movies?page=3&size=20,/api/movies/search?q=the,/api/movies/genres,/api/movies?genre=Drama&page=1";
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = env("LOAD_BASE_URL", "http://localhost:8080");
+        int connections = Integer.parseInt(env("LOAD_CONNECTIONS", "5000"));
+        long seconds = Long.parseLong(env("LOAD_SECONDS", "60"));
+        long warmupSeconds = Long.parseLong(env("LOAD_WARMUP_SECONDS", "15"));
+        List<URI> targets = new ArrayList<>();
+        for (String path : env("LOAD_PATHS", DEFAULT_PATHS).split(",")) {
+            targets.add(URI.create(baseUrl + path.trim()));
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+        Run warmup = new Run(client, targets, connections, System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds));
+        warmup.await();
+        Run run = new Run(client, targets, connections, System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds));
+        run.await();
+        run.report(seconds);
+    }
+
+    private static final class Run {
+        private final HttpClient client;
+        private final List<URI> targets;
+        private final long deadline;
+        private final CountDownLatch done;
+        private final List<Client> clients = new ArrayList<>();
+        private final AtomicLong errors = new AtomicLong();
+
+        Run(HttpClient client, List<URI> targets, int connections, long deadline) {
+            this.client = client;
+            this.targets = targets;
+            this.deadline = deadline;
+            this.done = new CountDownLatch(connections);
+            for (int i = 0; i < connections; i++) {
+                clients.add(new Client(i));
+            }
+            clients.forEach(this::next);
+        }
+
+        private void next(Client c) {
+            if (System.nanoTime() >= deadline) {
+                done.countDown();
+                return;
+            }
+            URI target = targets.get((c.id + c.count) % targets.size());
+            long start = System.nanoTime();
+            client.sendAsync(HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(30)).GET().build(),
+                             HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    if (failure != null || response.statusCode() >= 400) {
+                        errors.incrementAndGet();
+                    }
+                    c.record(System.nanoTime() - start);
+                    next(c);
+                });
+        }
+
+        void await() throws InterruptedException {
+            done.await();
+        }
+
+        void report(long seconds) {
+            long[] all = clients.stream().flatMapToLong(c -> Arrays.stream(c.latencies, 0, c.count)).sorted().toArray();
+            System.out.printf("requests: %d (%.0f/s), errors: %d%n", all.length, (double) all.length / seconds, errors.get());
+            if (all.length > 0) {
+                System.out.printf("latency ms  p50 %.1f  p90 %.1f  p99 %.1f  max %.1f%n",
+                                  percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99),
+                                  all[all.length - 1] / 1e6);
+            }
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+        }
+    }
+
+    // One closed-loop client; only ever touched by the callback of its single outstanding request
+    private static final class Client {
+        private final int id;
+        private long[] latencies = new long[1024];
+        private int count;
+
+        Client(int id) {
+            this.id = id;
+        }
+
+        void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+}
@@ -0,0 +1,49 @@
+package com.johanfuertv.movietheaterbackend.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovieControllerTest {
+
+    private static final String ETAG = "\"m1abc-7\"";
+
+    private static final String GZIP_ETAG = "\"m1abc-7-gzip\"";
+
+    @Test
+    void matchesIfNoneMatchWithWeakComparison() {
+        assertEquals(ETAG, MovieController.matchedETag("\"m1abc-7\"", ETAG, null));
+        assertEquals(ETAG, MovieController.matchedETag("\"m1abc-6\", W/\"m1abc-7\"", ETAG, null));
+    }
+
+    @Test
+    void echoesTheGzipTagItWasAskedAbout() {
+        assertEquals(GZIP_ETAG, MovieController.matchedETag("\"m1abc-7-gzip\"", ETAG, "gzip"));
+        assertEquals(GZIP_ETAG, MovieController.matchedETag("\"m1abc-6-gzip\", W/\"m1abc-7-gzip\"", ETAG, null));
+    }
+
+    @Test
+    void answersAWildcardWithTheNegotiatedVariant() {
+        assertEquals(ETAG, MovieController.matchedETag("*", ETAG, null));
+        assertEquals(GZIP_ETAG, MovieController.matchedETag("*", ETAG, "gzip, br"));
+    }
+
+    @Test
+    void servesTheBodyForStaleOrMissingTags() {
+        assertNull(MovieController.matchedETag(null, ETAG, "gzip"));
+        assertNull(MovieController.matchedETag("\"m1abc-6\"", ETAG, "gzip"));
+        assertNull(MovieController.matchedETag("m1abc-7", ETAG, "gzip"));
+    }
+
+    @Test
+    void sendsGzipOnlyWhenAccepted() {
+        assertTrue(MovieController.acceptsGzip("gzip, deflate, br"));
+        assertTrue(MovieController.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertFalse(MovieController.acceptsGzip("gzip;q=0"));
+        assertFalse(MovieController.acceptsGzip("identity"));
+        assertFalse(MovieController.acceptsGzip(null));
+    }
+}
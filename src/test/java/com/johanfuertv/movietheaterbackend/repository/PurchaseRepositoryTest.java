@@ -0,0 +1,219 @@
+package com.johanfuertv.movietheaterbackend.repository;
+
+import com.johanfuertv.movietheaterbackend.dto.response.PurchaseResponse;
+import com.johanfuertv.movietheaterbackend.entity.Customer;
+import com.johanfuertv.movietheaterbackend.entity.Movie;
+import com.johanfuertv.movietheaterbackend.entity.Purchase;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Building PurchaseResponse rows reads each purchase's customer and movie. These tests count
+ * the SQL statements per page so lazy loading per row cannot creep back in.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false"
+})
+class PurchaseRepositoryTest {
+
+    private static final int CUSTOMERS = 5;
+    private static final int MOVIES = 5;
+    private static final int PURCHASES = 30;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PurchaseRepository purchaseRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Customer firstCustomer;
+    private List<Customer> customers;
+    private Movie firstMovie;
+
+    @BeforeEach
+    void seed() {
+        customers = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers.add(entityManager.persist(
+                new Customer("Customer" + i, "Test", "customer" + i + "@example.com", "3000000000", "hash")));
+        }
+        List<Movie> movies = new ArrayList<>();
+        for (int i = 0; i < MOVIES; i++) {
+            movies.add(entityManager.persist(
+                new Movie("Movie " + i, "Description", "Drama", 120, new BigDecimal("12.50"))));
+        }
+        for (int i = 0; i < PURCHASES; i++) {
+            Purchase purchase = new Purchase();
+            purchase.setCustomer(customers.get(i % CUSTOMERS));
+            purchase.setMovie(movies.get(i % MOVIES));
+            purchase.setGenre("Drama");
+            purchase.setQuantity(2);
+            purchase.setTotalAmount(new BigDecimal("25.00"));
+            purchase.setStatus(Purchase.PurchaseStatus.PAID);
+            entityManager.persist(purchase);
+        }
+        firstCustomer = customers.get(0);
+        firstMovie = movies.get(0);
+
+        // Start every test from an empty persistence context, as a fresh request would
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void allPurchasesPageIsOneSelectPlusCount() {
+        long statements = countStatements(() -> toResponses(
+            purchaseRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(0, 20))));
+
+        assertEquals(2, statements);
+    }
+
+    @Test
+    void filteredPageIsOneSelectPlusCount() {
+        long statements = countStatements(() -> toResponses(
+            purchaseRepository.findPurchasesWithFilters(null, null, Purchase.PurchaseStatus.PAID, null, null,
+                                                        PageRequest.of(1, 10))));
+
+        assertEquals(2, statements);
+    }
+
+    @Test
+    void keysetPageIsOneSelect() {
+        long statements = countStatements(() -> purchaseRepository
+            .findFirstPurchasesWithFilters(null, null, null, null, null, PageRequest.of(0, 21)).stream()
+            .map(PurchaseResponse::new)
+            .collect(Collectors.toList()));
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void keysetPagesVisitEveryMatchingPurchaseOnce() {
+        List<Purchase> walked = new ArrayList<>();
+        List<Purchase> page = purchaseRepository.findFirstPurchasesWithFilters(
+            firstCustomer.getId(), null, Purchase.PurchaseStatus.PAID, null, null, PageRequest.of(0, 4));
+        while (!page.isEmpty()) {
+            walked.addAll(page);
+            Purchase last = page.get(page.size() - 1);
+            page = purchaseRepository.findPurchasesWithFiltersAfter(
+                firstCustomer.getId(), null, Purchase.PurchaseStatus.PAID, null, null,
+                last.getCreatedAt(), last.getId(), PageRequest.of(0, 4));
+        }
+
+        List<Purchase> expected = purchaseRepository.findFirstPurchasesWithFilters(
+            firstCustomer.getId(), null, null, null, null, PageRequest.of(0, PURCHASES));
+        assertEquals(PURCHASES / CUSTOMERS, walked.size());
+        assertEquals(expected.stream().map(Purchase::getId).collect(Collectors.toList()),
+                     walked.stream().map(Purchase::getId).collect(Collectors.toList()));
+        assertEquals(PURCHASES / CUSTOMERS,
+                     purchaseRepository.countPurchasesWithFilters(firstCustomer.getId(), null, null, null, null));
+    }
+
+    @Test
+    void purchaserPagesListEachCustomerOnce() {
+        // Every customer buys the first movie twice more, so purchases repeat per customer
+        for (Customer customer : customers) {
+            for (int i = 0; i < 2; i++) {
+                Purchase purchase = new Purchase();
+                purchase.setCustomer(entityManager.find(Customer.class, customer.getId()));
+                purchase.setMovie(entityManager.find(Movie.class, firstMovie.getId()));
+                purchase.setGenre("Drama");
+                purchase.setQuantity(1);
+                purchase.setTotalAmount(new BigDecimal("12.50"));
+                purchase.setStatus(Purchase.PurchaseStatus.PAID);
+                entityManager.persist(purchase);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<UUID> walked = new ArrayList<>();
+        UUID cursor = new UUID(0, 0);
+        List<PurchaseRepository.Purchaser> page;
+        while (!(page = purchaseRepository.findPurchasersOfMovie(
+                firstMovie.getId(), Purchase.PurchaseStatus.PAID, cursor, PageRequest.of(0, 2))).isEmpty()) {
+            page.forEach(purchaser -> walked.add(purchaser.getId()));
+            cursor = page.get(page.size() - 1).getId();
+        }
+
+        assertEquals(customers.stream().map(Customer::getId).collect(Collectors.toSet()), new HashSet<>(walked));
+        assertEquals(CUSTOMERS, walked.size());
+    }
+
+    @Test
+    void customerPurchasesAreOneSelect() {
+        List<PurchaseResponse> responses = new ArrayList<>();
+        long statements = countStatements(() -> responses.addAll(purchaseRepository
+            .findByCustomerIdOrderByCreatedAtDesc(firstCustomer.getId()).stream()
+            .map(PurchaseResponse::new)
+            .collect(Collectors.toList())));
+
+        assertEquals(1, statements);
+        assertEquals(PURCHASES / CUSTOMERS, responses.size());
+    }
+
+    @Test
+    void sweepFindsOnlyUnpaidHoldsPastTheirDeadline() {
+        LocalDateTime now = LocalDateTime.now();
+        UUID oldest = persistHold(Purchase.PurchaseStatus.CREATED, now.minusMinutes(5));
+        UUID expired = persistHold(Purchase.PurchaseStatus.CREATED, now.minusMinutes(1));
+        persistHold(Purchase.PurchaseStatus.CREATED, now.plusMinutes(5));
+        persistHold(Purchase.PurchaseStatus.CANCELLED, now.minusMinutes(5));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(List.of(oldest, expired), purchaseRepository.lockExpiredHoldIds(
+            Purchase.PurchaseStatus.CREATED, now, PageRequest.of(0, 10)));
+        assertEquals(List.of(oldest), purchaseRepository.lockExpiredHoldIds(
+            Purchase.PurchaseStatus.CREATED, now, PageRequest.of(0, 1)));
+    }
+
+    private UUID persistHold(Purchase.PurchaseStatus status, LocalDateTime expiresAt) {
+        Purchase hold = new Purchase();
+        hold.setCustomer(entityManager.find(Customer.class, firstCustomer.getId()));
+        hold.setMovie(entityManager.find(Movie.class, firstMovie.getId()));
+        hold.setGenre("Drama");
+        hold.setQuantity(1);
+        hold.setTotalAmount(new BigDecimal("12.50"));
+        hold.setStatus(status);
+        hold.setHoldExpiresAt(expiresAt);
+        return entityManager.persist(hold).getId();
+    }
+
+    private List<PurchaseResponse> toResponses(Page<Purchase> page) {
+        return page.map(PurchaseResponse::new).getContent();
+    }
+
+    private long countStatements(Supplier<?> query) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        query.get();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,60 @@
+package com.johanfuertv.movietheaterbackend.security;
+
+import com.johanfuertv.movietheaterbackend.entity.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtTokenProviderTest {
+
+    private static final String OLD_SECRET = "oldSecretKey1234567890123456789012345678901";
+    private static final String NEW_SECRET = "newSecretKey1234567890123456789012345678901";
+
+    @Test
+    void verifiesTokenAndExposesCustomerClaims() {
+        JwtTokenProvider provider = new JwtTokenProvider(NEW_SECRET, 3600L, "k2", "");
+        CustomUserDetailsService.CustomUserPrincipal principal = principal();
+
+        VerifiedToken token = provider.verify(provider.generateToken(principal)).orElseThrow();
+
+        assertEquals("user@movietheater.com", token.getSubject());
+        assertEquals(principal.getCustomerId(), token.getCustomerId());
+        assertEquals("USER", token.getRoles());
+        assertEquals("k2", token.getKeyId());
+    }
+
+    @Test
+    void acceptsTokensSignedWithRetiredKeyAfterRotation() {
+        JwtTokenProvider before = new JwtTokenProvider(OLD_SECRET, 3600L, "k1", "");
+        JwtTokenProvider after = new JwtTokenProvider(NEW_SECRET, 3600L, "k2", "k1:" + OLD_SECRET);
+
+        String issuedBeforeRotation = before.generateToken(principal());
+
+        assertTrue(after.verify(issuedBeforeRotation).isPresent());
+    }
+
+    @Test
+    void rejectsTokensSignedWithUnknownKey() {
+        JwtTokenProvider other = new JwtTokenProvider(OLD_SECRET, 3600L, "k1", "");
+        JwtTokenProvider provider = new JwtTokenProvider(NEW_SECRET, 3600L, "k2", "");
+
+        assertFalse(provider.verify(other.generateToken(principal())).isPresent());
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        JwtTokenProvider provider = new JwtTokenProvider(NEW_SECRET, -1L, "k2", "");
+
+        assertFalse(provider.verify(provider.generateToken(principal())).isPresent());
+    }
+
+    private static CustomUserDetailsService.CustomUserPrincipal principal() {
+        Customer customer = new Customer("John", "Doe", "user@movietheater.com", "+0987654321", "hash");
+        customer.setId(UUID.randomUUID());
+        return new CustomUserDetailsService.CustomUserPrincipal(customer);
+    }
+}
@@ -0,0 +1,87 @@
+package com.johanfuertv.movietheaterbackend.security;
+
+import com.johanfuertv.movietheaterbackend.config.SecurityConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashMetricsTest {
+
+    @Test
+    void labelsHashesByAlgorithmAndCost() {
+        assertEquals("bcrypt-10", PasswordHashMetrics.costOf("$2a$10$abcdefghijklmnopqrstuv"));
+        assertEquals("bcrypt-12", PasswordHashMetrics.costOf("{bcrypt}$2b$12$abcdefghijklmnopqrstuv"));
+        assertEquals("pbkdf2", PasswordHashMetrics.costOf("{pbkdf2}0123456789abcdef"));
+        assertEquals("unknown", PasswordHashMetrics.costOf("plain"));
+    }
+
+    @Test
+    void histogramBucketsStayWithinAnEighthOfTheValue() {
+        for (long micros = 0; micros < 5_000_000; micros += 997) {
+            long bucketValue = PasswordHashMetrics.CostHistogram.valueAt(PasswordHashMetrics.CostHistogram.index(micros));
+            assertTrue(Math.abs(bucketValue - micros) <= micros / 8 + 1, "micros " + micros + " read back as " + bucketValue);
+        }
+    }
+
+    @Test
+    void reportsPercentilesPerCost() {
+        PasswordHashMetrics metrics = new PasswordHashMetrics();
+        for (int i = 1; i <= 100; i++) {
+            metrics.recordVerification("bcrypt-10", TimeUnit.MILLISECONDS.toNanos(i), i % 10 != 0);
+        }
+        metrics.recordVerification("bcrypt-12", TimeUnit.MILLISECONDS.toNanos(250), true);
+        metrics.recordRejected();
+
+        PasswordHashMetrics.LoginStats stats = metrics.getStats();
+        assertEquals(1L, stats.getRejected());
+        assertEquals(2, stats.getCosts().size());
+
+        PasswordHashMetrics.CostStats low = stats.getCosts().get(0);
+        assertEquals("bcrypt-10", low.getCost());
+        assertEquals(100L, low.getVerifications());
+        assertEquals(90L, low.getMatches());
+        assertEquals(50.5, low.getMeanMs(), 0.01);
+        assertEquals(50, low.getP50Ms(), 50 / 8.0);
+        assertEquals(99, low.getP99Ms(), 99 / 8.0);
+        assertEquals(100, low.getMaxMs(), 100 / 8.0);
+
+        assertEquals("bcrypt-12", stats.getCosts().get(1).getCost());
+        assertEquals(250, stats.getCosts().get(1).getP50Ms(), 250 / 8.0);
+    }
+
+    @Test
+    void legacyHashesMatchAndAreFlaggedForUpgrade() {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        PasswordHashMetrics metrics = new PasswordHashMetrics();
+        PasswordEncoder encoder = new MeteredPasswordEncoder(SecurityConfig.delegatingPasswordEncoder("bcrypt", 5), metrics);
+
+        assertTrue(encoder.matches("secret", legacy));
+        assertFalse(encoder.matches("wrong", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+
+        String upgraded = encoder.encode("secret");
+        assertTrue(upgraded.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(encoder.matches("secret", upgraded));
+        assertFalse(encoder.upgradeEncoding(upgraded));
+
+        assertEquals("bcrypt-04", metrics.getStats().getCosts().get(0).getCost());
+        assertEquals(2L, metrics.getStats().getCosts().get(0).getVerifications());
+        assertEquals(1L, metrics.getStats().getCosts().get(1).getMatches());
+    }
+
+    @Test
+    void switchingAlgorithmUpgradesBcryptHashes() {
+        PasswordEncoder encoder = SecurityConfig.delegatingPasswordEncoder("pbkdf2", 4);
+        String bcrypt = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret");
+
+        assertTrue(encoder.matches("secret", bcrypt));
+        assertTrue(encoder.upgradeEncoding(bcrypt));
+        assertTrue(encoder.encode("secret").startsWith("{pbkdf2}"));
+    }
+}
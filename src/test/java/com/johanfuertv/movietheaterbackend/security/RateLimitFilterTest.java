@@ -0,0 +1,100 @@
+package com.johanfuertv.movietheaterbackend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "maxBuckets", 100);
+        ReflectionTestUtils.setField(filter, "authClient", "2/m:2");
+        ReflectionTestUtils.setField(filter, "authGlobal", "3/m:3");
+        ReflectionTestUtils.setField(filter, "purchasesClient", "");
+        ReflectionTestUtils.setField(filter, "purchasesGlobal", "");
+        ReflectionTestUtils.setField(filter, "adminClient", "");
+        ReflectionTestUtils.setField(filter, "adminGlobal", "");
+        ReflectionTestUtils.setField(filter, "apiClient", "100/s:100");
+        ReflectionTestUtils.setField(filter, "apiGlobal", "");
+        filter.init();
+    }
+
+    @Test
+    void rejectsWith429AndRetryAfter() throws Exception {
+        assertEquals(200, login("10.0.0.1").getStatus());
+        assertEquals(200, login("10.0.0.1").getStatus());
+
+        MockHttpServletResponse rejected = login("10.0.0.1");
+        assertEquals(429, rejected.getStatus());
+        assertEquals("30", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Too many requests"));
+    }
+
+    @Test
+    void limitsEachClientAndTheGroupAsAWhole() throws Exception {
+        assertEquals(200, login("10.0.0.1").getStatus());
+        assertEquals(200, login("10.0.0.2").getStatus());
+        assertEquals(200, login("10.0.0.3").getStatus());
+        // Fourth client has its own tokens left but the group's global bucket is empty
+        assertEquals(429, login("10.0.0.4").getStatus());
+    }
+
+    @Test
+    void refusalsByTheGlobalLimitDoNotCostTheClient() {
+        long start = System.nanoTime();
+        for (int i = 1; i <= 3; i++) {
+            assertEquals(0, filter.acquire(RateLimitFilter.Group.AUTH, "ip:10.0.0." + i, start));
+        }
+        // Global bucket empty: refused twice, which would otherwise use up this client's burst
+        assertTrue(filter.acquire(RateLimitFilter.Group.AUTH, "ip:10.0.0.4", start) > 0);
+        assertTrue(filter.acquire(RateLimitFilter.Group.AUTH, "ip:10.0.0.4", start) > 0);
+
+        // 40s later the global bucket has two tokens again and the client still has its burst of two
+        long later = start + 40_000_000_000L;
+        assertEquals(0, filter.acquire(RateLimitFilter.Group.AUTH, "ip:10.0.0.4", later));
+        assertEquals(0, filter.acquire(RateLimitFilter.Group.AUTH, "ip:10.0.0.4", later));
+    }
+
+    @Test
+    void groupsRoutesAndLeavesNonApiPathsAlone() {
+        assertEquals(RateLimitFilter.Group.AUTH, RateLimitFilter.Group.of("POST", "/api/auth/login"));
+        assertEquals(RateLimitFilter.Group.PURCHASES, RateLimitFilter.Group.of("POST", "/api/purchases"));
+        assertEquals(RateLimitFilter.Group.API, RateLimitFilter.Group.of("GET", "/api/purchases/my-purchases"));
+        assertEquals(RateLimitFilter.Group.ADMIN, RateLimitFilter.Group.of("GET", "/api/admin/stats"));
+        assertNull(RateLimitFilter.Group.of("GET", "/uploads/posters/a.png"));
+    }
+
+    @Test
+    void dropsIdleBucketsOnSweep() {
+        long now = System.nanoTime();
+        filter.acquire(RateLimitFilter.Group.API, "ip:10.0.0.1", now - 10_000_000_000L);
+        filter.acquire(RateLimitFilter.Group.API, "ip:10.0.0.2", now + 10_000_000_000L);
+        assertEquals(2, filter.bucketCount());
+
+        filter.sweep();
+
+        assertEquals(1, filter.bucketCount());
+    }
+
+    private MockHttpServletResponse login(String address) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(address);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
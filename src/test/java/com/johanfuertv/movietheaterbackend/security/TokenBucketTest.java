@@ -0,0 +1,71 @@
+package com.johanfuertv.movietheaterbackend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsABurstThenTheSustainedRate() {
+        // One per second, up to three at once
+        TokenBucket bucket = new TokenBucket(TokenBucket.Limit.parse("1/s:3"), 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND, bucket.tryAcquire(0));
+
+        assertEquals(SECOND / 2, bucket.tryAcquire(SECOND / 2));
+        assertEquals(0, bucket.tryAcquire(SECOND));
+        assertEquals(SECOND, bucket.tryAcquire(SECOND));
+    }
+
+    @Test
+    void refillsToFullWhileIdle() {
+        TokenBucket bucket = new TokenBucket(TokenBucket.Limit.parse("2/s:2"), 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertFalse(bucket.isFull(SECOND / 2));
+        assertTrue(bucket.isFull(SECOND));
+        // Idle time is not banked beyond the burst
+        assertEquals(0, bucket.tryAcquire(10 * SECOND));
+        assertEquals(0, bucket.tryAcquire(10 * SECOND));
+        assertTrue(bucket.tryAcquire(10 * SECOND) > 0);
+    }
+
+    @Test
+    void refundGivesTheTokenBack() {
+        TokenBucket bucket = new TokenBucket(TokenBucket.Limit.parse("1/s:2"), 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+        assertTrue(bucket.tryAcquire(0) > 0);
+
+        bucket.refund();
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0) > 0);
+    }
+
+    @Test
+    void parsesLimits() {
+        assertNull(TokenBucket.Limit.parse(" "));
+        assertEquals("10/m:5", TokenBucket.Limit.parse("10/m:5").toString());
+        TokenBucket bucket = new TokenBucket(TokenBucket.Limit.parse("60/m"), 0);
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND, bucket.tryAcquire(0));
+
+        assertThrows(IllegalArgumentException.class, () -> TokenBucket.Limit.parse("10/d:5"));
+        assertThrows(IllegalArgumentException.class, () -> TokenBucket.Limit.parse("0/s:5"));
+        assertThrows(IllegalArgumentException.class, () -> TokenBucket.Limit.parse("ten"));
+    }
+}
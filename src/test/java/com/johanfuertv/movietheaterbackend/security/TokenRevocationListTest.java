@@ -0,0 +1,96 @@
+package com.johanfuertv.movietheaterbackend.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenRevocationListTest {
+
+    private static final long ACCESS_SECONDS = 900;
+
+    private TokenRevocationList revocations;
+
+    @BeforeEach
+    void setUp() {
+        revocations = new TokenRevocationList();
+        ReflectionTestUtils.setField(revocations, "accessTokenSeconds", ACCESS_SECONDS);
+        ReflectionTestUtils.setField(revocations, "expectedEntries", 1000);
+        ReflectionTestUtils.setField(revocations, "falsePositiveRate", 0.001);
+        revocations.init();
+    }
+
+    @Test
+    void revokesCustomerTokensIssuedUpToTheCutoff() {
+        UUID customerId = UUID.randomUUID();
+        revocations.revokeCustomer(customerId, 10_000);
+
+        assertTrue(revocations.isRevoked(token(customerId, 9_000)));
+        assertTrue(revocations.isRevoked(token(customerId, 10_000)));
+        assertFalse(revocations.isRevoked(token(customerId, 11_000)));
+        assertFalse(revocations.isRevoked(token(UUID.randomUUID(), 9_000)));
+    }
+
+    @Test
+    void revokesSingleTokens() {
+        UUID customerId = UUID.randomUUID();
+        VerifiedToken loggedOut = token(customerId, 10_000);
+        revocations.revokeToken(loggedOut.getTokenId(), 20_000);
+
+        assertTrue(revocations.isRevoked(loggedOut));
+        assertFalse(revocations.isRevoked(token(customerId, 10_000)));
+    }
+
+    @Test
+    void sweepForgetsEntriesOnceTheirTokensHaveExpired() {
+        UUID customerId = UUID.randomUUID();
+        revocations.revokeCustomer(customerId, 10_000);
+        revocations.revokeToken(UUID.randomUUID().toString(), 20_000);
+
+        revocations.sweep(10_000 + ACCESS_SECONDS * 1000);
+        assertEquals(1, revocations.getStats().getRevokedCustomers());
+        assertEquals(0, revocations.getStats().getRevokedTokens());
+
+        revocations.sweep(10_000 + ACCESS_SECONDS * 1000 + 10_000);
+        assertEquals(0, revocations.getStats().getRevokedCustomers());
+        assertFalse(revocations.isRevoked(token(customerId, 9_000)));
+    }
+
+    @Test
+    void bloomFilterStaysNearItsFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.001);
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            filter.add(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            assertTrue(filter.mightContain(id.getMostSignificantBits(), id.getLeastSignificantBits()));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            UUID id = UUID.randomUUID();
+            if (filter.mightContain(id.getMostSignificantBits(), id.getLeastSignificantBits())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    private static VerifiedToken token(UUID customerId, long issuedAtMillis) {
+        Claims claims = Jwts.claims();
+        claims.setSubject("user@movietheater.com");
+        claims.setId(UUID.randomUUID().toString());
+        claims.setIssuedAt(new Date(issuedAtMillis));
+        claims.setExpiration(new Date(issuedAtMillis + ACCESS_SECONDS * 1000));
+        claims.put(JwtTokenProvider.CLAIM_CUSTOMER_ID, customerId.toString());
+        claims.put(JwtTokenProvider.CLAIM_ROLES, "USER");
+        return new VerifiedToken(claims, "k1");
+    }
+}
@@ -0,0 +1,267 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.config.SecurityConfig;
+import com.johanfuertv.movietheaterbackend.dto.request.LoginRequest;
+import com.johanfuertv.movietheaterbackend.dto.request.RegisterRequest;
+import com.johanfuertv.movietheaterbackend.dto.response.LoginResponse;
+import com.johanfuertv.movietheaterbackend.exception.ConflictException;
+import com.johanfuertv.movietheaterbackend.repository.CustomerRepository;
+import com.johanfuertv.movietheaterbackend.repository.EmailOutboxRepository;
+import com.johanfuertv.movietheaterbackend.repository.RefreshTokenRepository;
+import com.johanfuertv.movietheaterbackend.repository.RevokedAccessTokenRepository;
+import com.johanfuertv.movietheaterbackend.security.CustomUserDetailsService;
+import com.johanfuertv.movietheaterbackend.security.JwtTokenProvider;
+import com.johanfuertv.movietheaterbackend.security.PasswordHashMetrics;
+import com.johanfuertv.movietheaterbackend.security.PasswordVerificationExecutor;
+import com.johanfuertv.movietheaterbackend.security.TokenRevocationList;
+import com.johanfuertv.movietheaterbackend.security.VerifiedToken;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the SQL statements of repeated logins and registrations. Before, a login loaded the
+ * customer twice (once to authenticate, once for the response) and a registration checked
+ * the email before inserting; each is now a single statement against customers. A login
+ * also inserts its refresh token.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false"
+})
+class AuthServiceTest {
+
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RevokedAccessTokenRepository revokedAccessTokenRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final PasswordEncoder passwordEncoder = SecurityConfig.delegatingPasswordEncoder("bcrypt", 4);
+
+    private final JwtTokenProvider tokenProvider =
+        new JwtTokenProvider("testSecretKey123456789012345678901234567890", 3600L, "k1", "");
+
+    private AuthService authService;
+    private TokenRevocationList revocations;
+
+    @BeforeEach
+    void setUp() {
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService();
+        ReflectionTestUtils.setField(userDetailsService, "customerRepository", customerRepository);
+
+        PasswordVerificationExecutor verificationExecutor = new PasswordVerificationExecutor();
+        ReflectionTestUtils.setField(verificationExecutor, "metrics", new PasswordHashMetrics());
+        ReflectionTestUtils.setField(verificationExecutor, "threads", 1);
+        ReflectionTestUtils.setField(verificationExecutor, "queueCapacity", 4);
+        ReflectionTestUtils.invokeMethod(verificationExecutor, "start");
+
+        EmailOutboxService emailOutboxService = new EmailOutboxService();
+        ReflectionTestUtils.setField(emailOutboxService, "emailOutboxRepository", emailOutboxRepository);
+        ReflectionTestUtils.setField(emailOutboxService, "eventPublisher", (ApplicationEventPublisher) event -> { });
+
+        RefreshTokenService refreshTokenService = new RefreshTokenService();
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenRepository", refreshTokenRepository);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshSeconds", 3600L);
+
+        authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "customerRepository", customerRepository);
+        ReflectionTestUtils.setField(authService, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(authService, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(authService, "passwordVerificationExecutor", verificationExecutor);
+        ReflectionTestUtils.setField(authService, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(authService, "emailOutboxService", emailOutboxService);
+        ReflectionTestUtils.setField(authService, "refreshTokenService", refreshTokenService);
+        revocations = revocationList();
+        ReflectionTestUtils.setField(authService, "tokenRevocationList", revocations);
+        ReflectionTestUtils.setField(authService, "revokedAccessTokenRepository", revokedAccessTokenRepository);
+    }
+
+    @Test
+    void registrationIsOneCustomerInsertPlusTheWelcomeEmail() {
+        long statements = countStatements(() -> {
+            for (int i = 0; i < ROUNDS; i++) {
+                authService.register(registerRequest("new" + i + "@example.com"));
+            }
+            entityManager.flush();
+        });
+
+        // Previously three per registration: the existence check, the insert and the outbox row
+        assertEquals(2L * ROUNDS, statements);
+    }
+
+    @Test
+    void duplicateEmailIsAConflict() {
+        authService.register(registerRequest("taken@example.com"));
+        entityManager.clear();
+
+        ConflictException e = assertThrows(ConflictException.class,
+            () -> authService.register(registerRequest("taken@example.com")));
+        assertEquals("Email already exists: taken@example.com", e.getMessage());
+    }
+
+    @Test
+    void otherIntegrityViolationsAreNotReportedAsDuplicates() {
+        // A valid address longer than the 255 characters the column holds
+        String label = "d".repeat(50);
+        String email = "u".repeat(60) + "@" + String.join(".", label, label, label, label) + ".com";
+
+        assertThrows(DataIntegrityViolationException.class, () -> authService.register(registerRequest(email)));
+    }
+
+    @Test
+    void loginIsOneSelectPlusTheRefreshToken() {
+        for (int i = 0; i < ROUNDS; i++) {
+            authService.register(registerRequest("user" + i + "@example.com"));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        long statements = countStatements(() -> {
+            for (int i = 0; i < ROUNDS; i++) {
+                LoginResponse response = authService.login(loginRequest("user" + i + "@example.com"));
+                assertEquals("user" + i + "@example.com", response.getUser().getEmail());
+            }
+            entityManager.flush();
+        });
+
+        // Previously two lookups per login: one to authenticate and one to build the response
+        assertEquals(2L * ROUNDS, statements);
+    }
+
+    @Test
+    void onlyThePasswordCheckRunsOnTheVerificationThreads() {
+        authService.register(registerRequest("pooled@example.com"));
+        entityManager.flush();
+        entityManager.clear();
+
+        // The customer is only visible inside this test's open transaction, so the lookup and
+        // the refresh token insert can only have succeeded on this thread
+        List<String> hashingThreads = new CopyOnWriteArrayList<>();
+        ReflectionTestUtils.setField(authService, "passwordEncoder", new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashingThreads.add(Thread.currentThread().getName());
+                return passwordEncoder.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                hashingThreads.add(Thread.currentThread().getName());
+                return passwordEncoder.matches(rawPassword, encodedPassword);
+            }
+        });
+
+        authService.login(loginRequest("pooled@example.com"));
+
+        assertEquals(List.of("password-verify-1"), hashingThreads);
+    }
+
+    @Test
+    void outdatedHashCostsOneUpdateOnce() {
+        authService.register(registerRequest("legacy@example.com"));
+        entityManager.flush();
+        entityManager.clear();
+        // Stored as before encoders were prefixed
+        customerRepository.updatePasswordHash(
+            customerRepository.findByEmail("legacy@example.com").orElseThrow().getId(),
+            new BCryptPasswordEncoder(4).encode("secret123"));
+        entityManager.clear();
+
+        assertEquals(3, countStatements(() -> {
+            authService.login(loginRequest("legacy@example.com"));
+            entityManager.flush();
+        }));
+        entityManager.clear();
+        assertEquals(2, countStatements(() -> {
+            authService.login(loginRequest("legacy@example.com"));
+            entityManager.flush();
+        }));
+    }
+
+    @Test
+    void logoutRevokesTheAccessTokenOnOtherInstancesAfterTheirSync() {
+        authService.register(registerRequest("leaving@example.com"));
+        LoginResponse login = authService.login(loginRequest("leaving@example.com"));
+        VerifiedToken token = tokenProvider.verify(login.getToken()).orElseThrow();
+        TokenRevocationList otherInstance = revocationList();
+
+        authService.logout(login.getRefreshToken(), login.getToken());
+        entityManager.flush();
+
+        assertTrue(revocations.isRevoked(token));
+        assertFalse(otherInstance.isRevoked(token));
+        ReflectionTestUtils.invokeMethod(otherInstance, "sync");
+        assertTrue(otherInstance.isRevoked(token));
+    }
+
+    private TokenRevocationList revocationList() {
+        TokenRevocationList list = new TokenRevocationList();
+        ReflectionTestUtils.setField(list, "customerRepository", customerRepository);
+        ReflectionTestUtils.setField(list, "revokedAccessTokenRepository", revokedAccessTokenRepository);
+        ReflectionTestUtils.setField(list, "accessTokenSeconds", 3600L);
+        ReflectionTestUtils.setField(list, "expectedEntries", 1000);
+        ReflectionTestUtils.setField(list, "falsePositiveRate", 0.001);
+        ReflectionTestUtils.invokeMethod(list, "init");
+        return list;
+    }
+
+    private RegisterRequest registerRequest(String email) {
+        RegisterRequest request = new RegisterRequest();
+        request.setFirstName("Test");
+        request.setLastName("User");
+        request.setEmail(email);
+        request.setPhone("3000000000");
+        request.setPassword("secret123");
+        return request;
+    }
+
+    private LoginRequest loginRequest(String email) {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(email);
+        request.setPassword("secret123");
+        return request;
+    }
+
+    private long countStatements(Runnable work) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        work.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,89 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.johanfuertv.movietheaterbackend.dto.response.ApiResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CatalogSnapshotsTest {
+
+    private CatalogSnapshots snapshots;
+
+    @BeforeEach
+    void setUp() {
+        snapshots = new CatalogSnapshots();
+        ReflectionTestUtils.setField(snapshots, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(snapshots, "enabled", true);
+        ReflectionTestUtils.setField(snapshots, "gzip", true);
+        ReflectionTestUtils.setField(snapshots, "maxEntries", 10);
+    }
+
+    @Test
+    void encodesOnceUntilInvalidated() {
+        AtomicInteger encodings = new AtomicInteger();
+
+        CatalogSnapshots.Snapshot first = snapshots.get("genres", () -> {
+            encodings.incrementAndGet();
+            return ApiResponse.success("Genres retrieved successfully", List.of("Drama"));
+        });
+        CatalogSnapshots.Snapshot second = snapshots.get("genres", () -> {
+            encodings.incrementAndGet();
+            return ApiResponse.success("Genres retrieved successfully", List.of("Drama"));
+        });
+
+        assertSame(first, second);
+        assertEquals("{\"success\":true,\"message\":\"Genres retrieved successfully\",\"data\":[\"Drama\"]}",
+                     new String(first.getJson(), StandardCharsets.UTF_8));
+        // Too small to be worth compressing
+        assertNull(first.getGzip());
+
+        snapshots.invalidate();
+        snapshots.get("genres", () -> {
+            encodings.incrementAndGet();
+            return ApiResponse.success("Genres retrieved successfully", List.of("Comedy"));
+        });
+        assertEquals(2, encodings.get());
+    }
+
+    @Test
+    void keepsAGzipCopyOfLargerBodies() throws IOException {
+        CatalogSnapshots.Snapshot snapshot = snapshots.get("movies::0",
+            () -> ApiResponse.success("Movies retrieved successfully", Collections.nCopies(100, "Dune: Part Two")));
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzip()))) {
+            assertArrayEquals(snapshot.getJson(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void doesNotKeepAnEncodingThatRacedWithAWrite() {
+        AtomicInteger encodings = new AtomicInteger();
+
+        snapshots.get("genres", () -> {
+            encodings.incrementAndGet();
+            // A catalog write lands while this body is being built
+            snapshots.invalidate();
+            return ApiResponse.success("Genres retrieved successfully", List.of("Drama"));
+        });
+        snapshots.get("genres", () -> {
+            encodings.incrementAndGet();
+            return ApiResponse.success("Genres retrieved successfully", List.of("Comedy"));
+        });
+
+        assertEquals(2, encodings.get());
+    }
+}
@@ -0,0 +1,159 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.repository.CustomerRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admin customer search against PostgreSQL: the trigram search from
+ * {@link CustomerRepository#searchActiveCustomers} next to the previous
+ * {@code LOWER(...) LIKE '%q%'} scan, over a generated 5M-customer table.
+ *
+ * Needs a scratch database; the table is filled on first run (several minutes) and reused
+ * afterwards. Point it at the database with DB_URL, DB_USER and DB_PASSWORD, then run:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.johanfuertv.movietheaterbackend.service.CustomerSearchBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class CustomerSearchBenchmark {
+
+    private static final int CUSTOMERS = 5_000_000;
+
+    private static final String FUZZY_SQL =
+        "SELECT c.id FROM customers c WHERE " + CustomerRepository.FUZZY_MATCH.replace(":pattern", "?").replace(":query", "?") +
+        " ORDER BY word_similarity(?, " + CustomerRepository.SEARCH_TEXT + ") DESC, c.email LIMIT 10";
+
+    private static final String LIKE_SQL =
+        "SELECT c.id FROM customers c WHERE c.active = true AND " +
+        "(LOWER(c.first_name) LIKE ? OR LOWER(c.last_name) LIKE ? OR LOWER(c.email) LIKE ?) " +
+        "ORDER BY c.created_at DESC LIMIT 10";
+
+    // Exact word, misspelled name, email fragment
+    @Param({"katherine", "katherin jonhson", "hotmail"})
+    public String query;
+
+    private Connection connection;
+    private PreparedStatement fuzzy;
+    private PreparedStatement like;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+            System.getenv().getOrDefault("DB_URL", "jdbc:postgresql://localhost:5432/movie_theater_bench"),
+            System.getenv().getOrDefault("DB_USER", "postgres"),
+            System.getenv().getOrDefault("DB_PASSWORD", "postgres"));
+        seed(connection);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET pg_trgm.word_similarity_threshold = 0.4");
+        }
+        fuzzy = connection.prepareStatement(FUZZY_SQL);
+        like = connection.prepareStatement(LIKE_SQL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int trigram() throws SQLException {
+        String pattern = CustomerService.likePattern(query);
+        fuzzy.setString(1, pattern);
+        fuzzy.setString(2, query);
+        fuzzy.setString(3, query);
+        return count(fuzzy);
+    }
+
+    @Benchmark
+    public int substringScan() throws SQLException {
+        String pattern = "%" + query + "%";
+        like.setString(1, pattern);
+        like.setString(2, pattern);
+        like.setString(3, pattern);
+        return count(like);
+    }
+
+    private static int count(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static void seed(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            statement.execute("CREATE TABLE IF NOT EXISTS customers (" +
+                "id UUID PRIMARY KEY DEFAULT gen_random_uuid(), first_name VARCHAR(100) NOT NULL, " +
+                "last_name VARCHAR(100) NOT NULL, email VARCHAR(255) UNIQUE NOT NULL, phone VARCHAR(20) NOT NULL, " +
+                "password_hash VARCHAR(255) NOT NULL, roles VARCHAR(50) NOT NULL DEFAULT 'USER', " +
+                "active BOOLEAN NOT NULL DEFAULT true, created_at TIMESTAMP NOT NULL DEFAULT NOW(), updated_at TIMESTAMP)");
+
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM customers")) {
+                rs.next();
+                if (rs.getLong(1) >= CUSTOMERS) {
+                    return;
+                }
+            }
+
+            // Names combine common first and last names, so searches hit realistic bucket sizes
+            statement.execute("TRUNCATE customers");
+            statement.execute(
+                "INSERT INTO customers (first_name, last_name, email, phone, password_hash, active, created_at) " +
+                "SELECT f.name, l.name, lower(f.name || '.' || l.name || i || '@' || d.name), '555-0100', 'x', " +
+                "i % 20 <> 0, NOW() - (i || ' seconds')::interval " +
+                "FROM generate_series(1, " + CUSTOMERS + ") i, " +
+                "LATERAL (SELECT (ARRAY['James','Mary','Katherine','Robert','Patricia','John','Jennifer','Michael'," +
+                "'Linda','William','Elizabeth','David','Barbara','Richard','Susan','Joseph','Jessica','Thomas'," +
+                "'Sarah','Charles','Maria','Daniel','Lucia','Mateo','Sofia','Santiago','Valentina','Sebastian'])" +
+                "[1 + (i * 7) % 28] AS name) f, " +
+                "LATERAL (SELECT (ARRAY['Smith','Johnson','Williams','Brown','Jones','Garcia','Miller','Davis'," +
+                "'Rodriguez','Martinez','Hernandez','Lopez','Gonzalez','Wilson','Anderson','Thomas','Taylor'," +
+                "'Moore','Jackson','Martin','Lee','Perez','Thompson','White','Harris','Sanchez','Clark','Ramirez'," +
+                "'Lewis','Robinson','Walker','Young','Allen','King','Wright','Scott','Torres','Nguyen','Hill'])" +
+                "[1 + (i * 13) % 39] AS name) l, " +
+                "LATERAL (SELECT (ARRAY['gmail.com','hotmail.com','yahoo.com','outlook.com','example.org'])" +
+                "[1 + i % 5] AS name) d");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_customers_search_trgm ON customers " +
+                "USING GIN (lower(first_name || ' ' || last_name || ' ' || email) gin_trgm_ops) WHERE active = true");
+            statement.execute("ANALYZE customers");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(CustomerSearchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,21 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CustomerServiceTest {
+
+    @Test
+    void normalizesQueriesLikeTheIndexedText() {
+        assertEquals("jonh smith", CustomerService.normalizeQuery("  Jonh \t SMITH "));
+        assertEquals("", CustomerService.normalizeQuery("   "));
+        assertEquals("", CustomerService.normalizeQuery(null));
+    }
+
+    @Test
+    void escapesLikeWildcards() {
+        assertEquals("100\\% a\\_b c\\\\d", CustomerService.likePattern("100% a_b c\\d"));
+        assertEquals("maria@example.com", CustomerService.likePattern("maria@example.com"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailBatchSenderTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Test
+    void sendsWholeGroupOverOneConnection() throws Exception {
+        CountingMailSender mailSender = mailSender(ServerSetupTest.SMTP.getPort());
+        EmailBatchSender batchSender = new EmailBatchSender(mailSender);
+
+        List<MimeMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            messages.add(message(mailSender, "customer" + i + "@example.com"));
+        }
+
+        Map<Integer, String> failures = batchSender.send(messages);
+
+        assertTrue(failures.isEmpty());
+        assertEquals(1, mailSender.connections.get());
+        assertEquals(5, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void reportsOnlyTheFailedMessages() throws Exception {
+        CountingMailSender mailSender = mailSender(ServerSetupTest.SMTP.getPort());
+        EmailBatchSender batchSender = new EmailBatchSender(mailSender);
+
+        MimeMessage withoutRecipient = mailSender.createMimeMessage();
+        new MimeMessageHelper(withoutRecipient).setText("no recipient");
+
+        Map<Integer, String> failures = batchSender.send(List.of(
+            message(mailSender, "first@example.com"),
+            withoutRecipient,
+            message(mailSender, "third@example.com")));
+
+        assertEquals(Map.of(1, failures.get(1)), failures);
+        assertEquals(2, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void failsEveryMessageWhenTheServerIsUnreachable() throws Exception {
+        // Nothing listens one port above the fake server
+        CountingMailSender mailSender = mailSender(ServerSetupTest.SMTP.getPort() + 1);
+        EmailBatchSender batchSender = new EmailBatchSender(mailSender);
+
+        Map<Integer, String> failures = batchSender.send(List.of(
+            message(mailSender, "first@example.com"),
+            message(mailSender, "second@example.com")));
+
+        assertEquals(2, failures.size());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+
+    private static CountingMailSender mailSender(int port) {
+        CountingMailSender mailSender = new CountingMailSender();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        return mailSender;
+    }
+
+    private static MimeMessage message(JavaMailSenderImpl mailSender, String to) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setTo(to);
+        helper.setFrom("noreply@movietheater.com");
+        helper.setSubject("Purchase Confirmation - Movie Theater");
+        helper.setText("<p>Enjoy the movie</p>", true);
+        return message;
+    }
+
+    private static class CountingMailSender extends JavaMailSenderImpl {
+        private final AtomicInteger connections = new AtomicInteger();
+
+        @Override
+        protected Transport connectTransport() throws MessagingException {
+            connections.incrementAndGet();
+            return super.connectTransport();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.entity.Movie;
+import com.johanfuertv.movietheaterbackend.entity.Purchase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.thymeleaf.TemplateEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders 10,000 purchase confirmations per operation, with Thymeleaf processing every email
+ * versus the per-movie compiled templates of {@link EmailTemplateRenderer}.
+ *
+ * Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.johanfuertv.movietheaterbackend.service.EmailRenderingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailRenderingBenchmark {
+
+    private static final int EMAILS = 10_000;
+
+    // Number of distinct movies the purchases are spread over
+    @Param({"1", "100"})
+    public int movies;
+
+    private TemplateEngine templateEngine;
+    private EmailTemplateRenderer renderer;
+    private List<Purchase> purchases;
+
+    @Setup
+    public void setUp() {
+        templateEngine = EmailTemplateRendererTest.templateEngine();
+        renderer = new EmailTemplateRenderer(templateEngine, 256);
+
+        List<Movie> catalog = new ArrayList<>();
+        for (int i = 0; i < movies; i++) {
+            catalog.add(EmailTemplateRendererTest.movie("Movie " + i));
+        }
+        purchases = new ArrayList<>(EMAILS);
+        for (int i = 0; i < EMAILS; i++) {
+            purchases.add(EmailTemplateRendererTest.purchase(catalog.get(i % movies), "Customer" + i, "Lastname"));
+        }
+    }
+
+    @Benchmark
+    public void thymeleafPerEmail(Blackhole blackhole) {
+        for (Purchase purchase : purchases) {
+            blackhole.consume(templateEngine.process(EmailTemplateRenderer.PURCHASE_TEMPLATE,
+                                                     EmailTemplateRenderer.purchaseContext(purchase)));
+        }
+    }
+
+    @Benchmark
+    public void compiledPerMovie(Blackhole blackhole) {
+        for (Purchase purchase : purchases) {
+            blackhole.consume(renderer.renderPurchaseConfirmation(purchase));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(EmailRenderingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.entity.Customer;
+import com.johanfuertv.movietheaterbackend.entity.Movie;
+import com.johanfuertv.movietheaterbackend.entity.Purchase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailTemplateRendererTest {
+
+    private TemplateEngine templateEngine;
+    private EmailTemplateRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        templateEngine = templateEngine();
+        renderer = new EmailTemplateRenderer(templateEngine, 2);
+    }
+
+    @Test
+    void rendersTheSameHtmlAsThymeleaf() {
+        Purchase purchase = purchase(movie("Dune: Part Two"), "Ana <script>", "O'Neil & Sons");
+
+        String expected = templateEngine.process(EmailTemplateRenderer.PURCHASE_TEMPLATE,
+                                                 EmailTemplateRenderer.purchaseContext(purchase));
+
+        assertEquals(expected, renderer.renderPurchaseConfirmation(purchase));
+        assertTrue(expected.contains("Ana &lt;script&gt;"));
+    }
+
+    @Test
+    void compilesOncePerMovieAndFillsPerCustomerFields() {
+        Movie movie = movie("Oppenheimer");
+        Purchase first = purchase(movie, "Ana", "Gomez");
+        Purchase second = purchase(movie, "Luis", "Perez");
+
+        String firstHtml = renderer.renderPurchaseConfirmation(first);
+        String secondHtml = renderer.renderPurchaseConfirmation(second);
+
+        assertEquals(1, renderer.getCachedMovieTemplates());
+        assertTrue(firstHtml.contains("Ana Gomez") && firstHtml.contains(first.getId().toString()));
+        assertTrue(secondHtml.contains("Luis Perez") && secondHtml.contains(second.getId().toString()));
+    }
+
+    @Test
+    void editedMovieGetsFreshStaticParts() {
+        Movie movie = movie("Barbie");
+        renderer.renderPurchaseConfirmation(purchase(movie, "Ana", "Gomez"));
+
+        movie.setTitle("Barbie (Extended)");
+        String html = renderer.renderPurchaseConfirmation(purchase(movie, "Ana", "Gomez"));
+
+        assertTrue(html.contains("Barbie (Extended)"));
+        assertEquals(2, renderer.getCachedMovieTemplates());
+    }
+
+    @Test
+    void rendersWelcomeEmail() {
+        String html = renderer.renderWelcome("Ana & Luis");
+
+        assertTrue(html.contains("Welcome to Movie Theater, Ana &amp; Luis!"));
+        assertEquals(html.replace("Ana &amp; Luis", "Bob"), renderer.renderWelcome("Bob"));
+    }
+
+    static TemplateEngine templateEngine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+
+    static Movie movie(String title) {
+        Movie movie = new Movie();
+        movie.setId(UUID.randomUUID());
+        movie.setTitle(title);
+        movie.setGenre("Drama");
+        movie.setDurationMin(148);
+        movie.setPrice(new BigDecimal("12.50"));
+        return movie;
+    }
+
+    static Purchase purchase(Movie movie, String firstName, String lastName) {
+        Customer customer = new Customer(firstName, lastName, firstName.toLowerCase() + "@example.com", "+1234567890", "hash");
+        Purchase purchase = new Purchase(customer, movie, 2, new BigDecimal("25.00"));
+        purchase.setId(UUID.randomUUID());
+        purchase.setStatus(Purchase.PurchaseStatus.PAID);
+        purchase.setCreatedAt(LocalDateTime.of(2025, 3, 14, 19, 30));
+        return purchase;
+    }
+}
@@ -0,0 +1,139 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import org.apache.catalina.core.ApplicationPart;
+import org.apache.tomcat.util.http.fileupload.FileItem;
+import org.apache.tomcat.util.http.fileupload.disk.DiskFileItem;
+import org.apache.tomcat.util.http.fileupload.disk.DiskFileItemFactory;
+import org.apache.tomcat.util.http.fileupload.util.FileItemHeadersImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.support.StandardMultipartHttpServletRequest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalStorageServiceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void movesSpooledTomcatPartIntoPlace() throws IOException {
+        Path spoolDir = Files.createDirectories(dir.resolve("spool"));
+        byte[] content = randomBytes(5 * 1024 * 1024 + 3);
+        DiskFileItem item = (DiskFileItem) spooledItem(content, 0, spoolDir);
+        File spooled = item.getStoreLocation();
+        assertTrue(spooled.exists());
+
+        String url = storage().store(multipartFile(item, spoolDir), "posters");
+
+        assertTrue(url.startsWith("/uploads/posters/") && url.endsWith(".png"));
+        assertArrayEquals(content, Files.readAllBytes(uploadsDir().resolve(url.substring("/uploads/".length()))));
+        // Renamed rather than copied: the container's spool file is gone
+        assertFalse(spooled.exists());
+        assertEquals(List.of(), listFiles(spoolDir));
+    }
+
+    @Test
+    void writesInMemoryTomcatPart() throws IOException {
+        Path spoolDir = Files.createDirectories(dir.resolve("spool"));
+        byte[] content = randomBytes(4096);
+        FileItem item = spooledItem(content, 1024 * 1024, spoolDir);
+
+        String url = storage().store(multipartFile(item, spoolDir), "posters");
+
+        assertArrayEquals(content, Files.readAllBytes(uploadsDir().resolve(url.substring("/uploads/".length()))));
+    }
+
+    @Test
+    void failedTransferOnlyRemovesItsOwnPartialFile() throws IOException {
+        Path folder = Files.createDirectories(dir.resolve("posters"));
+        Path existing = Files.write(folder.resolve("existing.png"), new byte[] {1, 2, 3});
+        MockMultipartFile broken = new MockMultipartFile("file", "poster.png", "image/png", new byte[] {4}) {
+            @Override
+            public void transferTo(File dest) throws IOException {
+                throw new IOException("client went away");
+            }
+        };
+
+        assertThrows(IOException.class, () -> LocalStorageService.transfer(broken, existing));
+
+        assertArrayEquals(new byte[] {1, 2, 3}, Files.readAllBytes(existing));
+        assertEquals(List.of("existing.png"), listFiles(folder));
+    }
+
+    @Test
+    void neverReplacesAnExistingFile() throws IOException {
+        Path folder = Files.createDirectories(dir.resolve("posters"));
+        Path existing = Files.write(folder.resolve("existing.png"), new byte[] {1, 2, 3});
+        MockMultipartFile upload = new MockMultipartFile("file", "poster.png", "image/png", new byte[] {4});
+
+        assertThrows(IOException.class, () -> LocalStorageService.transfer(upload, existing));
+
+        assertArrayEquals(new byte[] {1, 2, 3}, Files.readAllBytes(existing));
+        assertEquals(List.of("existing.png"), listFiles(folder));
+    }
+
+    private LocalStorageService storage() {
+        LocalStorageService storage = new LocalStorageService();
+        ReflectionTestUtils.setField(storage, "uploadDir", uploadsDir().toString());
+        return storage;
+    }
+
+    private Path uploadsDir() {
+        return dir.resolve("uploads");
+    }
+
+    /**
+     * Builds the part the way Tomcat's multipart parser does, spooling to disk once the
+     * content exceeds the threshold.
+     */
+    private static FileItem spooledItem(byte[] content, int threshold, Path spoolDir) throws IOException {
+        FileItem item = new DiskFileItemFactory(threshold, spoolDir.toFile())
+            .createItem("file", "image/png", false, "poster.png");
+        try (OutputStream out = item.getOutputStream()) {
+            out.write(content);
+        }
+        FileItemHeadersImpl headers = new FileItemHeadersImpl();
+        headers.addHeader("Content-Disposition", "form-data; name=\"file\"; filename=\"poster.png\"");
+        headers.addHeader("Content-Type", "image/png");
+        item.setHeaders(headers);
+        return item;
+    }
+
+    private static MultipartFile multipartFile(FileItem item, Path spoolDir) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/admin/movies/1/poster");
+        request.setContentType("multipart/form-data; boundary=test");
+        request.addPart(new ApplicationPart(item, spoolDir.toFile()));
+        return new StandardMultipartHttpServletRequest(request).getFile("file");
+    }
+
+    private static List<String> listFiles(Path folder) throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,128 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.dto.response.MovieResponse;
+import com.johanfuertv.movietheaterbackend.entity.Movie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MovieCatalogCacheTest {
+
+    private MovieCatalogCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new MovieCatalogCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxMovies", 2);
+        ReflectionTestUtils.setField(cache, "maxPages", 10);
+        ReflectionTestUtils.setField(cache, "maxAgeSeconds", 60L);
+        cache.init();
+    }
+
+    @Test
+    void servesRepeatedLookupsFromCache() {
+        MovieResponse movie = movie("Action");
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getMovie(movie.getId(), () -> { loads.incrementAndGet(); return movie; });
+        MovieResponse cached = cache.getMovie(movie.getId(), () -> { loads.incrementAndGet(); return movie; });
+
+        assertSame(movie, cached);
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.getStats().getHits());
+        assertEquals(1L, cache.getStats().getMisses());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedMovieWhenFull() {
+        MovieResponse first = movie("Action");
+        MovieResponse second = movie("Drama");
+        MovieResponse third = movie("Horror");
+
+        cache.getMovie(first.getId(), () -> first);
+        cache.getMovie(second.getId(), () -> second);
+        cache.getMovie(third.getId(), () -> third);
+
+        assertEquals(2, cache.getStats().getMovieEntries());
+        assertEquals(1L, cache.getStats().getEvictions());
+    }
+
+    @Test
+    void writeOnlyDropsPagesOfAffectedGenre() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        AtomicInteger loads = new AtomicInteger();
+        MovieResponse action = movie("Action");
+
+        cache.getPage(null, "Action", pageable, () -> { loads.incrementAndGet(); return page(action); });
+        cache.getPage(null, "Drama", pageable, () -> { loads.incrementAndGet(); return page(); });
+        cache.getPage(null, null, pageable, () -> { loads.incrementAndGet(); return page(action); });
+
+        cache.movieChanged(action, null);
+
+        cache.getPage(null, "action", pageable, () -> { loads.incrementAndGet(); return page(action); });
+        cache.getPage(null, "Drama", pageable, () -> { loads.incrementAndGet(); return page(); });
+        cache.getPage(null, null, pageable, () -> { loads.incrementAndGet(); return page(action); });
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void disabledMovieIsNoLongerServed() {
+        MovieResponse movie = movie("Action");
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getMovie(movie.getId(), () -> movie);
+        cache.movieRemoved(movie.getId(), movie.getGenre());
+        cache.getMovie(movie.getId(), () -> { loads.incrementAndGet(); return movie; });
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void reloadsEntriesOlderThanMaxAge() {
+        long[] now = {1_000_000L};
+        cache.clock = () -> now[0];
+        MovieResponse movie = movie("Action");
+        PageRequest pageable = PageRequest.of(0, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getMovie(movie.getId(), () -> { loads.incrementAndGet(); return movie; });
+        cache.getPage(null, "Action", pageable, () -> { loads.incrementAndGet(); return page(movie); });
+        cache.getGenres(() -> { loads.incrementAndGet(); return List.of("Action"); });
+
+        now[0] += 59_000;
+        cache.getMovie(movie.getId(), () -> { loads.incrementAndGet(); return movie; });
+        cache.getPage(null, "Action", pageable, () -> { loads.incrementAndGet(); return page(movie); });
+        cache.getGenres(() -> { loads.incrementAndGet(); return List.of("Action"); });
+        assertEquals(3, loads.get());
+
+        // A write made on another instance is picked up once the entries expire
+        now[0] += 2_000;
+        cache.getMovie(movie.getId(), () -> { loads.incrementAndGet(); return movie; });
+        cache.getPage(null, "Action", pageable, () -> { loads.incrementAndGet(); return page(movie); });
+        cache.getGenres(() -> { loads.incrementAndGet(); return List.of("Action"); });
+        assertEquals(6, loads.get());
+    }
+
+    private static Page<MovieResponse> page(MovieResponse... movies) {
+        return new PageImpl<>(List.of(movies), PageRequest.of(0, 10), movies.length);
+    }
+
+    private static MovieResponse movie(String genre) {
+        Movie movie = new Movie("Title", "Description", genre, 120, new BigDecimal("10.00"));
+        movie.setId(UUID.randomUUID());
+        return new MovieResponse(movie);
+    }
+}
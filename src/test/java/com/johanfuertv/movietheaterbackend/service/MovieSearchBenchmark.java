@@ -0,0 +1,93 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.dto.response.MovieSearchResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency of {@link MovieSearchIndex} over a synthetic catalog. Sample mode reports
+ * the p99 next to the mean.
+ *
+ * Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.johanfuertv.movietheaterbackend.service.MovieSearchBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieSearchBenchmark {
+
+    // Words are built from two or three syllables, about 8,000 distinct words in all
+    private static final String[] SYLLABLES = {
+        "ka", "ro", "mi", "sta", "ne", "lo", "da", "ri", "ven", "to", "mar", "el", "sun", "di", "ga", "tor",
+        "be", "lu", "qui", "no"
+    };
+    private static final String[] GENRES = {"Drama", "Comedy", "Action", "Sci-Fi", "Horror", "Animation"};
+
+    @Param({"500", "5000"})
+    public int movies;
+
+    private MovieSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new MovieSearchIndex();
+        for (int i = 0; i < movies; i++) {
+            index.put(MovieSearchIndexTest.movie(words(random, 3) + " " + i, words(random, 40),
+                                                 GENRES[random.nextInt(GENRES.length)]));
+        }
+    }
+
+    // Type-ahead after two letters matches a large share of the catalog
+    @Benchmark
+    public MovieSearchResponse shortPrefix() {
+        return index.search("ka", null, 20);
+    }
+
+    @Benchmark
+    public MovieSearchResponse twoTerms() {
+        return index.search("karo sta", null, 20);
+    }
+
+    @Benchmark
+    public MovieSearchResponse twoTermsWithGenre() {
+        return index.search("mine lo", "drama", 20);
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int syllables = 2 + random.nextInt(2);
+            for (int s = 0; s < syllables; s++) {
+                text.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            text.append(' ');
+        }
+        return text.toString().trim();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(MovieSearchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,117 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.dto.response.MovieResponse;
+import com.johanfuertv.movietheaterbackend.dto.response.MovieSearchResponse;
+import com.johanfuertv.movietheaterbackend.entity.Movie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovieSearchIndexTest {
+
+    private MovieSearchIndex index;
+    private MovieResponse dune;
+    private MovieResponse duneTwo;
+    private MovieResponse arrival;
+
+    @BeforeEach
+    void setUp() {
+        index = new MovieSearchIndex();
+        dune = movie("Dune", "A noble family becomes embroiled in a war for the desert planet Arrakis", "Sci-Fi");
+        duneTwo = movie("Dune: Part Two", "Paul Atreides unites with the Fremen of the desert", "Sci-Fi");
+        arrival = movie("Arrival", "A linguist works with the military to talk to aliens that landed on earth", "Drama");
+        index.put(dune);
+        index.put(duneTwo);
+        index.put(arrival);
+        index.put(movie("La Acción Perdida", "Una película de acción en el desierto", "Acción"));
+    }
+
+    @Test
+    void ranksTitleMatchesAboveDescriptionMatches() {
+        MovieResponse desertHeat = movie("Desert Heat", "Two cops chase a thief across the city", "Action");
+        index.put(desertHeat);
+
+        MovieSearchResponse response = index.search("desert", null, 10);
+
+        assertEquals(3, response.getTotal());
+        assertEquals(desertHeat.getId(), response.getResults().get(0).getMovie().getId());
+    }
+
+    @Test
+    void matchesTheLastTermAsPrefix() {
+        assertEquals(List.of(dune.getId(), duneTwo.getId()), ids(index.search("du", null, 10)));
+        assertEquals(List.of(duneTwo.getId()), ids(index.search("dune pa", null, 10)));
+        // Earlier terms must match whole words
+        assertEquals(0, index.search("du two", null, 10).getTotal());
+    }
+
+    @Test
+    void ignoresCaseAndAccents() {
+        assertEquals(1, index.search("ACCION perdida", null, 10).getTotal());
+        assertEquals(1, index.search("acción", null, 10).getTotal());
+    }
+
+    @Test
+    void countsGenreFacetsBeforeFiltering() {
+        MovieSearchResponse response = index.search("a", "drama", 10);
+
+        assertEquals(List.of(arrival.getId()), ids(response));
+        assertTrue(response.getGenres().stream().anyMatch(f -> f.getGenre().equals("Sci-Fi") && f.getCount() == 2));
+        assertTrue(response.getGenres().stream().anyMatch(f -> f.getGenre().equals("Drama") && f.getCount() == 1));
+    }
+
+    @Test
+    void updatesAndRemovalsReplaceOnlyThatMovie() {
+        MovieResponse renamed = movie("Sand Planet", dune.getDescription(), dune.getGenre());
+        renamed.setId(dune.getId());
+        index.put(renamed);
+
+        assertEquals(List.of(duneTwo.getId()), ids(index.search("dune", null, 10)));
+        assertEquals(List.of(dune.getId()), ids(index.search("sand", null, 10)));
+
+        index.remove(duneTwo.getId());
+        assertEquals(0, index.search("dune", null, 10).getTotal());
+
+        renamed.setActive(false);
+        index.put(renamed);
+        assertEquals(0, index.search("sand", null, 10).getTotal());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void limitsResultsButReportsTotal() {
+        MovieSearchResponse response = index.search("a", null, 1);
+
+        assertEquals(1, response.getResults().size());
+        assertEquals(4, response.getTotal());
+    }
+
+    @Test
+    void repeatedSearchesReturnTheSameScores() {
+        MovieSearchResponse first = index.search("dune desert", null, 10);
+        index.search("a", null, 10);
+        MovieSearchResponse second = index.search("dune desert", null, 10);
+
+        assertEquals(ids(first), ids(second));
+        assertEquals(first.getResults().get(0).getScore(), second.getResults().get(0).getScore());
+    }
+
+    static MovieResponse movie(String title, String description, String genre) {
+        Movie movie = new Movie(title, description, genre, 120, new BigDecimal("12.50"));
+        movie.setId(UUID.randomUUID());
+        return new MovieResponse(movie);
+    }
+
+    private static List<UUID> ids(MovieSearchResponse response) {
+        return response.getResults().stream()
+            .map(hit -> hit.getMovie().getId())
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,103 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.entity.Movie;
+import com.johanfuertv.movietheaterbackend.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The movies in {@code active} and the {@code version} counter play the movies table and
+ * catalog_version_seq as written by other instances.
+ */
+class MovieServiceTest {
+
+    private final List<Movie> active = new ArrayList<>();
+    private final AtomicLong version = new AtomicLong(1);
+
+    private MovieService movieService;
+    private MovieSearchIndex searchIndex;
+    private MovieTitleTrie titleTrie;
+
+    @BeforeEach
+    void setUp() {
+        MovieRepository movies = (MovieRepository) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[] {MovieRepository.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "findAllByActiveTrue":
+                        return new ArrayList<>(active);
+                    case "findCatalogVersion":
+                        return version.get();
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+
+        CatalogVersion catalogVersion = new CatalogVersion();
+        ReflectionTestUtils.setField(catalogVersion, "movieRepository", movies);
+        ReflectionTestUtils.setField(catalogVersion, "refreshMillis", 0L);
+
+        MovieCatalogCache catalogCache = new MovieCatalogCache();
+        ReflectionTestUtils.setField(catalogCache, "maxMovies", 10);
+        ReflectionTestUtils.setField(catalogCache, "maxPages", 10);
+        ReflectionTestUtils.invokeMethod(catalogCache, "init");
+
+        searchIndex = new MovieSearchIndex();
+        ReflectionTestUtils.setField(searchIndex, "movieRepository", movies);
+
+        titleTrie = new MovieTitleTrie();
+        ReflectionTestUtils.setField(titleTrie, "movieRepository", movies);
+
+        movieService = new MovieService();
+        ReflectionTestUtils.setField(movieService, "movieRepository", movies);
+        ReflectionTestUtils.setField(movieService, "catalogCache", catalogCache);
+        ReflectionTestUtils.setField(movieService, "snapshots", new CatalogSnapshots());
+        ReflectionTestUtils.setField(movieService, "searchIndex", searchIndex);
+        ReflectionTestUtils.setField(movieService, "titleTrie", titleTrie);
+        ReflectionTestUtils.setField(movieService, "catalogVersion", catalogVersion);
+    }
+
+    @Test
+    void searchDropsAMovieDisabledOnAnotherInstance() {
+        Movie dune = movie("Dune");
+        active.add(dune);
+        active.add(movie("Dune: Part Two"));
+        searchIndex.load();
+        assertEquals(2, movieService.searchMovies("dune", null, 10).getTotal());
+
+        // Disabled elsewhere: the row is gone from the active set and the shared version moved
+        active.remove(dune);
+        version.incrementAndGet();
+
+        assertEquals(1, movieService.searchMovies("dune", null, 10).getTotal());
+    }
+
+    @Test
+    void suggestionsFollowATitleRenamedOnAnotherInstance() {
+        Movie dune = movie("Dune");
+        active.add(dune);
+        titleTrie.load();
+        assertEquals(1, movieService.suggestMovies("dun", 10).size());
+
+        dune.setTitle("Arrakis");
+        version.incrementAndGet();
+
+        assertEquals(0, movieService.suggestMovies("dun", 10).size());
+        assertEquals("Arrakis", movieService.suggestMovies("arr", 10).get(0).getTitle());
+    }
+
+    private static Movie movie(String title) {
+        Movie movie = new Movie(title, "", "Sci-Fi", 120, new BigDecimal("12.50"));
+        movie.setId(UUID.randomUUID());
+        return movie;
+    }
+}
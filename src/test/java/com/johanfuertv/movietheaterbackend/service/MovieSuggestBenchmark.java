@@ -0,0 +1,86 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.dto.response.MovieSuggestionResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suggestion latency of {@link MovieTitleTrie} over the same synthetic titles as
+ * {@link MovieSearchBenchmark}.
+ *
+ * Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.johanfuertv.movietheaterbackend.service.MovieSuggestBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieSuggestBenchmark {
+
+    private static final String[] SYLLABLES = {
+        "ka", "ro", "mi", "sta", "ne", "lo", "da", "ri", "ven", "to", "mar", "el", "sun", "di", "ga", "tor",
+        "be", "lu", "qui", "no"
+    };
+
+    @Param({"500", "50000"})
+    public int movies;
+
+    private MovieTitleTrie trie;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        trie = new MovieTitleTrie();
+        for (int i = 0; i < movies; i++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 0; w < 3; w++) {
+                int syllables = 2 + random.nextInt(2);
+                for (int s = 0; s < syllables; s++) {
+                    title.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+                }
+                title.append(' ');
+            }
+            trie.put(MovieSearchIndexTest.movie(title.append(i).toString(), "", "Drama"));
+        }
+    }
+
+    @Benchmark
+    public List<MovieSuggestionResponse> oneLetter() {
+        return trie.suggest("k", 10);
+    }
+
+    @Benchmark
+    public List<MovieSuggestionResponse> word() {
+        return trie.suggest("karo", 10);
+    }
+
+    @Benchmark
+    public List<MovieSuggestionResponse> twoWords() {
+        return trie.suggest("karo sta", 10);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(MovieSuggestBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,100 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.dto.response.MovieResponse;
+import com.johanfuertv.movietheaterbackend.dto.response.MovieSuggestionResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.johanfuertv.movietheaterbackend.service.MovieSearchIndexTest.movie;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MovieTitleTrieTest {
+
+    private MovieTitleTrie trie;
+    private MovieResponse dune;
+    private MovieResponse duneTwo;
+    private MovieResponse arrival;
+    private MovieResponse accion;
+
+    @BeforeEach
+    void setUp() {
+        trie = new MovieTitleTrie();
+        dune = movie("Dune", "", "Sci-Fi");
+        duneTwo = movie("Dune: Part Two", "", "Sci-Fi");
+        arrival = movie("Arrival", "", "Drama");
+        accion = movie("La Acción Perdida", "", "Acción");
+        trie.put(duneTwo);
+        trie.put(arrival);
+        trie.put(dune);
+        trie.put(accion);
+    }
+
+    @Test
+    void suggestsTitleStartsAlphabeticallyBeforeWordStarts() {
+        MovieResponse sandDunes = movie("Sand Dunes", "", "Drama");
+        trie.put(sandDunes);
+
+        assertEquals(List.of(dune.getId(), duneTwo.getId(), sandDunes.getId()), ids(trie.suggest("du", 10)));
+        assertEquals(List.of(duneTwo.getId()), ids(trie.suggest("part t", 10)));
+    }
+
+    @Test
+    void ignoresCaseAccentsAndPunctuation() {
+        assertEquals(List.of(accion.getId()), ids(trie.suggest("ACCION", 10)));
+        assertEquals(List.of(accion.getId()), ids(trie.suggest("la acción", 10)));
+        assertEquals(List.of(duneTwo.getId()), ids(trie.suggest("dune part", 10)));
+        assertEquals(List.of(), ids(trie.suggest("  ", 10)));
+    }
+
+    @Test
+    void trailingSpaceRequiresAWholeWord() {
+        assertEquals(List.of(duneTwo.getId()), ids(trie.suggest("dune ", 10)));
+        assertEquals(List.of(), ids(trie.suggest("dun ", 10)));
+    }
+
+    @Test
+    void stopsAtTheLimitWithoutDuplicates() {
+        MovieResponse aliens = movie("Aliens Arrive", "", "Sci-Fi");
+        trie.put(aliens);
+
+        assertEquals(List.of(aliens.getId()), ids(trie.suggest("a", 1)));
+        // "Aliens Arrive" starts with "a" and has a word starting with "a"; listed once
+        assertEquals(List.of(aliens.getId(), arrival.getId(), accion.getId()), ids(trie.suggest("a", 10)));
+    }
+
+    @Test
+    void updatesAndDisablesReplaceOnlyThatMovie() {
+        MovieResponse renamed = movie("Sand Planet", "", dune.getGenre());
+        renamed.setId(dune.getId());
+        trie.put(renamed);
+
+        assertEquals(List.of(duneTwo.getId()), ids(trie.suggest("dune", 10)));
+        assertEquals(List.of(dune.getId()), ids(trie.suggest("planet", 10)));
+
+        trie.remove(duneTwo.getId());
+        assertEquals(List.of(), ids(trie.suggest("dune", 10)));
+        assertEquals(List.of(), ids(trie.suggest("two", 10)));
+
+        renamed.setActive(false);
+        trie.put(renamed);
+        assertEquals(List.of(), ids(trie.suggest("sand", 10)));
+        assertEquals(2, trie.size());
+    }
+
+    @Test
+    void keepsMoviesWithTheSameTitleApart() {
+        MovieResponse remake = movie("Dune", "", "Sci-Fi");
+        trie.put(remake);
+        trie.remove(dune.getId());
+
+        assertEquals(List.of(remake.getId(), duneTwo.getId()), ids(trie.suggest("dune", 10)));
+    }
+
+    private static List<UUID> ids(List<MovieSuggestionResponse> suggestions) {
+        return suggestions.stream().map(MovieSuggestionResponse::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,37 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PurchaseCursorTest {
+
+    @Test
+    void roundTripsWithMicrosecondPrecision() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 3, 14, 20, 15, 9, 123456000);
+        UUID id = UUID.randomUUID();
+
+        PurchaseCursor decoded = PurchaseCursor.decode(new PurchaseCursor(createdAt, id).encode());
+
+        assertEquals(createdAt, decoded.getCreatedAt());
+        assertEquals(id, decoded.getId());
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = new PurchaseCursor(LocalDateTime.now(), UUID.randomUUID()).encode();
+
+        assertFalse(token.contains("+") || token.contains("/") || token.contains("="));
+    }
+
+    @Test
+    void rejectsTamperedTokens() {
+        assertThrows(RuntimeException.class, () -> PurchaseCursor.decode("not a cursor"));
+        assertThrows(RuntimeException.class, () -> PurchaseCursor.decode("bm8tc2VwYXJhdG9y"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.johanfuertv.movietheaterbackend.entity.Customer;
+import com.johanfuertv.movietheaterbackend.entity.Movie;
+import com.johanfuertv.movietheaterbackend.entity.Purchase;
+import com.johanfuertv.movietheaterbackend.service.PurchaseExportService.ExportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false"
+})
+@Import(PurchaseExportService.class)
+class PurchaseExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PurchaseExportService purchaseExportService;
+
+    private Movie drama;
+
+    @BeforeEach
+    void seed() {
+        Customer plain = entityManager.persist(
+            new Customer("Ana", "Gomez", "ana@example.com", "3000000000", "hash"));
+        Customer tricky = entityManager.persist(
+            new Customer("=HYPERLINK(\"x\")", "Smith, Jr.", "tricky@example.com", "3000000001", "hash"));
+        drama = entityManager.persist(new Movie("Drama", "Description", "Drama", 120, new BigDecimal("10.00")));
+        Movie comedy = entityManager.persist(new Movie("Comedy", "Description", "Comedy", 95, new BigDecimal("8.00")));
+
+        entityManager.persist(purchase(plain, drama, Purchase.PurchaseStatus.PAID));
+        entityManager.persist(purchase(tricky, drama, Purchase.PurchaseStatus.PAID));
+        entityManager.persist(purchase(plain, comedy, Purchase.PurchaseStatus.CANCELLED));
+        entityManager.flush();
+    }
+
+    @Test
+    void writesCsvWithHeaderAndEscapedFields() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = purchaseExportService.export(ExportFormat.CSV, null, drama.getId(), null, null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(2, rows);
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("purchaseId,createdAt,status"));
+        String trickyLine = lines[1].contains("tricky@") ? lines[1] : lines[2];
+        assertTrue(trickyLine.contains(",\"'=HYPERLINK(\"\"x\"\")\",\"Smith, Jr.\","), trickyLine);
+    }
+
+    @Test
+    void writesOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = purchaseExportService.export(ExportFormat.NDJSON, null, null, Purchase.PurchaseStatus.PAID,
+                                                 null, null, out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        String[] lines = body.split("\n");
+        assertEquals(2, rows);
+        assertEquals(2, lines.length);
+        assertTrue(body.endsWith("\n"));
+        ObjectMapper mapper = new ObjectMapper();
+        for (String line : lines) {
+            JsonNode node = mapper.readTree(line);
+            assertEquals("PAID", node.get("status").asText());
+            assertEquals(0, new BigDecimal("20.00").compareTo(node.get("totalAmount").decimalValue()));
+        }
+    }
+
+    @Test
+    void emptyExportStillHasCsvHeader() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = purchaseExportService.export(ExportFormat.CSV, null, null, Purchase.PurchaseStatus.CREATED,
+                                                 null, null, out);
+
+        assertEquals(0, rows);
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("purchaseId,"));
+    }
+
+    @Test
+    void neutralizesFormulasButNotNegativeNumbers() {
+        assertEquals("'=1+1", PurchaseExportService.csvField("=1+1"));
+        assertEquals("-12.50", PurchaseExportService.csvField("-12.50"));
+        assertEquals("\"a\"\"b\"", PurchaseExportService.csvField("a\"b"));
+    }
+
+    private static Purchase purchase(Customer customer, Movie movie, Purchase.PurchaseStatus status) {
+        Purchase purchase = new Purchase();
+        purchase.setCustomer(customer);
+        purchase.setMovie(movie);
+        purchase.setGenre(movie.getGenre());
+        purchase.setQuantity(2);
+        purchase.setTotalAmount(movie.getPrice().multiply(BigDecimal.valueOf(2)));
+        purchase.setStatus(status);
+        return purchase;
+    }
+}
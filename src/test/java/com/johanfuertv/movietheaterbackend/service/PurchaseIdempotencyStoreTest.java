@@ -0,0 +1,131 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.dto.request.PurchaseRequest;
+import com.johanfuertv.movietheaterbackend.dto.response.PurchaseResponse;
+import com.johanfuertv.movietheaterbackend.entity.Customer;
+import com.johanfuertv.movietheaterbackend.entity.Movie;
+import com.johanfuertv.movietheaterbackend.entity.Purchase;
+import com.johanfuertv.movietheaterbackend.exception.ConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PurchaseIdempotencyStoreTest {
+
+    private static final UUID CUSTOMER = UUID.randomUUID();
+
+    private PurchaseIdempotencyStore store;
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        store = new PurchaseIdempotencyStore();
+        ReflectionTestUtils.setField(store, "ttlHours", 1L);
+        ReflectionTestUtils.setField(store, "maxEntries", 3);
+        store.clock = now::get;
+    }
+
+    @Test
+    void replaysTheOriginalResponseWithoutRunningAgain() {
+        PurchaseRequest request = request(2);
+
+        PurchaseIdempotencyStore.Outcome first = store.execute(CUSTOMER, "key-1", request, this::purchase);
+        PurchaseIdempotencyStore.Outcome retry = store.execute(CUSTOMER, "key-1", request(2), this::purchase);
+
+        assertFalse(first.isReplayed());
+        assertTrue(retry.isReplayed());
+        assertSame(first.getResponse(), retry.getResponse());
+        assertEquals(1, runs.get());
+
+        // Keys belong to a customer
+        store.execute(UUID.randomUUID(), "key-1", request, this::purchase);
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void rejectsRetriesWhileTheFirstRequestRuns() {
+        PurchaseRequest request = request(2);
+
+        ConflictException conflict = assertThrows(ConflictException.class, () ->
+            store.execute(CUSTOMER, "key-1", request, () -> {
+                store.execute(CUSTOMER, "key-1", request, this::purchase);
+                return purchase();
+            }));
+
+        assertTrue(conflict.getMessage().contains("still being processed"));
+    }
+
+    @Test
+    void rejectsAKeyReusedForADifferentPurchase() {
+        store.execute(CUSTOMER, "key-1", request(2), this::purchase);
+
+        assertThrows(ConflictException.class, () -> store.execute(CUSTOMER, "key-1", request(3), this::purchase));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void forgetsFailedRequestsSoTheyCanBeRetried() {
+        assertThrows(RuntimeException.class, () -> store.execute(CUSTOMER, "key-1", request(2), () -> {
+            throw new RuntimeException("Not enough seats");
+        }));
+
+        assertFalse(store.execute(CUSTOMER, "key-1", request(2), this::purchase).isReplayed());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void evictsExpiredKeysAndTheOldestPastTheCap() {
+        store.execute(CUSTOMER, "a", request(1), this::purchase);
+        now.addAndGet(3_600_001L);
+        store.execute(CUSTOMER, "b", request(1), this::purchase);
+        assertEquals(1, store.size());
+
+        store.execute(CUSTOMER, "c", request(1), this::purchase);
+        store.execute(CUSTOMER, "d", request(1), this::purchase);
+        store.execute(CUSTOMER, "e", request(1), this::purchase);
+        assertEquals(3, store.size());
+        assertFalse(store.execute(CUSTOMER, "b", request(1), this::purchase).isReplayed());
+    }
+
+    @Test
+    void rejectsOverlongKeys() {
+        assertThrows(IllegalArgumentException.class,
+            () -> store.execute(CUSTOMER, "k".repeat(256), request(1), this::purchase));
+        assertThrows(IllegalArgumentException.class,
+            () -> store.execute(CUSTOMER, " ", request(1), this::purchase));
+    }
+
+    private PurchaseResponse purchase() {
+        runs.incrementAndGet();
+        Purchase purchase = new Purchase();
+        purchase.setId(UUID.randomUUID());
+        purchase.setCustomer(new Customer("Ana", "Diaz", "ana@example.com", "555-0100", "hash"));
+        purchase.setMovie(new Movie("Dune", "", "Sci-Fi", 155, new BigDecimal("12.50")));
+        purchase.setQuantity(2);
+        purchase.setTotalAmount(new BigDecimal("25.00"));
+        return new PurchaseResponse(purchase);
+    }
+
+    private static PurchaseRequest request(int quantity) {
+        PurchaseRequest.PaymentInfo payment = new PurchaseRequest.PaymentInfo();
+        payment.setMethod("CARD");
+        payment.setLast4("4242");
+        PurchaseRequest request = new PurchaseRequest();
+        request.setMovieId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+        request.setQuantity(quantity);
+        request.setPayment(payment);
+        return request;
+    }
+}
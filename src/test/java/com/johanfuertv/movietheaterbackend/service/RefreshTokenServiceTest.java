@@ -0,0 +1,92 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.entity.Customer;
+import com.johanfuertv.movietheaterbackend.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false"
+})
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenService refreshTokenService;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService();
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenRepository", refreshTokenRepository);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshSeconds", 3600L);
+
+        customer = entityManager.persist(new Customer("Test", "User", "user@example.com", "3000000000", "hash"));
+        entityManager.flush();
+    }
+
+    @Test
+    void storesOnlyTheHash() {
+        String token = refreshTokenService.issue(customer);
+
+        assertTrue(refreshTokenRepository.findByTokenHash(token).isEmpty());
+        assertTrue(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash(token)).isPresent());
+    }
+
+    @Test
+    void rotationConsumesTheTokenAndKeepsTheFamily() {
+        String first = refreshTokenService.issue(customer);
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(first);
+
+        assertEquals(customer.getId(), rotation.getCustomer().getId());
+        assertNotEquals(first, rotation.getRefreshToken());
+        assertEquals(
+            refreshTokenRepository.findByTokenHash(RefreshTokenService.hash(first)).orElseThrow().getFamilyId(),
+            refreshTokenRepository.findByTokenHash(RefreshTokenService.hash(rotation.getRefreshToken())).orElseThrow().getFamilyId());
+    }
+
+    @Test
+    void reusingAConsumedTokenRevokesTheFamily() {
+        String first = refreshTokenService.issue(customer);
+        String second = refreshTokenService.rotate(first).getRefreshToken();
+        String otherLogin = refreshTokenService.issue(customer);
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(first));
+        entityManager.clear();
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(second));
+        // A separate login is a separate family and keeps working
+        refreshTokenService.rotate(otherLogin);
+    }
+
+    @Test
+    void disabledCustomersCannotRefresh() {
+        String token = refreshTokenService.issue(customer);
+        customer.setActive(false);
+        entityManager.flush();
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(token));
+    }
+
+    @Test
+    void unknownTokensAreRejected() {
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("not-a-token"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.service.SalesAggregateService.ReconciliationReport;
+import com.johanfuertv.movietheaterbackend.service.SalesAggregateService.Totals;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SalesAggregateServiceTest {
+
+    @Test
+    void aggregatesPlusPendingDeltasMatchPurchases() {
+        Map<String, Totals> purchases = Map.of(
+            "GLOBAL:", new Totals(new BigDecimal("30.00"), 3L, 2L, 3L),
+            "GENRE:Drama", new Totals(new BigDecimal("30.00"), 3L, 2L, 3L));
+
+        Map<String, Totals> aggregates = new HashMap<>();
+        aggregates.put("GLOBAL:", new Totals(new BigDecimal("10.0"), 1L, 1L, 2L));
+        aggregates.merge("GLOBAL:", new Totals(new BigDecimal("20.00"), 2L, 1L, 1L), Totals::plus);
+        aggregates.put("GENRE:Drama", new Totals(new BigDecimal("30"), 3L, 2L, 3L));
+
+        ReconciliationReport report = SalesAggregateService.compare(purchases, aggregates);
+
+        assertEquals(2, report.getChecked());
+        assertEquals(0, report.getMismatches());
+        assertTrue(report.getDetails().isEmpty());
+    }
+
+    @Test
+    void reportsScopesMissingOnEitherSide() {
+        Map<String, Totals> purchases = Map.of(
+            "DAY:2026-01-01", new Totals(new BigDecimal("12.50"), 1L, 1L, 1L));
+        Map<String, Totals> aggregates = Map.of(
+            "DAY:2026-01-02", new Totals(new BigDecimal("12.50"), 1L, 1L, 1L));
+
+        ReconciliationReport report = SalesAggregateService.compare(purchases, aggregates);
+
+        assertEquals(2, report.getChecked());
+        assertEquals(2, report.getMismatches());
+    }
+
+    @Test
+    void reportsDriftInPurchasesOfAnyStatus() {
+        // Same sales, but one hold the aggregates never counted
+        Map<String, Totals> purchases = Map.of(
+            "GLOBAL:", new Totals(new BigDecimal("12.50"), 1L, 1L, 2L));
+        Map<String, Totals> aggregates = Map.of(
+            "GLOBAL:", new Totals(new BigDecimal("12.50"), 1L, 1L, 1L));
+
+        ReconciliationReport report = SalesAggregateService.compare(purchases, aggregates);
+
+        assertEquals(1, report.getMismatches());
+    }
+
+    @Test
+    void treatsMissingTotalsAsZero() {
+        Map<String, Totals> purchases = Map.of("GLOBAL:", new Totals(null, null, null, null));
+
+        ReconciliationReport report = SalesAggregateService.compare(purchases, Map.of());
+
+        assertEquals(0, report.getMismatches());
+    }
+}
@@ -0,0 +1,108 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import com.johanfuertv.movietheaterbackend.entity.Auditorium;
+import com.johanfuertv.movietheaterbackend.entity.Showtime;
+import com.johanfuertv.movietheaterbackend.repository.PurchaseSeatRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The seats in {@code sold} play purchase_seats as written by other instances.
+ */
+class SeatInventoryTest {
+
+    private final List<Integer> sold = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private SeatInventory inventory;
+    private Showtime showtime;
+
+    @BeforeEach
+    void setUp() {
+        PurchaseSeatRepository seats = (PurchaseSeatRepository) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[] {PurchaseSeatRepository.class}, (proxy, method, args) -> {
+                if (method.getName().equals("findSeatNumbersByShowtimeId")) {
+                    loads.incrementAndGet();
+                    return new ArrayList<>(sold);
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+
+        inventory = new SeatInventory();
+        ReflectionTestUtils.setField(inventory, "purchaseSeatRepository", seats);
+        ReflectionTestUtils.setField(inventory, "refreshSeconds", 30L);
+        inventory.clock = now::get;
+
+        showtime = new Showtime(null, new Auditorium("Sala 1", 2, 10), null);
+        showtime.setId(UUID.randomUUID());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void picksUpOtherInstancesOnceTheMapIsOld() {
+        inventory.getSeatMap(showtime);
+        sold.add(4);
+
+        assertFalse(inventory.getSeatMap(showtime).isTaken(4));
+        now.addAndGet(30_000);
+        assertTrue(inventory.getSeatMap(showtime).isTaken(4));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void conflictReloadsSeatsReleasedElsewhere() {
+        sold.add(3);
+        inventory.getSeatMap(showtime);
+        // Cancelled or expired on another instance
+        sold.clear();
+
+        inventory.reserveForTransaction(showtime, new int[] {3});
+
+        assertTrue(inventory.getSeatMap(showtime).isTaken(3));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void seatsTakenEverywhereStillConflict() {
+        sold.add(3);
+
+        assertThrows(RuntimeException.class, () -> inventory.reserveForTransaction(showtime, new int[] {2, 3}));
+        assertFalse(inventory.getSeatMap(showtime).isTaken(2));
+    }
+
+    @Test
+    void rollbackDropsTheMapSoItIsReloaded() {
+        TransactionSynchronizationManager.initSynchronization();
+        inventory.reserveForTransaction(showtime, new int[] {5});
+        // Sold on another instance first, so the insert hits the unique key and rolls back
+        sold.add(5);
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertTrue(inventory.getSeatMap(showtime).isTaken(5));
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,100 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatMapTest {
+
+    @Test
+    void reservationIsAllOrNothing() {
+        SeatMap seatMap = new SeatMap(2, 10);
+
+        assertTrue(seatMap.tryReserve(new int[] {1, 2}));
+        assertFalse(seatMap.tryReserve(new int[] {3, 2, 4}));
+
+        assertTrue(seatMap.isTaken(1));
+        assertTrue(seatMap.isTaken(2));
+        assertFalse(seatMap.isTaken(3));
+        assertFalse(seatMap.isTaken(4));
+        assertEquals(2, seatMap.countTaken());
+    }
+
+    @Test
+    void releasedSeatsCanBeSoldAgain() {
+        SeatMap seatMap = new SeatMap(1, 5);
+
+        assertTrue(seatMap.tryReserve(new int[] {0, 4}));
+        seatMap.release(new int[] {0, 4});
+
+        assertTrue(seatMap.tryReserve(new int[] {4}));
+    }
+
+    @Test
+    void convertsBetweenLabelsAndSeatNumbers() {
+        SeatMap seatMap = new SeatMap(3, 12);
+
+        assertEquals("A1", seatMap.toLabel(0));
+        assertEquals("C12", seatMap.toLabel(35));
+        assertEquals(13, seatMap.toSeatNumber("b2"));
+        assertThrows(IllegalArgumentException.class, () -> seatMap.toSeatNumber("D1"));
+        assertThrows(IllegalArgumentException.class, () -> seatMap.toSeatNumber("A13"));
+    }
+
+    @Test
+    void concurrentBuyersNeverDoubleSellASeat() throws Exception {
+        SeatMap seatMap = new SeatMap(20, 30);
+        int buyers = 64;
+        int attemptsPerBuyer = 2_000;
+
+        // How many times each seat was handed out
+        AtomicIntegerArray soldCount = new AtomicIntegerArray(seatMap.getCapacity());
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int b = 0; b < buyers; b++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < attemptsPerBuyer; i++) {
+                    int first = random.nextInt(seatMap.getCapacity() - 4);
+                    int[] seats = {first, first + 1 + random.nextInt(3)};
+                    if (seatMap.tryReserve(seats)) {
+                        for (int seat : seats) {
+                            soldCount.incrementAndGet(seat);
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int sold = 0;
+        for (int seat = 0; seat < seatMap.getCapacity(); seat++) {
+            assertTrue(soldCount.get(seat) <= 1, "Seat " + seatMap.toLabel(seat) + " was sold twice");
+            assertEquals(soldCount.get(seat) == 1, seatMap.isTaken(seat));
+            sold += soldCount.get(seat);
+        }
+        assertEquals(sold, seatMap.countTaken());
+    }
+}
@@ -0,0 +1,54 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SendRateLimiterTest {
+
+    @Test
+    void concurrentCallersShareTheRate() throws Exception {
+        SendRateLimiter rateLimiter = new SendRateLimiter(1_000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                rateLimiter.acquire(50);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        executor.shutdown();
+
+        // 400 permits at 1000/s: the last caller starts once the first 350 are paid for
+        assertTrue(elapsedMillis >= 340, "Finished too early: " + elapsedMillis + "ms");
+    }
+
+    @Test
+    void firstAcquireDoesNotWait() throws Exception {
+        SendRateLimiter rateLimiter = new SendRateLimiter(1);
+
+        long start = System.nanoTime();
+        rateLimiter.acquire(10);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500);
+    }
+
+    @Test
+    void rejectsNonPositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> new SendRateLimiter(0));
+    }
+}
@@ -0,0 +1,79 @@
+package com.johanfuertv.movietheaterbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    @Test
+    void firesEntriesInDeadlineOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 3, 0);
+        List<String> fired = new ArrayList<>();
+
+        wheel.add("c", 300, entry -> fired.add(entry.getItem()));
+        wheel.add("a", 15, entry -> fired.add(entry.getItem()));
+        wheel.add("b", 100, entry -> fired.add(entry.getItem()));
+        assertEquals(3, wheel.size());
+
+        wheel.advanceTo(99, entry -> fired.add(entry.getItem()));
+        assertEquals(List.of("a"), fired);
+
+        wheel.advanceTo(1_000, entry -> fired.add(entry.getItem()));
+        assertEquals(List.of("a", "b", "c"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void overdueEntriesAreDueImmediately() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 2, 0);
+        wheel.advanceTo(500, entry -> { });
+
+        List<String> fired = new ArrayList<>();
+        wheel.add("late", 100, entry -> fired.add(entry.getItem()));
+
+        assertEquals(List.of("late"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void neverFiresBeforeDeadlineAcrossLevels() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 3, 0);
+        List<Long> deadlines = new ArrayList<>();
+        for (long deadline = 1; deadline < 200_000; deadline += 97) {
+            wheel.add(deadline, deadline, entry -> { });
+            deadlines.add(deadline);
+        }
+
+        List<long[]> fired = new ArrayList<>();
+        for (long now = 0; now <= 300_000; now += 50) {
+            long at = now;
+            wheel.advanceTo(now, entry -> fired.add(new long[] {entry.getDeadlineMillis(), at}));
+        }
+
+        assertEquals(deadlines.size(), fired.size());
+        for (long[] firing : fired) {
+            assertTrue(firing[1] >= firing[0], "Fired at " + firing[1] + " before deadline " + firing[0]);
+            assertTrue(firing[1] - firing[0] < 50, "Fired late at " + firing[1] + " for deadline " + firing[0]);
+        }
+    }
+
+    @Test
+    void deadlinesBeyondTopLevelAreParkedAndStillFire() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 1, 0);
+        List<String> fired = new ArrayList<>();
+
+        // A single level only spans 63 ticks
+        wheel.add("far", 1_000, entry -> fired.add(entry.getItem()));
+
+        wheel.advanceTo(999, entry -> fired.add(entry.getItem()));
+        assertTrue(fired.isEmpty());
+
+        wheel.advanceTo(1_000, entry -> fired.add(entry.getItem()));
+        assertEquals(List.of("far"), fired);
+    }
+}